@@ -1,4 +1,5 @@
 package abstraction;
+import common.BoardHistory;
 import common.Colour;
 import common.GameState;
 
@@ -20,6 +21,28 @@ public interface IGameInterface {
      **/
     GameState onClick(String polygonLabel);
 
+    /**
+     * Same as onClick, answering with only the polygons changed since the version the player has
+     * @param  polygonLabel The unique label of the polygon which is clicked by player
+     * @param  knownVersion board version the player has, GameState.NO_VERSION for the full board
+     * @return GameState which contains the changes or the full board and list of polygons to highlight
+     **/
+    GameState onClick(String polygonLabel, long knownVersion);
+
+    /**
+     * Moves a piece of the current player in one step, without selecting it first, e.g. for a move
+     * sent as a whole over a socket. A selection made by earlier clicks is dropped.
+     * @param  startLabel The label of the polygon the piece stands on
+     * @param  endLabel The label of the polygon the piece moves to
+     * @return GameState which contains current game board layout and no polygons to highlight
+     **/
+    GameState onMove(String startLabel, String endLabel);
+
+    /**
+     * @return history of the board, immutable, replaced after every move
+     * */
+    BoardHistory getHistory();
+
     /**
      * @return returns which colour turn it is currently
      * */
@@ -0,0 +1,104 @@
+package common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable history of the web view board: the board of the current version and the polygons
+ * each of the last versions changed, so a client knowing an earlier version is sent only the
+ * changes since. Each version makes a new history, which can be read without a lock.
+ * A changed polygon maps to the piece on it, or to EMPTY when the piece left it.
+ */
+public final class BoardHistory {
+
+    /** Piece label of a polygon a piece left **/
+    public static final String EMPTY = "";
+
+    /** Number of versions the changes are kept for by default **/
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Map<String, String> board;
+    private final long version;
+    private final int capacity;
+    private final List<Map<String, String>> changes; // the last entry takes version - 1 to version
+
+    /**
+     * BoardHistory constructor, a history starting at the board
+     * @param board web view board of the version
+     * @param version version of the board
+     * @param capacity number of versions to keep the changes for
+     */
+    public BoardHistory(Map<String, String> board, long version, int capacity) {
+        this(Collections.unmodifiableMap(new HashMap<>(board)), version, capacity, Collections.emptyList());
+    }
+
+    private BoardHistory(Map<String, String> board, long version, int capacity, List<Map<String, String>> changes) {
+        this.board = board;
+        this.version = version;
+        this.capacity = capacity;
+        this.changes = changes;
+    }
+
+    /**
+     * History after the next version of the board
+     * @param next web view board of the next version
+     * @param nextVersion version of the board, the changes are kept only if it follows the current one
+     * @return the new history, this one is left unchanged
+     */
+    public BoardHistory next(Map<String, String> next, long nextVersion) {
+        if (nextVersion != version + 1) {
+            return new BoardHistory(next, nextVersion, capacity);
+        }
+        Map<String, String> changed = new HashMap<>();
+        for (Map.Entry<String, String> entry : next.entrySet()) {
+            if (!entry.getValue().equals(board.get(entry.getKey()))) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String polygon : board.keySet()) {
+            if (!next.containsKey(polygon)) {
+                changed.put(polygon, EMPTY);
+            }
+        }
+        int from = Math.max(0, changes.size() + 1 - capacity);
+        List<Map<String, String>> kept = new ArrayList<>(changes.subList(from, changes.size()));
+        kept.add(Collections.unmodifiableMap(changed));
+        return new BoardHistory(Collections.unmodifiableMap(new HashMap<>(next)), nextVersion, capacity,
+                Collections.unmodifiableList(kept));
+    }
+
+    /**
+     * @return unmodifiable web view board of the current version
+     */
+    public Map<String, String> getBoard() {
+        return board;
+    }
+
+    /**
+     * @return version of the board
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Polygons changed since a version, the later change of a polygon counting
+     * @param knownVersion version the client has
+     * @return the changed polygons, empty for the current version, null if the version is older than
+     * the changes kept or not a version of this board
+     */
+    public Map<String, String> changesSince(long knownVersion) {
+        if (knownVersion > version || knownVersion < version - changes.size()) {
+            return null;
+        }
+        Map<String, String> merged = new LinkedHashMap<>();
+        for (int i = changes.size() - (int) (version - knownVersion); i < changes.size(); i++) {
+            merged.putAll(changes.get(i));
+        }
+        return merged;
+    }
+}
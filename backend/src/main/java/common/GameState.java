@@ -6,12 +6,20 @@ import java.util.Map;
 /**
  * Class GameState to communicate with the webapp.
  * All the info regarding highlighted polygons, winner is
- * accessed with this method
+ * accessed with this method.
+ * The board is versioned: a state carries either the full board or only the polygons changed
+ * since the version the client already has, see BoardHistory.
  */
 public class GameState {
 
+    /** Known version of a client without a board, always sent the full board **/
+    public static final long NO_VERSION = -1;
+
     private final List<String> highlightedPolygons;
     private final Map<String, String> board;
+    private final Map<String, String> changes;
+    private final long since;
+    private final long version;
     private boolean isGameOver;
     private String winner;
 
@@ -20,6 +28,25 @@ public class GameState {
      */
     public GameState(Map<String, String> board, List<String> highlightedPolygons) {
         this.board = board;
+        this.changes = null;
+        this.since = NO_VERSION;
+        this.version = NO_VERSION;
+        this.highlightedPolygons = highlightedPolygons;
+    }
+
+    /**
+     * GameState constructor for a versioned board, with the changes since the known version
+     * if the history still has them, else with the full board
+     * @param history history of the board
+     * @param knownVersion version the client has, NO_VERSION for the full board
+     * @param highlightedPolygons polygons to highlight
+     */
+    public GameState(BoardHistory history, long knownVersion, List<String> highlightedPolygons) {
+        Map<String, String> changed = history.changesSince(knownVersion);
+        this.board = changed == null ? history.getBoard() : null;
+        this.changes = changed;
+        this.since = changed == null ? NO_VERSION : knownVersion;
+        this.version = history.getVersion();
         this.highlightedPolygons = highlightedPolygons;
     }
 
@@ -33,12 +60,37 @@ public class GameState {
 
     /**
      * Method to share the board info to the web app
-     * @return Map with board position and piece
+     * @return Map with board position and piece, null if the state has only the changes
      */
     public Map<String, String> getBoard() {
         return board;
     }
 
+    /**
+     * Method to share the changed polygons to the web app
+     * @return Map with changed position and piece, BoardHistory.EMPTY for a piece leaving,
+     * null if the state has the full board
+     */
+    public Map<String, String> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Method to share the version the changes apply to
+     * @return version the changes are since, NO_VERSION if the state has the full board
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * Method to share the board version to the web app
+     * @return version of the board, NO_VERSION if the board is not versioned
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Method to share the winner info to the web app
      * @param winner is set
@@ -73,6 +125,9 @@ public class GameState {
         return "GameState{" +
                 "highlightedPolygons=" + highlightedPolygons +
                 ", board=" + board +
+                ", changes=" + changes +
+                ", since=" + since +
+                ", version=" + version +
                 '}';
     }
 }
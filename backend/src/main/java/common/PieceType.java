@@ -0,0 +1,24 @@
+package common;
+
+/**
+ *  Enum class containing the types of the chess pieces.
+ *  Also has a method for String representation to use in web app
+ **/
+public enum PieceType {
+
+    ROOK, KNIGHT, BISHOP, QUEEN, KING, PAWN, JESTER, WALL;
+
+    @Override
+    public String toString() {
+        switch (this) {
+            case ROOK: return "R";
+            case KNIGHT: return "N";
+            case BISHOP: return "B";
+            case QUEEN: return "Q";
+            case KING: return "K";
+            case PAWN: return "P";
+            case JESTER: return "J";
+            default: return "W";
+        }
+    }
+}
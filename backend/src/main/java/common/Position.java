@@ -36,12 +36,27 @@ public enum Position{
   private final Colour colour; //red blue green
   private final int row; //0-3
   private final int column; //0-7
+  private final String label; //polygon ID, e.g. Ba1
+
+  private static final Position[] VALUES = values();
+  private static final int DIRECTIONS = Direction.values().length;
+  /** Neighbour of every position in every direction, null if the step leaves the board **/
+  private static final Position[] NEIGHBOURS = new Position[VALUES.length*DIRECTIONS];
+
+  static {
+    for(Position position: VALUES) {
+      for(Direction direction: Direction.values()) {
+        NEIGHBOURS[position.ordinal()*DIRECTIONS+direction.ordinal()] = position.computeNeighbour(direction);
+      }
+    }
+  }
 
   /**
    * Position enum constructor
    **/
   Position(Colour colour, int row, int column){
     this.colour = colour; this.row = row; this.column = column;
+    this.label = colour.toString()+getColumnChar(column)+(row+1);
   }
 
   /**
@@ -68,7 +83,7 @@ public enum Position{
    **/
   @Override
   public String toString() {
-    return colour.toString()+getColumnChar(column)+(row+1);
+    return label;
   }
 
   /**
@@ -79,11 +94,7 @@ public enum Position{
   public static Position get(Colour colour, int row, int column) throws InvalidPositionException {
     int index= row+4*column;
     if(index>=0 && index<32){
-      switch(colour){
-        case BLUE: return Position.values()[index];
-        case GREEN: return Position.values()[index+32];
-        case RED: return Position.values()[index+64];
-      }
+      return VALUES[colour.ordinal()*32+index];
     }
     throw new InvalidPositionException("No such position.");
   }
@@ -95,7 +106,7 @@ public enum Position{
    **/
   public static Position get(int polygonIndex) throws InvalidPositionException {
       if(polygonIndex >=0 && polygonIndex <=95) {
-        return Position.values()[polygonIndex];
+        return VALUES[polygonIndex];
       }
     throw new InvalidPositionException("No such position.");
   }
@@ -107,32 +118,50 @@ public enum Position{
    * @throws InvalidPositionException if outside the bounds of the board.
    **/
   public Position neighbour(Direction direction) throws InvalidPositionException {
+    Position next = NEIGHBOURS[ordinal()*DIRECTIONS+direction.ordinal()];
+    if(next == null) {
+      throw new InvalidPositionException("Moved off board");
+    }
+    return next;
+  }
+
+  /**
+   * Get the position of next neighbour after a step from the precomputed table
+   * @param direction direction input to get its neighbour
+   * @return Position of the neighbour, null if the step leaves the board
+   **/
+  public Position neighbourOrNull(Direction direction) {
+    return NEIGHBOURS[ordinal()*DIRECTIONS+direction.ordinal()];
+  }
+
+  /**
+   * Compute the neighbour table entry of this position
+   * @param direction direction input to get its neighbour
+   * @return Position of the neighbour, null if the step leaves the board
+   **/
+  private Position computeNeighbour(Direction direction) {
     switch(direction){
       case FORWARD:
         if(row<3) {
-          return get(colour, row+1, column);
+          return at(colour, row+1, column);
         }
         if(column<4) {
-          return get(Colour.values()[(colour.ordinal()+1)%3], 3, 7-column);
+          return at(Colour.values()[(colour.ordinal()+1)%3], 3, 7-column);
         }
-        return get(Colour.values()[(colour.ordinal()+2)%3],3,7-column);
+        return at(Colour.values()[(colour.ordinal()+2)%3], 3, 7-column);
       case BACKWARD:
-        if(row==0) {
-          throw new InvalidPositionException("Moved off board");
-        }
-        return get(colour,row-1,column);
+        return row==0 ? null : at(colour, row-1, column);
       case LEFT:
-        if(column==0) {
-          throw new InvalidPositionException("Moved off board");
-        }
-        return get(colour,row,column-1);
+        return column==0 ? null : at(colour, row, column-1);
       case RIGHT:
-        if(column==7) {
-          throw new InvalidPositionException("Moved off board");
-        }
-        return get(colour,row,column+1);
+        return column==7 ? null : at(colour, row, column+1);
+      default:
+        return null;
     }
-    throw new InvalidPositionException("Unreachable code?");
+  }
+
+  private static Position at(Colour colour, int row, int column) {
+    return VALUES[colour.ordinal()*32+row+4*column];
   }
 
   /**
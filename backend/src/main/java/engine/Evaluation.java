@@ -0,0 +1,50 @@
+package engine;
+
+import common.Colour;
+import model.Board;
+
+/**
+ * Static evaluation of a board from the point of view of one colour: its piece-square score
+ * against the average score of the two other colours. For searches scoring every colour the
+ * evaluation is the three element vector of the share of each colour in the scores on the board,
+ * so the scores always add up to SHARE. The piece-square scores, material values from PieceFactory
+ * plus the PieceSquareTable entries, are kept up to date by the board on every move and undo,
+ * so an evaluation never walks the pieces.
+ */
+final class Evaluation {
+
+    /** Sum of the scores of all colours in a score vector **/
+    static final int SHARE = 10_000;
+
+    private static final Colour[] COLOURS = Colour.values();
+
+    private Evaluation() {
+    }
+
+    /**
+     * Score of the board for a colour, positive if it is ahead of the other two
+     * @param board the board
+     * @param colour colour to score for
+     * @return score in hundredths of a pawn
+     */
+    static int evaluate(Board board, Colour colour) {
+        Colour next = colour.next();
+        return board.getScore(colour) - (board.getScore(next) + board.getScore(next.next())) / 2;
+    }
+
+    /**
+     * Scores of the board for every colour, the share of each colour in the piece-square scores on the board
+     * @param board the board
+     * @param scores array to fill with one score per colour, in Colour order, adding up to at most SHARE
+     */
+    static void evaluate(Board board, int[] scores) {
+        long total = 0;
+        for (Colour colour : COLOURS) {
+            scores[colour.ordinal()] = board.getScore(colour);
+            total += scores[colour.ordinal()];
+        }
+        for (Colour colour : COLOURS) {
+            scores[colour.ordinal()] = total > 0 ? (int) (scores[colour.ordinal()] * SHARE / total) : 0;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package engine;
+
+import common.Colour;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computer opponent searching with Monte Carlo Tree Search. Every playout descends the tree by
+ * the upper confidence bound (UCT) of the colour to move, adds a node, plays random legal moves
+ * to the end of the game or a ply limit and adds its reward vector to the nodes on the way, so
+ * each colour is assumed to play for itself as in max^n. A won game rewards the winner with 1,
+ * a playout cut off at the ply limit rewards every colour with its share of the material.
+ * With more than one thread the playouts run on a fork-join pool through the same tree, each
+ * on its own board copy, and a virtual loss keeps them from all following the same line.
+ * The tree is kept between searches: the next search starts from the node of the position
+ * reached, when it is at most three plies below the previous root.
+ */
+public class MonteCarloEngine {
+
+    /** Exploration weight of the upper confidence bound, for rewards between 0 and 1 **/
+    public static final double EXPLORATION = Math.sqrt(2);
+
+    /** Random moves played from a new node before the material decides the reward **/
+    public static final int PLAYOUT_PLIES = 48;
+
+    /** Plies below the previous root searched for the position to reuse the tree from **/
+    static final int REUSE_PLIES = 3;
+
+    private static final int MAX_TREE_DEPTH = 128;
+    private static final Position[] POSITIONS = Position.values();
+    private static final Colour[] COLOURS = Colour.values();
+
+    private int threads = 1;
+    private long maxPlayouts = Long.MAX_VALUE;
+    private long seed = System.nanoTime();
+    private ForkJoinPool pool; // created on the first parallel search
+    private MonteCarloNode root; // tree of the previous search
+
+    /**
+     * Set the number of threads running playouts
+     * @param threads number of threads, 1 to run the playouts on the calling thread only
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        if (pool != null && threads != this.threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @return number of threads running playouts
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Limit the number of playouts per search, e.g. to search a fixed effort regardless of the time budget
+     * @param maxPlayouts most playouts per search, at least 1
+     */
+    public void setMaxPlayouts(long maxPlayouts) {
+        if (maxPlayouts < 1) {
+            throw new IllegalArgumentException("Playouts must be at least 1: " + maxPlayouts);
+        }
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * @return most playouts per search
+     */
+    public long getMaxPlayouts() {
+        return maxPlayouts;
+    }
+
+    /**
+     * Seed the random moves of the playouts. With one thread and a playout limit the same seed
+     * gives the same search.
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Drop the tree kept from the previous search, e.g. when a new game starts
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Search the best move of the colour to move, the most visited move of the root. The board is left unchanged.
+     * @param board the board to search
+     * @param colour colour to find a move for, must be the colour to move
+     * @param budget time the search may take
+     * @return the best move found with the mean reward of the colour times SHARE as score, the depth of
+     * the tree as depth and the number of playouts as nodes, null if the colour has no legal move
+     */
+    public SearchResult bestMove(Board board, Colour colour, Duration budget) {
+        if (colour != board.getTurn()) {
+            throw new IllegalArgumentException("Not the turn of " + colour + ", " + board.getTurn() + " to move");
+        }
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        root = reuse(root, board.getZobristKey(), REUSE_PLIES);
+        if (root == null) {
+            root = new MonteCarloNode(0, null);
+            root.settle(board.getZobristKey(), null);
+        }
+        AtomicLong playouts = new AtomicLong();
+        List<Playouts> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Playouts(board, root, new Random(seed + i), deadline, playouts, maxPlayouts));
+        }
+        seed += threads;
+        if (threads == 1) {
+            workers.get(0).compute();
+        } else {
+            if (pool == null) {
+                pool = new ForkJoinPool(threads);
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(workers);
+                }
+            });
+        }
+        MonteCarloNode best = null;
+        for (MonteCarloNode child : root.getChildren()) {
+            if (best == null || child.getVisits() > best.getVisits()) {
+                best = child;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        int depth = 0;
+        for (Playouts worker : workers) {
+            depth = Math.max(depth, worker.depth);
+        }
+        int move = best.getMove();
+        return new SearchResult(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)],
+                (int) Math.round(best.getReward(colour) * Evaluation.SHARE), depth, playouts.get(),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * @return root of the tree of the last search, null before the first search
+     */
+    MonteCarloNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Find the node of a position at most the given plies below a node, the new root of the tree
+     */
+    private static MonteCarloNode reuse(MonteCarloNode node, long key, int plies) {
+        if (node == null || !node.isSettled()) {
+            return null;
+        }
+        if (node.getKey() == key) {
+            return node;
+        }
+        if (plies > 0) {
+            for (MonteCarloNode child : node.getChildren()) {
+                MonteCarloNode found = reuse(child, key, plies - 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Task running playouts from the root on its own copy of the board until the time or the
+     * playouts of the search are spent
+     */
+    private static class Playouts extends RecursiveAction {
+
+        private final Board board;
+        private final LegalMoveGenerator generator;
+        private final MonteCarloNode root;
+        private final Random random;
+        private final long deadline;
+        private final AtomicLong playouts;
+        private final long maxPlayouts;
+        private final int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        private final MonteCarloNode[] path = new MonteCarloNode[MAX_TREE_DEPTH + 1];
+        private final UndoRecord[] records = new UndoRecord[MAX_TREE_DEPTH + PLAYOUT_PLIES];
+        private final double[] reward = new double[COLOURS.length];
+        private final int[] shares = new int[COLOURS.length];
+        private int depth; // deepest node reached
+
+        Playouts(Board board, MonteCarloNode root, Random random, long deadline, AtomicLong playouts, long maxPlayouts) {
+            this.board = new Board(board);
+            this.generator = new LegalMoveGenerator(this.board);
+            this.root = root;
+            this.random = random;
+            this.deadline = deadline;
+            this.playouts = playouts;
+            this.maxPlayouts = maxPlayouts;
+            for (int i = 0; i < records.length; i++) {
+                records[i] = new UndoRecord();
+            }
+        }
+
+        @Override
+        protected void compute() {
+            // the first playout always runs so the root gets its moves
+            do {
+                playout();
+            } while (playouts.incrementAndGet() < maxPlayouts && System.nanoTime() < deadline);
+        }
+
+        private void playout() {
+            int ply = 0;
+            MonteCarloNode node = root;
+            root.addVirtualLoss();
+            path[0] = root;
+            // selection and expansion, until a new node or the end of the game
+            while (node.getWinner() == null && ply < MAX_TREE_DEPTH) {
+                if (!node.isExpanded()) {
+                    Colour turn = board.getTurn();
+                    node.expand(moves, generator.generate(turn, moves), turn, random);
+                }
+                MonteCarloNode child = node.select(EXPLORATION);
+                if (child == null) {
+                    break;
+                }
+                makeMove(child.getMove(), ply++);
+                path[ply] = child;
+                node = child;
+                if (!child.isSettled()) {
+                    child.settle(board.getZobristKey(), isCheckMateAfterMove(child.getMover()) ? child.getMover() : null);
+                    break;
+                }
+            }
+            depth = Math.max(depth, ply);
+            // simulation
+            int treePlies = ply;
+            Colour winner = node.getWinner();
+            while (winner == null && ply < treePlies + PLAYOUT_PLIES) {
+                Colour mover = board.getTurn();
+                int move = generator.randomMove(mover, random);
+                if (move == 0) {
+                    break;
+                }
+                makeMove(move, ply++);
+                if (isCheckMateAfterMove(mover)) {
+                    winner = mover;
+                }
+            }
+            if (winner != null) {
+                for (Colour colour : COLOURS) {
+                    reward[colour.ordinal()] = colour == winner ? 1 : 0;
+                }
+            } else {
+                Evaluation.evaluate(board, shares);
+                for (int c = 0; c < COLOURS.length; c++) {
+                    reward[c] = (double) shares[c] / Evaluation.SHARE;
+                }
+            }
+            // backpropagation
+            for (int i = 0; i <= treePlies; i++) {
+                path[i].update(reward);
+            }
+            while (ply > 0) {
+                board.unmakeMove(records[--ply]);
+            }
+        }
+
+        private void makeMove(int move, int ply) {
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)], records[ply]);
+        }
+
+        /**
+         * The game ends when a move leaves another colour in check without a legal move
+         */
+        private boolean isCheckMateAfterMove(Colour mover) {
+            for (Colour colour = mover.next(); colour != mover; colour = colour.next()) {
+                if (board.isCheck(colour) && !generator.hasLegalMove(colour)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package engine;
+
+import common.Colour;
+
+import java.util.Random;
+
+/**
+ * Node of the Monte Carlo search tree, the position reached by a move. Holds the visit count and
+ * the reward of every colour summed over the playouts through the node. The legal moves are
+ * generated when the node is expanded but a child is only created when it is first selected.
+ * The statistics are guarded by the node lock, so playouts may run through the tree in parallel.
+ */
+final class MonteCarloNode {
+
+    private static final int COLOURS = Colour.values().length;
+
+    /** Visits added while a playout runs through a node, steering parallel playouts apart **/
+    static final int VIRTUAL_LOSS = 3;
+
+    private final int move; // packed move leading to the node, 0 at a new root
+    private final Colour mover; // colour that made the move, null at a new root
+    private final double[] rewards = new double[COLOURS];
+    private int visits;
+
+    private volatile int[] moves; // legal moves of the colour to move, null until expanded
+    private MonteCarloNode[] children; // child per move, null until selected
+    private Colour turn; // colour to move
+
+    private long key; // Zobrist key of the position
+    private Colour winner; // colour that won with the move, null if the game goes on
+    private volatile boolean settled; // key and winner are set
+
+    /**
+     * MonteCarloNode constructor
+     * @param move packed move leading to the node, 0 for a root without a move
+     * @param mover colour that made the move, null for a root without a move
+     */
+    MonteCarloNode(int move, Colour mover) {
+        this.move = move;
+        this.mover = mover;
+    }
+
+    int getMove() {
+        return move;
+    }
+
+    Colour getMover() {
+        return mover;
+    }
+
+    /**
+     * Record the position of the node, done by the first playout reaching it
+     * @param key Zobrist key of the position
+     * @param winner colour that won the game with the move, null if the game goes on
+     */
+    void settle(long key, Colour winner) {
+        this.key = key;
+        this.winner = winner;
+        settled = true;
+    }
+
+    boolean isSettled() {
+        return settled;
+    }
+
+    long getKey() {
+        return key;
+    }
+
+    Colour getWinner() {
+        return winner;
+    }
+
+    boolean isExpanded() {
+        return moves != null;
+    }
+
+    /**
+     * Store the legal moves of the colour to move, in random order so untried moves are tried
+     * in random order. Only the first of concurrent expansions counts.
+     * @param legalMoves move buffer
+     * @param count number of moves in the buffer
+     * @param turn colour to move
+     * @param random source of the move order
+     */
+    synchronized void expand(int[] legalMoves, int count, Colour turn, Random random) {
+        if (moves != null) {
+            return;
+        }
+        int[] shuffled = new int[count];
+        for (int i = 0; i < count; i++) {
+            int j = random.nextInt(i + 1);
+            shuffled[i] = shuffled[j];
+            shuffled[j] = legalMoves[i];
+        }
+        this.turn = turn;
+        children = new MonteCarloNode[count];
+        moves = shuffled;
+    }
+
+    /**
+     * @return number of legal moves, 0 if the colour to move has none or the node is not expanded
+     */
+    int moveCount() {
+        int[] expanded = moves;
+        return expanded == null ? 0 : expanded.length;
+    }
+
+    /**
+     * Select the child to descend into: a move not tried yet, else the child with the highest
+     * upper confidence bound for the colour to move. A virtual loss is added to the child.
+     * @param exploration weight of the exploration term
+     * @return the child, null if the node has no child
+     */
+    synchronized MonteCarloNode select(double exploration) {
+        MonteCarloNode best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        double logVisits = Math.log(Math.max(visits, 1));
+        for (int i = 0; i < children.length; i++) {
+            MonteCarloNode child = children[i];
+            if (child == null) {
+                best = new MonteCarloNode(moves[i], turn);
+                children[i] = best;
+                break;
+            }
+            double value = child.upperBound(logVisits, exploration);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        if (best != null) {
+            best.addVirtualLoss();
+        }
+        return best;
+    }
+
+    /**
+     * @return the children created so far, an empty array if the node is not expanded
+     */
+    synchronized MonteCarloNode[] getChildren() {
+        if (children == null) {
+            return new MonteCarloNode[0];
+        }
+        int count = 0;
+        while (count < children.length && children[count] != null) {
+            count++;
+        }
+        MonteCarloNode[] created = new MonteCarloNode[count];
+        System.arraycopy(children, 0, created, 0, count);
+        return created;
+    }
+
+    private synchronized double upperBound(double logParentVisits, double exploration) {
+        if (visits == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return rewards[mover.ordinal()] / visits + exploration * Math.sqrt(logParentVisits / visits);
+    }
+
+    synchronized void addVirtualLoss() {
+        visits += VIRTUAL_LOSS;
+    }
+
+    /**
+     * Add the reward of a playout and take back its virtual loss
+     * @param reward reward of every colour, in Colour order
+     */
+    synchronized void update(double[] reward) {
+        visits += 1 - VIRTUAL_LOSS;
+        for (int c = 0; c < COLOURS; c++) {
+            rewards[c] += reward[c];
+        }
+    }
+
+    /**
+     * @return number of playouts through the node
+     */
+    synchronized int getVisits() {
+        return visits;
+    }
+
+    /**
+     * @param colour the colour
+     * @return the mean reward of the colour over the playouts through the node, 0 without playouts
+     */
+    synchronized double getReward(Colour colour) {
+        return visits > 0 ? rewards[colour.ordinal()] / visits : 0;
+    }
+}
@@ -0,0 +1,192 @@
+package engine;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import model.BitBoard;
+import model.Board;
+import model.LegalMoveGenerator;
+import utility.PieceFactory;
+
+/**
+ * Move ordering of one searcher, so alpha-beta finds its cut-offs with the first moves. The moves
+ * of a position are scored once and picked best first, which leaves the rest unsorted when an
+ * early move cuts off. In order:
+ * <ul>
+ * <li>the best move stored in the transposition table</li>
+ * <li>captures by most valuable victim, least valuable attacker (MVV-LVA), and promotions by the
+ * material they gain. A jester taking a piece only swaps places with it, no material changes
+ * hands, so a jester swap is ordered as a quiet move.</li>
+ * <li>two killer moves per ply, quiet moves that cut off in a sibling position</li>
+ * <li>the other quiet moves by their history: a 96 x 96 table by start and end polygon adding
+ * the squared depth of every cut-off the move caused anywhere in the tree</li>
+ * </ul>
+ */
+final class MoveOrdering {
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final Position[] POSITIONS = Position.values();
+
+    private static final int HASH_MOVE = Integer.MAX_VALUE;
+    private static final int TACTICAL = 1 << 28;
+    private static final int FIRST_KILLER = 1 << 27;
+    private static final int SECOND_KILLER = FIRST_KILLER - 1;
+    private static final int HISTORY_LIMIT = 1 << 26; // halves the table before it reaches the killers
+    private static final int VICTIM_WEIGHT = 100; // victim values differ by more than any attacker value divided by this
+
+    private static final int PROMOTION_GAIN = PieceFactory.getValue(PieceType.QUEEN) - PieceFactory.getValue(PieceType.PAWN);
+
+    private final int[][] killers = new int[Searcher.MAX_PLY + 1][2];
+    private final int[] history = new int[SIZE * SIZE];
+    private final int[][] scores = new int[Searcher.MAX_PLY + 1][LegalMoveGenerator.MAX_MOVES];
+
+    /**
+     * Scores the moves of a position for next
+     * @param board the board before the moves
+     * @param moves the moves of the colour to move
+     * @param count number of moves
+     * @param ply distance from the root
+     * @param hashMove best move from the transposition table, 0 if there is none
+     */
+    void score(Board board, int[] moves, int count, int ply, int hashMove) {
+        int[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int gain = gain(board, move);
+            if (move == hashMove) {
+                plyScores[i] = HASH_MOVE;
+            } else if (gain > 0) {
+                plyScores[i] = TACTICAL + gain;
+            } else if (move == plyKillers[0]) {
+                plyScores[i] = FIRST_KILLER;
+            } else if (move == plyKillers[1]) {
+                plyScores[i] = SECOND_KILLER;
+            } else {
+                plyScores[i] = history[LegalMoveGenerator.from(move) * SIZE + LegalMoveGenerator.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Moves the best scored of the moves not searched yet to the index
+     * @param moves the moves scored by score
+     * @param index index of the move to search next, the moves before it are searched
+     * @param count number of moves
+     * @param ply distance from the root, as passed to score
+     * @return the move to search next
+     */
+    int next(int[] moves, int index, int count, int ply) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        if (best != index) {
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a move that cut off the search of a position. Only quiet moves become killers
+     * and gain history, captures and promotions are ordered well without.
+     * @param board the board before the move
+     * @param move the move
+     * @param depth remaining depth of the position
+     * @param ply distance from the root
+     */
+    void cutoff(Board board, int move, int depth, int ply) {
+        if (gain(board, move) > 0) {
+            return;
+        }
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int index = LegalMoveGenerator.from(move) * SIZE + LegalMoveGenerator.to(move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * Material gain ordering a capture or promotion ahead of the quiet moves
+     * @param board the board before the move
+     * @param move the move
+     * @return victim value times VICTIM_WEIGHT minus attacker value, or the gain of a promotion; 0 for a quiet move
+     */
+    static int gain(Board board, int move) {
+        Position start = POSITIONS[LegalMoveGenerator.from(move)];
+        Position end = POSITIONS[LegalMoveGenerator.to(move)];
+        PieceType attacker = board.getPieceType(start);
+        PieceType victim = board.getPieceType(end);
+        if (attacker == PieceType.JESTER) {
+            return 0; // swaps places, nothing is taken
+        }
+        int gain = 0;
+        if (victim != null) {
+            gain = PieceFactory.getValue(victim) * VICTIM_WEIGHT - PieceFactory.getValue(attacker);
+        }
+        if (isPromotion(board, attacker, end)) {
+            gain += PROMOTION_GAIN * VICTIM_WEIGHT;
+        }
+        return gain;
+    }
+
+    /**
+     * Material a capture or promotion wins outright
+     * @param board the board before the move
+     * @param move the move
+     * @return value of the victim plus the gain of a promotion, 0 for a quiet move or a jester swap
+     */
+    static int materialGain(Board board, int move) {
+        Position end = POSITIONS[LegalMoveGenerator.to(move)];
+        PieceType attacker = board.getPieceType(POSITIONS[LegalMoveGenerator.from(move)]);
+        PieceType victim = board.getPieceType(end);
+        if (attacker == PieceType.JESTER) {
+            return 0;
+        }
+        int gain = victim != null ? PieceFactory.getValue(victim) : 0;
+        if (isPromotion(board, attacker, end)) {
+            gain += PROMOTION_GAIN;
+        }
+        return gain;
+    }
+
+    /**
+     * Static exchange estimate of a capture or promotion: the material won, less the piece landing
+     * on the end polygon if a colour other than the mover can take it there. The attacks are read
+     * before the move, as Board.isSquareAttacked reports them, so jesters and walls never take back.
+     * @param board the board before the move
+     * @param move the move
+     * @return material in hundredths of a pawn, negative if the move is expected to lose material
+     */
+    static int staticExchange(Board board, int move) {
+        Position end = POSITIONS[LegalMoveGenerator.to(move)];
+        PieceType attacker = board.getPieceType(POSITIONS[LegalMoveGenerator.from(move)]);
+        int gain = materialGain(board, move);
+        Colour mover = board.getTurn();
+        for (Colour colour = mover.next(); colour != mover; colour = colour.next()) {
+            if (board.isSquareAttacked(end, colour)) {
+                return gain - PieceFactory.getValue(isPromotion(board, attacker, end) ? PieceType.QUEEN : attacker);
+            }
+        }
+        return gain;
+    }
+
+    private static boolean isPromotion(Board board, PieceType attacker, Position end) {
+        return attacker == PieceType.PAWN && end.getRow() == 0 && end.getColour() != board.getTurn();
+    }
+}
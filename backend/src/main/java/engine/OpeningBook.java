@@ -0,0 +1,149 @@
+package engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only opening book mapped into memory. The file, written by OpeningBookBuilder, is a header
+ * of MAGIC and the entry count followed by the entries, each the Zobrist key of a position, a packed
+ * move and its weight, sorted by key and, for the same key, by weight from the highest. A lookup is
+ * a binary search for the first entry of the key on the mapped buffer and reads it in place, so it
+ * allocates nothing. The book is opened once per file and shared by every search in the JVM, reads
+ * by absolute index keep it safe to look up from any number of threads.
+ */
+public final class OpeningBook {
+
+    /** First bytes of a book file, "3PCB" **/
+    public static final int MAGIC = 0x33504342;
+
+    static final int HEADER_SIZE = 8;
+    static final int ENTRY_SIZE = 12; // key, move, weight
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    private static final Map<Path, OpeningBook> BOOKS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer buffer, Path path) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book: " + path);
+        }
+        size = buffer.getInt(4);
+        if (size < 0 || (long) size * ENTRY_SIZE != buffer.limit() - HEADER_SIZE) {
+            throw new IOException("Opening book of " + size + " entries has " + buffer.limit() + " bytes: " + path);
+        }
+        entries = buffer;
+    }
+
+    /**
+     * Open a book file, or get the book already opened on it
+     * @param path the book file
+     * @return the book shared by every caller opening the same file
+     * @throws IOException if the file can't be mapped or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try {
+            return BOOKS.computeIfAbsent(path.toAbsolutePath().normalize(), OpeningBook::map);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static OpeningBook map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping outlives the channel
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return number of entries, moves of all positions
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Look up the move played most in a position
+     * @param key Zobrist key of the position
+     * @return the packed move with the highest weight, 0 if the position is not in the book
+     */
+    public int bestMove(long key) {
+        int first = find(key);
+        return first < 0 ? 0 : move(first);
+    }
+
+    /**
+     * Pick a move of a position at random, each in proportion to its weight
+     * @param key Zobrist key of the position
+     * @param random source of randomness
+     * @return the packed move, 0 if the position is not in the book
+     */
+    public int pickMove(long key, Random random) {
+        int first = find(key);
+        if (first < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = first; i < size && key(i) == key; i++) {
+            total += weight(i);
+        }
+        int pick = random.nextInt(total);
+        int i = first;
+        for (pick -= weight(i); pick >= 0; pick -= weight(i)) {
+            i++;
+        }
+        return move(i);
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @return the number of moves of the position in the book
+     */
+    public int countMoves(long key) {
+        int first = find(key);
+        int count = 0;
+        for (int i = first; i >= 0 && i < size && key(i) == key; i++) {
+            count++;
+        }
+        return count;
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < size && key(low) == key ? low : -1;
+    }
+
+    private long key(int index) {
+        return entries.getLong(HEADER_SIZE + index * ENTRY_SIZE);
+    }
+
+    private int move(int index) {
+        return entries.getShort(HEADER_SIZE + index * ENTRY_SIZE + MOVE_OFFSET) & 0xFFFF;
+    }
+
+    private int weight(int index) {
+        return entries.getShort(HEADER_SIZE + index * ENTRY_SIZE + WEIGHT_OFFSET) & 0xFFFF;
+    }
+}
@@ -0,0 +1,206 @@
+package engine;
+
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an OpeningBook file from games: every position of the first plies of a game gains a
+ * weight of one for the move played in it. The games are played by the Monte Carlo engine against
+ * itself, each with its own seed so they branch apart, or read from archived game files, one game
+ * per line as moves from the game start written like "Bd2-Bd4", lines starting with # left out.
+ */
+public final class OpeningBookBuilder {
+
+    /** Plies of a game entered into the book by default **/
+    public static final int DEFAULT_PLIES = 12;
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int plies;
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+
+    /**
+     * @param plies number of plies from the game start entered into the book, at least 1
+     */
+    public OpeningBookBuilder(int plies) {
+        if (plies < 1) {
+            throw new IllegalArgumentException("Plies must be at least 1: " + plies);
+        }
+        this.plies = plies;
+    }
+
+    /**
+     * Add the first plies of a game
+     * @param moves the moves of the game from the game start, e.g. "Bd2-Bd4"
+     * @throws InvalidMoveException if a move is not legal
+     * @throws InvalidPositionException if a move is not written as two positions
+     */
+    public void addGame(List<String> moves) throws InvalidMoveException, InvalidPositionException {
+        Board board = new Board();
+        for (int ply = 0; ply < Math.min(plies, moves.size()) && isPlaying(board); ply++) {
+            String[] polygons = moves.get(ply).split("-");
+            if (polygons.length != 2) {
+                throw new InvalidPositionException("Not a move: " + moves.get(ply));
+            }
+            Position start = parse(polygons[0]);
+            Position end = parse(polygons[1]);
+            long key = board.getZobristKey();
+            board.move(start, end);
+            add(key, LegalMoveGenerator.move(start.ordinal(), end.ordinal()));
+        }
+    }
+
+    /**
+     * Add the games of an archived game file
+     * @param file game file, one game per line
+     * @throws IOException if the file can't be read
+     * @throws InvalidMoveException if a move is not legal
+     * @throws InvalidPositionException if a move is not written as two positions
+     */
+    public void addGames(Path file) throws IOException, InvalidMoveException, InvalidPositionException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    List<String> moves = new ArrayList<>();
+                    for (String move : line.split("\\s+")) {
+                        moves.add(move);
+                    }
+                    addGame(moves);
+                }
+            }
+        }
+    }
+
+    /**
+     * Play games of the Monte Carlo engine against itself and add their first plies
+     * @param games number of games
+     * @param playouts playouts per move
+     * @param seed seed of the first game, the next games count up from it
+     */
+    public void selfPlay(int games, long playouts, long seed) {
+        for (int game = 0; game < games; game++) {
+            MonteCarloEngine engine = new MonteCarloEngine();
+            engine.setMaxPlayouts(playouts);
+            engine.setSeed(seed + game * (long) plies);
+            Board board = new Board();
+            for (int ply = 0; ply < plies && isPlaying(board); ply++) {
+                SearchResult result = engine.bestMove(board, board.getTurn(), Duration.ofDays(1));
+                if (result == null) {
+                    break;
+                }
+                add(board.getZobristKey(), LegalMoveGenerator.move(result.getStart().ordinal(), result.getEnd().ordinal()));
+                try {
+                    board.move(result.getStart(), result.getEnd()); // ends the game on a mate, unlike makeMove
+                } catch (InvalidMoveException | InvalidPositionException e) {
+                    throw new IllegalStateException("Engine move not legal: " + result, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return whether the game of a board goes on, not ended by a mate and with a legal move for the colour to move
+     */
+    private static boolean isPlaying(Board board) {
+        return !board.isGameOver() && new LegalMoveGenerator(board).hasLegalMove(board.getTurn());
+    }
+
+    /**
+     * @return number of entries the book would have
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : weights.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Write the book, sorted for the binary search of OpeningBook
+     * @param file the book file, replaced if it exists
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                entries.add(new long[] {position.getKey(), move.getKey(), Math.min(move.getValue(), MAX_WEIGHT)});
+            }
+        }
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : a[2] != b[2] ? Long.compare(b[2], a[2]) : Long.compare(a[1], b[1]));
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_SIZE + entries.size() * OpeningBook.ENTRY_SIZE);
+        buffer.putInt(OpeningBook.MAGIC).putInt(entries.size());
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private void add(long key, int move) {
+        weights.computeIfAbsent(key, k -> new HashMap<>()).merge(move, 1, Integer::sum);
+    }
+
+    private static Position parse(String polygon) throws InvalidPositionException {
+        try {
+            return Position.valueOf(polygon.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPositionException("No such position: " + polygon);
+        }
+    }
+
+    /**
+     * Book command: file [games] [plies] [playouts] [game files...]. Plays the self-play games, adds
+     * the archived game files and writes the book.
+     * @param args book file, self-play games (default 64), plies per game (default DEFAULT_PLIES),
+     *             playouts per move (default 2000), archived game files
+     */
+    public static void main(String[] args) throws IOException, InvalidMoveException, InvalidPositionException {
+        if (args.length < 1) {
+            System.err.println("Usage: OpeningBookBuilder file [games] [plies] [playouts] [game files...]");
+            return;
+        }
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES;
+        long playouts = args.length > 3 ? Long.parseLong(args[3]) : 2000;
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        long start = System.nanoTime();
+        builder.selfPlay(games, playouts, 1);
+        for (int i = 4; i < args.length; i++) {
+            builder.addGames(Paths.get(args[i]));
+        }
+        Path file = Paths.get(args[0]);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        builder.write(file);
+        System.out.println("Book " + file + ": " + builder.weights.size() + " positions, " + builder.size()
+                + " moves in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,254 @@
+package engine;
+
+import common.Colour;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Computer opponent. Searches the legal moves of the Board, the same moves getPossibleMoves
+ * highlights, with iterative deepening. By default the search is alpha-beta under the paranoid
+ * assumption that both other colours play against the searching colour; max^n and Best-Reply
+ * Search can be selected per engine, so per game. The search runs on a copy of the board and stops
+ * as soon as the time budget is spent, returning the best move of the deepest finished search.
+ * With more than one thread the search is Lazy-SMP: helper threads search the same position on
+ * their own board copies at staggered depths and share the transposition table; with one thread
+ * the search runs on the calling thread only and is deterministic. With an OpeningBook set, a
+ * position found in the book is answered with its most played move without a search. With
+ * Tablebases set, a position a table holds is answered with the move the table advises, and the
+ * search scores the positions it reaches in the tables by their value instead of searching on.
+ */
+public class SearchEngine {
+
+    /** Paranoid and Best-Reply scores at or beyond this bound are forced wins or losses **/
+    public static final int MATE_BOUND = Searcher.MATE - Searcher.MAX_PLY;
+
+    /** Max^n scores are shares of this total, at or above SHARE_WIN_BOUND the colour wins by force **/
+    public static final int SHARE = Evaluation.SHARE;
+    public static final int SHARE_WIN_BOUND = Evaluation.SHARE - Searcher.MAX_PLY;
+
+    private static final Position[] POSITIONS = Position.values();
+
+    /** Default size of the transposition table in MB **/
+    public static final int DEFAULT_HASH_SIZE = 16;
+
+    private int maxDepth = Searcher.MAX_DEPTH;
+    private SearchMode mode = SearchMode.PARANOID;
+    private TranspositionTable table = new TranspositionTable(DEFAULT_HASH_SIZE);
+    private int threads = 1;
+    private boolean moveOrdering = true;
+    private boolean quiescence = true;
+    private OpeningBook book;
+    private Tablebases tablebases;
+
+    /**
+     * Limit the search depth, e.g. to search a fixed depth regardless of the time budget
+     * @param maxDepth deepest search in plies, in layers of own moves and replies for Best-Reply, at least 1
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1: " + maxDepth);
+        }
+        this.maxDepth = Math.min(maxDepth, Searcher.MAX_DEPTH);
+    }
+
+    /**
+     * @return deepest search
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Select how the other colours are assumed to play
+     * @param mode the search mode, PARANOID by default
+     */
+    public void setMode(SearchMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * @return the search mode
+     */
+    public SearchMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set the size of the transposition table, which is kept from one search to the next.
+     * Setting a size clears the table.
+     * @param megabytes size in MB, 0 to search without a table
+     */
+    public void setHashSize(int megabytes) {
+        table = megabytes > 0 ? new TranspositionTable(megabytes) : null;
+    }
+
+    /**
+     * @return the transposition table, null if the engine searches without
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Set the number of threads searching in parallel
+     * @param threads number of threads including the calling one, 1 to search on the calling thread only
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * @return number of threads searching in parallel
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Switch the move ordering by captures, killer moves and history on or off. Without it only the
+     * table move is searched first, which is useful to measure the nodes the ordering saves.
+     * @param moveOrdering true to order the moves, the default
+     */
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * @return true if the moves are ordered by captures, killer moves and history
+     */
+    public boolean isMoveOrdering() {
+        return moveOrdering;
+    }
+
+    /**
+     * Switch the quiescence search on or off. Without it the positions at the depth limit are
+     * evaluated as they stand, even in the middle of an exchange.
+     * @param quiescence true to follow the captures and promotions at the depth limit, the default
+     */
+    public void setQuiescence(boolean quiescence) {
+        this.quiescence = quiescence;
+    }
+
+    /**
+     * @return true if the captures and promotions are followed at the depth limit
+     */
+    public boolean isQuiescence() {
+        return quiescence;
+    }
+
+    /**
+     * Set the opening book looked up before every search
+     * @param book the book, e.g. from OpeningBook.open, null to always search
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * @return the opening book looked up before every search, null if there is none
+     */
+    public OpeningBook getOpeningBook() {
+        return book;
+    }
+
+    /**
+     * Set the endgame tablebases probed before and during every search
+     * @param tablebases the tables, e.g. from Tablebases.open, null to search without
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * @return the endgame tablebases probed before and during every search, null if there are none
+     */
+    public Tablebases getTablebases() {
+        return tablebases;
+    }
+
+    /**
+     * Search the best move of the colour to move. The board is left unchanged.
+     * @param board the board to search
+     * @param colour colour to find a move for, must be the colour to move
+     * @param budget time the search may take
+     * @return the best move found, null if the colour has no legal move; a book or tablebase move has score, depth and nodes 0
+     */
+    public SearchResult bestMove(Board board, Colour colour, Duration budget) {
+        if (colour != board.getTurn()) {
+            throw new IllegalArgumentException("Not the turn of " + colour + ", " + board.getTurn() + " to move");
+        }
+        long start = System.nanoTime();
+        int bookMove = book != null ? book.bestMove(board.getZobristKey()) : 0;
+        if (bookMove != 0) {
+            Position from = POSITIONS[LegalMoveGenerator.from(bookMove)];
+            Position to = POSITIONS[LegalMoveGenerator.to(bookMove)];
+            // a book of another rule set or a key collision may hold a move that is not legal here
+            if (board.isCurrentPlayersPiece(from) && board.isLegalMove(from, to)) {
+                return new SearchResult(from, to, 0, 0, 0, System.nanoTime() - start);
+            }
+        }
+        int tablebaseMove = tablebases != null ? tablebases.bestMove(board) : 0;
+        if (tablebaseMove != 0) {
+            return new SearchResult(POSITIONS[LegalMoveGenerator.from(tablebaseMove)],
+                    POSITIONS[LegalMoveGenerator.to(tablebaseMove)], 0, 0, 0, System.nanoTime() - start);
+        }
+        if (table != null) {
+            table.newSearch();
+        }
+        long deadline = start + budget.toNanos();
+        AtomicBoolean abort = new AtomicBoolean();
+        Searcher[] searchers = new Searcher[threads];
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(new Board(board), mode, table, deadline, abort, moveOrdering, quiescence, tablebases);
+        }
+        for (int i = 1; i < threads; i++) {
+            Searcher helper = searchers[i];
+            int number = i;
+            helpers[i - 1] = new Thread(() -> helper.iterate(maxDepth, number), "search-helper-" + i);
+            helpers[i - 1].setDaemon(true);
+            helpers[i - 1].start();
+        }
+        boolean hasMove = searchers[0].iterate(maxDepth, 0);
+        abort.set(true);
+        for (Thread helper : helpers) {
+            joinUninterruptibly(helper);
+        }
+        if (!hasMove) {
+            return null;
+        }
+        // the deepest finished search counts, the main searcher on equal depth
+        Searcher best = searchers[0];
+        long nodes = 0;
+        for (Searcher searcher : searchers) {
+            nodes += searcher.getNodes();
+            if (searcher.getCompletedDepth() > best.getCompletedDepth()) {
+                best = searcher;
+            }
+        }
+        int move = best.getBestMove();
+        return new SearchResult(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)],
+                best.getBestScore(), best.getCompletedDepth(), nodes, System.nanoTime() - start);
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
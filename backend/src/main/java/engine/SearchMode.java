@@ -0,0 +1,19 @@
+package engine;
+
+/**
+ * How the engine assumes the two other colours play
+ */
+public enum SearchMode {
+
+    /** Both other colours play against the searching colour, searched with alpha-beta **/
+    PARANOID,
+
+    /** Every colour maximises its own score, searched as max^n with shallow pruning on score vectors **/
+    MAX_N,
+
+    /**
+     * Best-Reply Search: between two moves of the searching colour only the strongest reply of either
+     * other colour is played while the remaining colour passes, so the search reaches deeper
+     **/
+    BEST_REPLY
+}
@@ -0,0 +1,91 @@
+package engine;
+
+import common.Position;
+
+/**
+ * Result of a search: the best move found, its score for the searching colour
+ * and the effort spent on it.
+ */
+public class SearchResult {
+
+    private final Position start;
+    private final Position end;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+
+    /**
+     * SearchResult constructor
+     * @param start start position of the best move
+     * @param end end position of the best move
+     * @param score score of the move in hundredths of a pawn, mate scores beyond SearchEngine.MATE_BOUND;
+     *              for max^n the share of the material out of SearchEngine.SHARE
+     * @param depth deepest fully searched depth in plies
+     * @param nodes number of positions searched
+     * @param nanos time spent in nanoseconds
+     */
+    public SearchResult(Position start, Position end, int score, int depth, long nodes, long nanos) {
+        this.start = start;
+        this.end = end;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return start position of the best move
+     */
+    public Position getStart() {
+        return start;
+    }
+
+    /**
+     * @return end position of the best move
+     */
+    public Position getEnd() {
+        return end;
+    }
+
+    /**
+     * @return score of the best move for the searching colour
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return deepest fully searched depth in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return number of positions searched
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return time spent in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return search speed in positions per second
+     */
+    public long getNodesPerSecond() {
+        return nanos > 0 ? nodes * 1_000_000_000L / nanos : nodes;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end + " score " + score + " depth " + depth + " nodes " + nodes
+                + " nps " + getNodesPerSecond();
+    }
+}
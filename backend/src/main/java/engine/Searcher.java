@@ -0,0 +1,682 @@
+package engine;
+
+import common.Colour;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative deepening search of one board in one of the search modes. The modes share the move
+ * generator and make and take back moves in place with per-ply buffers, so the search allocates
+ * nothing per node.
+ * <ul>
+ * <li>Paranoid: alpha-beta where the colour to move at the root maximises its score while both
+ * other colours minimise it.</li>
+ * <li>Max^n: every colour maximises its own entry of a score vector. The entries add up to at most
+ * Evaluation.SHARE, which allows shallow pruning: once the colour to move is sure of a score that
+ * leaves the previous colour no more than it already has, the other moves are skipped.</li>
+ * <li>Best-Reply: the root colour and the opponents take turns. On an opponent layer the moves of
+ * both opponents are tried, the other opponent passing with a null move, and the reply worst for the
+ * root colour counts. Depth is counted in layers.</li>
+ * </ul>
+ * The searches store their results in a transposition table, keyed by the Zobrist key of the
+ * board, which includes the colour to move, mixed with the mode and the root colour, as scores
+ * are relative to the root colour. Paranoid and Best-Reply take cut-offs and best moves from it,
+ * max^n only the best move to search first.
+ * The moves of a position are ordered by MoveOrdering: the table move, captures, killers and history.
+ * At the depth limit a quiescence search follows the captures and promotions until the position is
+ * quiet, so no score is taken in the middle of an exchange. It keeps to the material changing moves
+ * the rules allow: walls neither take nor are taken and jesters only swap places. Captures that can't
+ * bring the score back into the window (delta pruning) or that lose the capturing piece for less
+ * (static exchange pruning) are skipped.
+ * Positions below the root that Tablebases hold are scored by their value: a forced win as a mate
+ * that many plies further, a draw as a draw, without searching on.
+ * The time budget is checked every few thousand positions and an interrupted iteration
+ * only counts as far as its root moves were searched completely.
+ * <p>
+ * For Lazy-SMP several searchers run the same root position on their own copies of the board
+ * and share only the transposition table. Helpers start at staggered depths and try the root
+ * moves in a rotated order, so they fill the table with results the main searcher reuses.
+ */
+class Searcher {
+
+    static final int INFINITY = 1_000_000;
+    static final int MATE = 100_000;
+    static final int MAX_PLY = 64;
+    static final int MAX_DEPTH = MAX_PLY / 2; // a Best-Reply layer can take two plies
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final int COLOURS = Colour.values().length;
+    private static final int TIME_CHECK_MASK = 2047;
+    private static final int DELTA_MARGIN = 200; // positional swing a capture may bring on top of the material
+
+    private final Board board;
+    private final SearchMode mode;
+    private final TranspositionTable table; // null to search without
+    private final MoveOrdering ordering; // null to search the table move first and the rest as generated
+    private final boolean quiescence;
+    private final Tablebases tablebases; // null to search without
+    private final LegalMoveGenerator generator;
+    private final int[][] moves = new int[MAX_PLY + 1][LegalMoveGenerator.MAX_MOVES];
+    private final UndoRecord[] records = new UndoRecord[MAX_PLY + 1];
+    private final UndoRecord[] passRecords = new UndoRecord[MAX_PLY + 1];
+    private final int[][] vectors = new int[MAX_PLY + 2][COLOURS]; // max^n score vector per ply
+    private final long deadline;
+    private final AtomicBoolean abort; // set when the searchers of a parallel search have to stop
+    private Colour root;
+    private long searchKey; // mixed into the board keys, scores depend on mode and root colour
+    private long nodes;
+    private boolean stopped;
+
+    private int bestMove;
+    private int bestScore;
+    private int completedDepth;
+
+    /**
+     * Searcher constructor
+     * @param board board to search, moved in place and taken back
+     * @param mode how the other colours are assumed to play
+     * @param table transposition table, null to search without
+     * @param deadline System.nanoTime() at which the search stops
+     * @param abort flag stopping the search when set, checked along with the time
+     * @param moveOrdering false to order only by the table move, e.g. to measure what the ordering saves
+     * @param quiescence false to evaluate at the depth limit without following the captures
+     * @param tablebases endgame tables to score the positions they hold by, null to search without
+     */
+    Searcher(Board board, SearchMode mode, TranspositionTable table, long deadline, AtomicBoolean abort,
+             boolean moveOrdering, boolean quiescence, Tablebases tablebases) {
+        this.board = board;
+        this.mode = mode;
+        this.table = table;
+        this.ordering = moveOrdering ? new MoveOrdering() : null;
+        this.quiescence = quiescence;
+        this.tablebases = tablebases;
+        this.generator = new LegalMoveGenerator(board);
+        this.deadline = deadline;
+        this.abort = abort;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            records[ply] = new UndoRecord();
+            passRecords[ply] = new UndoRecord();
+        }
+    }
+
+    /**
+     * Searches the colour to move one ply deeper at a time until the depth or the time is reached
+     * @param maxDepth deepest search in plies, layers for Best-Reply
+     * @param helper 0 for the main searcher, the number of the helper in a parallel search
+     * @return false if the colour to move has no legal move
+     */
+    boolean iterate(int maxDepth, int helper) {
+        root = board.getTurn();
+        searchKey = (mode.ordinal() * COLOURS + root.ordinal() + 1) * 0x9E3779B97F4A7C15L;
+        int[] rootMoves = moves[0];
+        int count = generator.generate(root, rootMoves);
+        if (count == 0) {
+            return false;
+        }
+        if (helper > 0) {
+            rotate(rootMoves, count, helper % count);
+        }
+        bestMove = rootMoves[0];
+        bestScore = staticScore();
+        int startDepth = 1 + (helper & 1); // every other helper runs one depth ahead
+        for (int depth = Math.min(startDepth, maxDepth); depth <= Math.min(maxDepth, MAX_DEPTH); depth++) {
+            searchRoot(rootMoves, count, depth);
+            if (stopped) {
+                break;
+            }
+            completedDepth = depth;
+            if (isWin(bestScore)) {
+                break; // a forced mate is not improved by searching deeper
+            }
+        }
+        return true;
+    }
+
+    private static void rotate(int[] rootMoves, int count, int by) {
+        int[] rotated = new int[count];
+        for (int i = 0; i < count; i++) {
+            rotated[i] = rootMoves[(i + by) % count];
+        }
+        System.arraycopy(rotated, 0, rootMoves, 0, count);
+    }
+
+    private int staticScore() {
+        if (mode == SearchMode.MAX_N) {
+            Evaluation.evaluate(board, vectors[0]);
+            return vectors[0][root.ordinal()];
+        }
+        return Evaluation.evaluate(board, root);
+    }
+
+    private boolean isWin(int score) {
+        return mode == SearchMode.MAX_N ? score >= Evaluation.SHARE - MAX_PLY : Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    /**
+     * Searches every root move to the depth. The best move is moved to the front
+     * so the next iteration searches it first.
+     */
+    private void searchRoot(int[] rootMoves, int count, int depth) {
+        int alpha = mode == SearchMode.MAX_N ? -1 : -INFINITY;
+        int best = -1;
+        for (int i = 0; i < count; i++) {
+            int move = rootMoves[i];
+            makeMove(move, records[0]);
+            int score;
+            if (isCheckMateAfterMove(root)) {
+                score = mode == SearchMode.MAX_N ? Evaluation.SHARE - 1 : MATE - 1;
+            } else if (mode == SearchMode.MAX_N) {
+                maxN(depth - 1, 1, alpha);
+                score = vectors[1][root.ordinal()];
+            } else if (mode == SearchMode.BEST_REPLY) {
+                score = bestReply(depth - 1, 1, alpha, INFINITY);
+            } else {
+                score = paranoid(depth - 1, 1, alpha, INFINITY);
+            }
+            board.unmakeMove(records[0]);
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            bestMove = rootMoves[best];
+            bestScore = alpha;
+            System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+            rootMoves[0] = bestMove;
+        }
+    }
+
+    /**
+     * Counts the position and checks the clock
+     * @return true if the search has to stop
+     */
+    private boolean visit() {
+        if ((++nodes & TIME_CHECK_MASK) == 0 && (System.nanoTime() >= deadline || abort.get())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private void makeMove(int move, UndoRecord record) {
+        board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)], record);
+    }
+
+    /**
+     * Paranoid alpha-beta: the root colour maximises, the other colours minimise
+     */
+    private int paranoid(int depth, int ply, int alpha, int beta) {
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (visit()) {
+            return 0;
+        }
+        int tablebaseValue = probeTablebases();
+        if (tablebaseValue >= 0) {
+            return tablebaseScore(tablebaseValue, ply);
+        }
+        long key = board.getZobristKey() ^ searchKey;
+        long entry = table != null ? table.probe(key) : 0;
+        if (isCutoff(entry, depth, ply, alpha, beta)) {
+            return fromTable(TranspositionTable.score(entry), ply);
+        }
+        Colour side = board.getTurn();
+        int[] plyMoves = moves[ply];
+        int count = generator.generate(side, plyMoves);
+        if (count == 0) {
+            return 0; // the colour can't move but isn't mated, the game can't go on
+        }
+        order(plyMoves, count, ply, TranspositionTable.move(entry));
+        int alphaBefore = alpha;
+        int betaBefore = beta;
+        boolean maximise = side == root;
+        int best = maximise ? -INFINITY : INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = next(plyMoves, i, count, ply);
+            makeMove(move, records[ply]);
+            int score = isCheckMateAfterMove(side) ? mateScore(side, ply + 1) : paranoid(depth - 1, ply + 1, alpha, beta);
+            board.unmakeMove(records[ply]);
+            if (stopped) {
+                return 0;
+            }
+            if (maximise ? score > best : score < best) {
+                best = score;
+                bestMove = move;
+            }
+            if (maximise) {
+                alpha = Math.max(alpha, best);
+            } else {
+                beta = Math.min(beta, best);
+            }
+            if (alpha >= beta) {
+                cutoff(move, depth, ply);
+                break;
+            }
+        }
+        store(key, bestMove, best, depth, ply, alphaBefore, betaBefore);
+        return best;
+    }
+
+    /**
+     * Checks if a table entry settles the score of the position within the window
+     */
+    private static boolean isCutoff(long entry, int depth, int ply, int alpha, int beta) {
+        if (entry == 0 || TranspositionTable.depth(entry) < depth) {
+            return false;
+        }
+        int score = fromTable(TranspositionTable.score(entry), ply);
+        switch (TranspositionTable.bound(entry)) {
+            case TranspositionTable.EXACT: return true;
+            case TranspositionTable.LOWER: return score >= beta;
+            case TranspositionTable.UPPER: return score <= alpha;
+            default: return false;
+        }
+    }
+
+    /**
+     * Stores the score with the bound following from the window it was searched with
+     */
+    private void store(long key, int move, int score, int depth, int ply, int alpha, int beta) {
+        if (table == null) {
+            return;
+        }
+        int bound = score <= alpha ? TranspositionTable.UPPER
+                : score >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, move, toTable(score, ply), depth, bound);
+    }
+
+    /**
+     * Mate scores count the plies from the root, in the table they count from the stored position
+     */
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -(MATE - MAX_PLY) ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -(MATE - MAX_PLY) ? score + ply : score;
+    }
+
+    /**
+     * Prepares the moves of a position to be taken in order by next
+     */
+    private void order(int[] plyMoves, int count, int ply, int hashMove) {
+        if (ordering != null) {
+            ordering.score(board, plyMoves, count, ply, hashMove);
+        } else {
+            searchFirst(plyMoves, count, hashMove);
+        }
+    }
+
+    /**
+     * @return the move to search at the index, the moves before it are searched
+     */
+    private int next(int[] plyMoves, int index, int count, int ply) {
+        return ordering != null ? ordering.next(plyMoves, index, count, ply) : plyMoves[index];
+    }
+
+    private void cutoff(int move, int depth, int ply) {
+        if (ordering != null) {
+            ordering.cutoff(board, move, depth, ply);
+        }
+    }
+
+    /**
+     * Moves the move to the front of the list if it is in it
+     */
+    private static void searchFirst(int[] plyMoves, int count, int move) {
+        if (move == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (plyMoves[i] == move) {
+                plyMoves[i] = plyMoves[0];
+                plyMoves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Max^n with shallow pruning. Leaves the score vector of the position in vectors[ply].
+     * @param bound score the colour that moved into this position is already sure of
+     */
+    private void maxN(int depth, int ply, int bound) {
+        int[] result = vectors[ply];
+        if (depth <= 0 || ply >= MAX_PLY) {
+            quiesceMaxN(ply);
+            return;
+        }
+        if (visit()) {
+            return;
+        }
+        int tablebaseValue = probeTablebases();
+        if (tablebaseValue >= 0) {
+            Colour winner = Tablebase.winner(tablebaseValue, board.getTurn());
+            if (winner != null) {
+                mateVector(winner, ply + Tablebase.distance(tablebaseValue), result);
+            } else {
+                Evaluation.evaluate(board, result);
+            }
+            return;
+        }
+        Colour side = board.getTurn();
+        int[] plyMoves = moves[ply];
+        int count = generator.generate(side, plyMoves);
+        if (count == 0) {
+            Evaluation.evaluate(board, result);
+            return;
+        }
+        long key = board.getZobristKey() ^ searchKey;
+        order(plyMoves, count, ply, table != null ? TranspositionTable.move(table.probe(key)) : 0);
+        int s = side.ordinal();
+        int best = -1;
+        int bestMove = 0;
+        int[] child = vectors[ply + 1];
+        for (int i = 0; i < count; i++) {
+            int move = next(plyMoves, i, count, ply);
+            makeMove(move, records[ply]);
+            if (isCheckMateAfterMove(side)) {
+                mateVector(side, ply + 1, child);
+            } else {
+                maxN(depth - 1, ply + 1, best);
+            }
+            board.unmakeMove(records[ply]);
+            if (stopped) {
+                return;
+            }
+            if (child[s] > best) {
+                best = child[s];
+                bestMove = move;
+                System.arraycopy(child, 0, result, 0, COLOURS);
+                if (best >= Evaluation.SHARE - bound) {
+                    cutoff(move, depth, ply);
+                    break; // the previous colour can't get more than it already has
+                }
+            }
+        }
+        if (table != null) {
+            table.store(key, bestMove, 0, depth, TranspositionTable.NONE);
+        }
+    }
+
+    /**
+     * Best-Reply Search: alpha-beta over alternating layers of root moves and opponent replies
+     */
+    private int bestReply(int depth, int ply, int alpha, int beta) {
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (visit()) {
+            return 0;
+        }
+        int tablebaseValue = probeTablebases();
+        if (tablebaseValue >= 0) {
+            return tablebaseScore(tablebaseValue, ply);
+        }
+        long key = board.getZobristKey() ^ searchKey;
+        long entry = table != null ? table.probe(key) : 0;
+        if (isCutoff(entry, depth, ply, alpha, beta)) {
+            return fromTable(TranspositionTable.score(entry), ply);
+        }
+        int alphaBefore = alpha;
+        int betaBefore = beta;
+        Colour side = board.getTurn();
+        int[] plyMoves = moves[ply];
+        int bestMove = 0;
+        if (side == root) {
+            int count = generator.generate(side, plyMoves);
+            if (count == 0) {
+                return 0;
+            }
+            order(plyMoves, count, ply, TranspositionTable.move(entry));
+            int best = -INFINITY;
+            for (int i = 0; i < count && alpha < beta; i++) {
+                int move = next(plyMoves, i, count, ply);
+                makeMove(move, records[ply]);
+                int score = isCheckMateAfterMove(side) ? mateScore(side, ply + 1) : bestReply(depth - 1, ply + 1, alpha, beta);
+                board.unmakeMove(records[ply]);
+                if (stopped) {
+                    return 0;
+                }
+                if (score > best) {
+                    best = score;
+                    bestMove = move;
+                }
+                alpha = Math.max(alpha, best);
+                if (alpha >= beta) {
+                    cutoff(move, depth, ply);
+                }
+            }
+            store(key, bestMove, best, depth, ply, alphaBefore, betaBefore);
+            return best;
+        }
+        // opponent layer: the colour to move replies and the next one passes, or the colour to move
+        // passes and the next one replies; either way the root colour is to move afterwards
+        int best = INFINITY;
+        int replies = 0;
+        for (int pass = 0; pass < 2 && alpha < beta; pass++) {
+            if (pass == 1) {
+                board.makeNullMove(passRecords[ply]);
+            }
+            Colour replier = board.getTurn();
+            int count = generator.generate(replier, plyMoves);
+            order(plyMoves, count, ply, TranspositionTable.move(entry));
+            replies += count;
+            for (int i = 0; i < count && alpha < beta; i++) {
+                int move = next(plyMoves, i, count, ply);
+                makeMove(move, records[ply]);
+                int score;
+                if (isCheckMateAfterMove(replier)) {
+                    score = mateScore(replier, ply + 1);
+                } else if (pass == 0) {
+                    board.makeNullMove(passRecords[ply + 1]);
+                    score = bestReply(depth - 1, ply + 1, alpha, beta);
+                    board.unmakeMove(passRecords[ply + 1]);
+                } else {
+                    score = bestReply(depth - 1, ply + 1, alpha, beta);
+                }
+                board.unmakeMove(records[ply]);
+                if (stopped) {
+                    break;
+                }
+                if (score < best) {
+                    best = score;
+                    bestMove = move;
+                }
+                beta = Math.min(beta, best);
+                if (alpha >= beta) {
+                    cutoff(move, depth, ply);
+                }
+            }
+            if (pass == 1) {
+                board.unmakeMove(passRecords[ply]);
+            }
+            if (stopped) {
+                return 0;
+            }
+        }
+        if (replies == 0) {
+            return 0;
+        }
+        store(key, bestMove, best, depth, ply, alphaBefore, betaBefore);
+        return best;
+    }
+
+    /**
+     * Quiescence search of the paranoid and Best-Reply leaves: the colour to move may stand on the
+     * static score or take, the root colour maximising and the other colours minimising as in paranoid
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        if (visit()) {
+            return 0;
+        }
+        int standPat = Evaluation.evaluate(board, root);
+        if (!quiescence || ply >= MAX_PLY) {
+            return standPat;
+        }
+        Colour side = board.getTurn();
+        boolean maximise = side == root;
+        if (maximise ? standPat >= beta : standPat <= alpha) {
+            return standPat;
+        }
+        if (maximise) {
+            alpha = standPat;
+        } else {
+            beta = standPat;
+        }
+        int[] plyMoves = moves[ply];
+        int count = generator.generateCaptures(side, plyMoves);
+        order(plyMoves, count, ply, 0);
+        int best = standPat;
+        for (int i = 0; i < count; i++) {
+            int move = next(plyMoves, i, count, ply);
+            int swing = MoveOrdering.materialGain(board, move) + DELTA_MARGIN;
+            if (maximise ? standPat + swing <= alpha : standPat - swing >= beta) {
+                continue; // even winning the piece outright leaves the score outside the window
+            }
+            if (MoveOrdering.staticExchange(board, move) < 0) {
+                continue;
+            }
+            makeMove(move, records[ply]);
+            int score = isCheckMateAfterMove(side) ? mateScore(side, ply + 1) : quiesce(ply + 1, alpha, beta);
+            board.unmakeMove(records[ply]);
+            if (stopped) {
+                return 0;
+            }
+            if (maximise ? score > best : score < best) {
+                best = score;
+            }
+            if (maximise) {
+                alpha = Math.max(alpha, best);
+            } else {
+                beta = Math.min(beta, best);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quiescence search of the max^n leaves: the colour to move keeps the static score vector unless
+     * a capture gives it a higher share. Max^n has no bound to cut off with, so only the most valuable
+     * capture that wins material is followed, one line of captures instead of a tree. Leaves the score
+     * vector of the position in vectors[ply].
+     */
+    private void quiesceMaxN(int ply) {
+        int[] result = vectors[ply];
+        Evaluation.evaluate(board, result);
+        if (visit() || !quiescence || ply >= MAX_PLY) {
+            return;
+        }
+        Colour side = board.getTurn();
+        int s = side.ordinal();
+        int[] plyMoves = moves[ply];
+        int count = generator.generateCaptures(side, plyMoves);
+        order(plyMoves, count, ply, 0);
+        int[] child = vectors[ply + 1];
+        for (int i = 0; i < count; i++) {
+            int move = next(plyMoves, i, count, ply);
+            if (MoveOrdering.staticExchange(board, move) <= 0) {
+                continue;
+            }
+            makeMove(move, records[ply]);
+            if (isCheckMateAfterMove(side)) {
+                mateVector(side, ply + 1, child);
+            } else {
+                quiesceMaxN(ply + 1);
+            }
+            board.unmakeMove(records[ply]);
+            if (stopped) {
+                return;
+            }
+            if (child[s] > result[s]) {
+                System.arraycopy(child, 0, result, 0, COLOURS);
+            }
+            break;
+        }
+    }
+
+    /**
+     * Checks the game end rule of Board.move: the game is over when a colour other than the mover
+     * is in check without a legal move.
+     */
+    private boolean isCheckMateAfterMove(Colour mover) {
+        for (Colour colour = mover.next(); colour != mover; colour = colour.next()) {
+            if (board.isCheck(colour) && !generator.hasLegalMove(colour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the tablebase value of the position, -1 if no table holds it
+     */
+    private int probeTablebases() {
+        return tablebases != null ? tablebases.probe(board) : -1;
+    }
+
+    /**
+     * Paranoid and Best-Reply score of a tablebase value, a win as a mate as many plies further
+     */
+    private int tablebaseScore(int value, int ply) {
+        Colour winner = Tablebase.winner(value, board.getTurn());
+        return winner != null ? mateScore(winner, ply + Tablebase.distance(value)) : 0;
+    }
+
+    /**
+     * Score of a game won by the colour, nearer mates score further from zero
+     */
+    private int mateScore(Colour winner, int ply) {
+        return winner == root ? MATE - ply : -(MATE - ply);
+    }
+
+    /**
+     * Score vector of a game won by the colour, nearer mates score higher
+     */
+    private static void mateVector(Colour winner, int ply, int[] scores) {
+        for (int c = 0; c < COLOURS; c++) {
+            scores[c] = 0;
+        }
+        scores[winner.ordinal()] = Evaluation.SHARE - ply;
+    }
+
+    /**
+     * @return best root move found so far, packed as in LegalMoveGenerator
+     */
+    int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return score of the best root move
+     */
+    int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return deepest iteration searched completely
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return number of positions searched
+     */
+    long getNodes() {
+        return nodes;
+    }
+}
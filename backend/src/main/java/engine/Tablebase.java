@@ -0,0 +1,306 @@
+package engine;
+
+import common.Colour;
+import common.PieceType;
+import model.BitBoard;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Endgame tablebase of one material set, read-only and mapped into memory. The file, written by
+ * TablebaseGenerator, is a header of MAGIC, the entry count and the material followed by one byte
+ * per position: the colour to move and the polygon of every piece, in the order of the material
+ * and same pieces on ascending polygons, make up the index. A value holds the winner relative to
+ * the colour to move in its two high bits, 0 for a draw, 1 for the colour to move, 2 and 3 for the
+ * colours after it, and the plies to the winning move in the low six bits, 0 in a position the
+ * game has ended in.
+ * A material set is written as the colour and type of every piece, e.g. "BK GK RQ", and packed in a
+ * long of five bits per piece ordered by colour and type, the order the pieces are indexed in.
+ * Tables are shared per file by every search in the JVM, like the OpeningBook.
+ */
+public final class Tablebase {
+
+    /** First bytes of a tablebase file, "3PTB" **/
+    public static final int MAGIC = 0x33505442;
+
+    /** Most pieces of a material set, the index of more doesn't fit an int **/
+    public static final int MAX_PIECES = 4;
+
+    /** Value of a position nobody can force a win from **/
+    public static final int DRAW = 0;
+
+    /** Value of an index that is not a position: pieces on the same polygon, same pieces out of order
+     * or a pawn on a promotion row **/
+    public static final int ILLEGAL = 0x3F;
+
+    /** Longest distance to the winning move a value holds, longer wins are stored at it **/
+    public static final int MAX_DISTANCE = ILLEGAL - 1;
+
+    static final int HEADER_SIZE = 16; // magic, entry count, material
+    static final String SUFFIX = ".tb";
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final int BITS_PER_PIECE = 5;
+    private static final int DISTANCE_BITS = 6;
+    private static final Colour[] COLOURS = Colour.values();
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final Map<Path, Tablebase> TABLES = new ConcurrentHashMap<>();
+
+    private final long material;
+    private final int size;
+    private final ByteBuffer values;
+
+    private Tablebase(MappedByteBuffer buffer, Path path) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a tablebase: " + path);
+        }
+        size = buffer.getInt(4);
+        material = buffer.getLong(8);
+        if (pieces(material) < 1 || pieces(material) > MAX_PIECES || size != entries(material)
+                || buffer.limit() - HEADER_SIZE != size) {
+            throw new IOException("Tablebase of " + size + " entries has " + buffer.limit() + " bytes: " + path);
+        }
+        values = buffer;
+    }
+
+    /**
+     * Open a tablebase file, or get the table already opened on it
+     * @param path the tablebase file
+     * @return the table shared by every caller opening the same file
+     * @throws IOException if the file can't be mapped or is not a tablebase
+     */
+    public static Tablebase open(Path path) throws IOException {
+        try {
+            return TABLES.computeIfAbsent(path.toAbsolutePath().normalize(), Tablebase::map);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Tablebase map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the material set of the table
+     */
+    public long getMaterial() {
+        return material;
+    }
+
+    /**
+     * @return number of positions, legal or not
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the position
+     * @return value of the position, ILLEGAL if the index is not a position
+     */
+    public int get(int index) {
+        return values.get(HEADER_SIZE + index) & 0xFF;
+    }
+
+    /**
+     * Value of the position of a board holding the material set of the table
+     * @param board the board
+     * @return value of the position
+     */
+    public int probe(Board board) {
+        return get(index(board));
+    }
+
+    /**
+     * @param value value of a position
+     * @param turn colour to move in the position
+     * @return the colour winning by force, null for a draw
+     */
+    public static Colour winner(int value, Colour turn) {
+        if (value == ILLEGAL) {
+            return null;
+        }
+        Colour winner = null;
+        for (int outcome = value >>> DISTANCE_BITS; outcome > 0; outcome--) {
+            winner = winner == null ? turn : winner.next();
+        }
+        return winner;
+    }
+
+    /**
+     * @param value value of a position
+     * @return plies to the winning move, 0 for a draw
+     */
+    public static int distance(int value) {
+        return value == ILLEGAL ? 0 : value & ILLEGAL;
+    }
+
+    /**
+     * @param winner the colour winning by force, null for a draw
+     * @param turn colour to move in the position
+     * @param distance plies to the winning move, 0 to MAX_DISTANCE, 0 when the game has ended
+     * @return the value of the position
+     */
+    static int value(Colour winner, Colour turn, int distance) {
+        if (winner == null) {
+            return DRAW;
+        }
+        int outcome = (winner.ordinal() - turn.ordinal() + COLOURS.length) % COLOURS.length + 1;
+        return outcome << DISTANCE_BITS | distance;
+    }
+
+    /**
+     * Material set of a board, read without allocating
+     * @param board the board
+     * @return the packed material set, 0 if the board holds more than MAX_PIECES pieces
+     */
+    public static long material(Board board) {
+        if (board.getPieceCount() > MAX_PIECES) {
+            return 0;
+        }
+        long material = 0;
+        for (Colour colour : COLOURS) {
+            for (PieceType type : TYPES) {
+                int count = Long.bitCount(board.getPieceBits(type, colour, 0)) + Long.bitCount(board.getPieceBits(type, colour, 1));
+                for (int i = 0; i < count; i++) {
+                    material = material << BITS_PER_PIECE | code(colour, type);
+                }
+            }
+        }
+        return material;
+    }
+
+    /**
+     * @param text the pieces, each the colour and the type, e.g. "BK GK RQ"
+     * @return the packed material set
+     */
+    public static long material(String text) {
+        String pieces = text.replaceAll("[\\s,_-]", "");
+        if (pieces.isEmpty() || pieces.length() % 2 != 0 || pieces.length() / 2 > MAX_PIECES) {
+            throw new IllegalArgumentException("Invalid material, 1 to " + MAX_PIECES + " pieces like BK: " + text);
+        }
+        int[] codes = new int[pieces.length() / 2];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = code(pieces.substring(2 * i, 2 * i + 2), text);
+        }
+        Arrays.sort(codes);
+        long material = 0;
+        for (int code : codes) {
+            material = material << BITS_PER_PIECE | code;
+        }
+        return material;
+    }
+
+    private static int code(String piece, String text) {
+        for (Colour colour : COLOURS) {
+            for (PieceType type : TYPES) {
+                if ((colour.toString() + type).equals(piece)) {
+                    return code(colour, type);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid piece " + piece + " in material " + text);
+    }
+
+    private static int code(Colour colour, PieceType type) {
+        return colour.ordinal() * TYPES.length + type.ordinal() + 1;
+    }
+
+    /**
+     * @param material the packed material set
+     * @return the pieces written as for material(String), e.g. "BKGKRQ"
+     */
+    public static String name(long material) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < pieces(material); i++) {
+            name.append(colour(material, i)).append(type(material, i));
+        }
+        return name.toString();
+    }
+
+    /**
+     * @param material the packed material set
+     * @return number of pieces
+     */
+    public static int pieces(long material) {
+        return (Long.SIZE - Long.numberOfLeadingZeros(material) + BITS_PER_PIECE - 1) / BITS_PER_PIECE;
+    }
+
+    static Colour colour(long material, int piece) {
+        return COLOURS[(code(material, piece) - 1) / TYPES.length];
+    }
+
+    static PieceType type(long material, int piece) {
+        return TYPES[(code(material, piece) - 1) % TYPES.length];
+    }
+
+    private static int code(long material, int piece) {
+        return (int) (material >>> BITS_PER_PIECE * (pieces(material) - 1 - piece)) & ((1 << BITS_PER_PIECE) - 1);
+    }
+
+    /**
+     * @param material the packed material set
+     * @return number of indices, every colour to move and every polygon of every piece
+     */
+    static int entries(long material) {
+        long entries = COLOURS.length;
+        for (int i = 0; i < pieces(material); i++) {
+            entries *= SIZE;
+        }
+        return (int) entries;
+    }
+
+    /**
+     * Index of the position of a board, read without allocating
+     * @param board the board, holding at most MAX_PIECES pieces
+     * @return the index in the table of its material set
+     */
+    static int index(Board board) {
+        int index = board.getTurn().ordinal();
+        for (Colour colour : COLOURS) {
+            for (PieceType type : TYPES) {
+                long lo = board.getPieceBits(type, colour, 0);
+                long hi = board.getPieceBits(type, colour, 1);
+                for (int square = BitBoard.nextSetBit(lo, hi, 0); square >= 0; square = BitBoard.nextSetBit(lo, hi, square + 1)) {
+                    index = index * SIZE + square;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Checks if the move just made ends the game for its mover: it left another colour in check without
+     * a legal move, the rule of Board.move. Taking a king doesn't, that colour plays on without it.
+     * @param board the board after the move
+     * @param record record of the move
+     * @param generator move generator of the board
+     * @return true if the mover wins
+     */
+    static boolean isWinningMove(Board board, UndoRecord record, LegalMoveGenerator generator) {
+        Colour mover = record.getPreviousTurn();
+        for (Colour colour = mover.next(); colour != mover; colour = colour.next()) {
+            if (board.isCheck(colour) && !generator.hasLegalMove(colour)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
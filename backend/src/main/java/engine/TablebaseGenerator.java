@@ -0,0 +1,681 @@
+package engine;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import model.BasePiece;
+import model.BitBoard;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+import utility.PieceFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Generates the Tablebase of a material set by retrograde analysis. A first pass over every index
+ * marks the indices that are not positions, seeds the positions the game has ended in, won by the
+ * colour that moved last at distance 0, and counts the moves of every other position that stay in
+ * the table. Moves leaving the table, changing the material, are read at once from the smaller
+ * tables. The positions are then decided level by level, in order of the distance to the
+ * winning move: every position decided at level n is unmoved into its predecessors, the positions
+ * one move before it. A predecessor won by its colour to move there is won at level n + 1, any other
+ * has one undecided move less and is lost once none is left. Each colour plays for itself: a position
+ * is won by the colour to move when a move reaches a position it wins, choosing the fastest, and lost
+ * when every move reaches a position another colour wins, choosing the slowest. Positions never
+ * decided are draws, a colour without a legal move draws as in the search. The game ends only as in
+ * Board.move, on a checkmate: a colour whose king is taken plays on and can't be mated any more, so a
+ * capture of a king is valued through the table it leads to like any other capture. Wins further than
+ * Tablebase.MAX_DISTANCE are stored at it.
+ * Captures and promotions lead into the tables of smaller material sets, which are generated first
+ * unless their files are there already. The first pass runs on a fork-join pool over index ranges,
+ * each level on one task per colour to move, as the predecessors of the positions of one colour are
+ * the positions of the colour before it.
+ */
+public final class TablebaseGenerator {
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final int CHUNK = 1 << 14; // indices per task
+    private static final int NEVER = 0xFF; // undecided moves of a position with a drawing move, never lost
+    private static final int DONE = 0xFE; // undecided moves of a position decided and unmoved
+    private static final Position[] POSITIONS = Position.values();
+    private static final Colour[] COLOURS = Colour.values();
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final Map<Long, Tablebase> tables = new HashMap<>(); // generated or opened so far
+
+    /**
+     * @param directory directory of the tablebase files, read for smaller tables and written to
+     * @param pool pool the passes run on
+     */
+    public TablebaseGenerator(Path directory, ForkJoinPool pool) {
+        this.directory = directory;
+        this.pool = pool;
+    }
+
+    /**
+     * @param directory directory of the tablebase files
+     * @param material the packed material set
+     * @return the file of the table of the material set
+     */
+    public static Path file(Path directory, long material) {
+        return directory.resolve(Tablebase.name(material) + Tablebase.SUFFIX);
+    }
+
+    /**
+     * Generate the table of a material set, and first the tables its captures and promotions lead to
+     * @param material the packed material set
+     * @return the table, opened from its file if it was generated before
+     * @throws IOException if a file can't be read or written
+     */
+    public Tablebase generate(long material) throws IOException {
+        Tablebase table = tables.get(material);
+        if (table != null) {
+            return table;
+        }
+        Path file = file(directory, material);
+        if (!Files.exists(file)) {
+            int pieces = Tablebase.pieces(material);
+            for (int i = 0; i < pieces; i++) {
+                PieceType type = Tablebase.type(material, i);
+                if (pieces > 1 && type != PieceType.WALL) {
+                    generate(replace(material, i, null, null)); // taken, a king too as the game goes on without it
+                }
+                if (type == PieceType.PAWN) {
+                    generate(replace(material, i, Tablebase.colour(material, i), PieceType.QUEEN));
+                }
+            }
+            // a pawn taking as it promotes leads two steps down, into a table generated on the way
+            byte[] values = solve(material, tables.values().toArray(new Tablebase[0]));
+            Files.createDirectories(directory);
+            write(file, material, values);
+        }
+        table = Tablebase.open(file);
+        tables.put(material, table);
+        return table;
+    }
+
+    private static long replace(long material, int piece, Colour colour, PieceType type) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Tablebase.pieces(material); i++) {
+            if (i != piece) {
+                text.append(Tablebase.colour(material, i)).append(Tablebase.type(material, i));
+            } else if (type != null) {
+                text.append(colour).append(type);
+            }
+        }
+        return Tablebase.material(text.toString());
+    }
+
+    private byte[] solve(long material, Tablebase[] smaller) {
+        int entries = Tablebase.entries(material);
+        Analysis analysis = new Analysis(material, smaller, new byte[entries], new byte[entries], sources(material));
+        Schedule schedule = pool.invoke(new Seed(analysis, 0, entries));
+        for (int level = 0; level < schedule.levels(); level++) {
+            pool.invoke(new Level(analysis, schedule, level, null, true));
+            pool.invoke(new Level(analysis, schedule, level, null, false));
+        }
+        return analysis.values;
+    }
+
+    /**
+     * For every piece of a material set and every polygon, the polygons the piece could have moved there from
+     * without taking, walked on an empty board, so the pieces on the way can only take some away
+     */
+    private static long[][] sources(long material) {
+        int pieces = Tablebase.pieces(material);
+        long[][] sources = new long[pieces][SIZE * 2];
+        Board board = new Board(Collections.emptyMap(), Colour.BLUE);
+        LegalMoveGenerator generator = new LegalMoveGenerator(board);
+        long[] targets = new long[2];
+        for (int i = 0; i < pieces; i++) {
+            BasePiece piece = PieceFactory.createPiece(Tablebase.type(material, i).name(), Tablebase.colour(material, i));
+            for (int from = 0; from < SIZE; from++) {
+                board.place(POSITIONS[from], piece);
+                generator.generate(from, targets);
+                board.place(POSITIONS[from], null);
+                for (int to = BitBoard.nextSetBit(targets[0], targets[1], 0); to >= 0; to = BitBoard.nextSetBit(targets[0], targets[1], to + 1)) {
+                    sources[i][to * 2 + (from >>> 6)] |= 1L << from;
+                }
+            }
+        }
+        return sources;
+    }
+
+    private static int distance(int level) {
+        return Math.min(level, Tablebase.MAX_DISTANCE);
+    }
+
+    private static void write(Path file, long material, byte[] values) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_SIZE);
+        header.putInt(Tablebase.MAGIC).putInt(values.length).putLong(material).flip();
+        ByteBuffer body = ByteBuffer.wrap(values);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, body});
+            }
+        }
+    }
+
+    /**
+     * The table in the making: the values and, per undecided position, its moves to undecided positions
+     * of the table, NEVER if one of its moves draws
+     */
+    private static final class Analysis {
+
+        private final long material;
+        private final Tablebase[] smaller;
+        private final byte[] values;
+        private final byte[] remaining;
+        private final long[][] sources;
+
+        Analysis(long material, Tablebase[] smaller, byte[] values, byte[] remaining, long[][] sources) {
+            this.material = material;
+            this.smaller = smaller;
+            this.values = values;
+            this.remaining = remaining;
+            this.sources = sources;
+        }
+    }
+
+    /**
+     * Growable list of indices
+     */
+    private static final class IntList {
+
+        private int[] items = new int[16];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+    }
+
+    /**
+     * The positions to unmove, per level and colour to move. The list of a level and colour is only
+     * added to by the task of the colour before it.
+     */
+    private static final class Schedule {
+
+        private final List<IntList[]> levels = new ArrayList<>();
+
+        synchronized IntList list(int level, Colour turn) {
+            while (levels.size() <= level) {
+                levels.add(new IntList[COLOURS.length]);
+            }
+            IntList[] lists = levels.get(level);
+            if (lists[turn.ordinal()] == null) {
+                lists[turn.ordinal()] = new IntList();
+            }
+            return lists[turn.ordinal()];
+        }
+
+        synchronized IntList get(int level, Colour turn) {
+            return level < levels.size() ? levels.get(level)[turn.ordinal()] : null;
+        }
+
+        synchronized int levels() {
+            return levels.size();
+        }
+
+        void addAll(Schedule other) {
+            for (int level = 0; level < other.levels(); level++) {
+                for (Colour turn : COLOURS) {
+                    IntList items = other.get(level, turn);
+                    for (int i = 0; items != null && i < items.size; i++) {
+                        list(level, turn).add(items.items[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Task seeding a range of indices, split in halves down to CHUNK indices
+     */
+    private static class Seed extends RecursiveTask<Schedule> {
+
+        private final Analysis analysis;
+        private final int from;
+        private final int to;
+
+        Seed(Analysis analysis, int from, int to) {
+            this.analysis = analysis;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Schedule compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                Seed left = new Seed(analysis, from, middle);
+                left.fork();
+                Schedule right = new Seed(analysis, middle, to).compute();
+                Schedule schedule = left.join();
+                schedule.addAll(right);
+                return schedule;
+            }
+            Solver solver = new Solver(analysis);
+            Schedule schedule = new Schedule();
+            for (int index = from; index < to; index++) {
+                solver.seed(index, schedule);
+            }
+            return schedule;
+        }
+    }
+
+    /**
+     * Task of one level: settles the positions listed for the level, then unmoves them into their
+     * predecessors, one subtask per colour to move
+     */
+    private static class Level extends RecursiveAction {
+
+        private final Analysis analysis;
+        private final Schedule schedule;
+        private final int level;
+        private final Colour turn;
+        private final boolean settle;
+
+        Level(Analysis analysis, Schedule schedule, int level, Colour turn, boolean settle) {
+            this.analysis = analysis;
+            this.schedule = schedule;
+            this.level = level;
+            this.turn = turn;
+            this.settle = settle;
+        }
+
+        @Override
+        protected void compute() {
+            if (turn == null) {
+                Level[] colours = new Level[COLOURS.length];
+                for (Colour colour : COLOURS) {
+                    colours[colour.ordinal()] = new Level(analysis, schedule, level, colour, settle);
+                }
+                invokeAll(colours);
+                return;
+            }
+            IntList list = schedule.get(level, turn);
+            if (list == null) {
+                return;
+            }
+            if (settle) {
+                settle(list);
+                return;
+            }
+            Solver solver = new Solver(analysis);
+            for (int i = 0; i < list.size; i++) {
+                solver.unmove(list.items[i], level, schedule);
+            }
+        }
+
+        /**
+         * Decides the wins listed from the smaller tables that no faster win overtook and drops the positions
+         * decided at a lower level or listed twice, leaving every position of the level once
+         */
+        private void settle(IntList list) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int index = list.items[i];
+                if ((analysis.remaining[index] & 0xFF) == DONE) {
+                    continue;
+                }
+                if (analysis.values[index] == Tablebase.DRAW) {
+                    analysis.values[index] = (byte) Tablebase.value(turn, turn, distance(level));
+                }
+                analysis.remaining[index] = (byte) DONE;
+                list.items[kept++] = index;
+            }
+            list.size = kept;
+        }
+    }
+
+    /**
+     * Board of one task, set up for one index after another
+     */
+    private static class Solver {
+
+        private final long material;
+        private final Tablebase[] smaller;
+        private final byte[] values;
+        private final byte[] remaining;
+        private final long[][] sources;
+        private final int pieces;
+        private final Board board = new Board(Collections.emptyMap(), Colour.BLUE);
+        private final LegalMoveGenerator generator = new LegalMoveGenerator(board);
+        private final BasePiece[] placed;
+        private final int[] squares;
+        private final int[] codes;
+        private final int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        private final int[] target;
+        private final long[] targets = new long[2];
+        private final UndoRecord record = new UndoRecord();
+
+        Solver(Analysis analysis) {
+            this.material = analysis.material;
+            this.smaller = analysis.smaller;
+            this.values = analysis.values;
+            this.remaining = analysis.remaining;
+            this.sources = analysis.sources;
+            pieces = Tablebase.pieces(material);
+            placed = new BasePiece[pieces];
+            squares = new int[pieces];
+            target = new int[pieces];
+            codes = new int[pieces];
+            for (int i = 0; i < pieces; i++) {
+                Colour colour = Tablebase.colour(material, i);
+                PieceType type = Tablebase.type(material, i);
+                placed[i] = PieceFactory.createPiece(type.name(), colour);
+                squares[i] = -1;
+                codes[i] = colour.ordinal() * PieceType.values().length + type.ordinal();
+            }
+        }
+
+        /**
+         * Marks an index that is not a position, lists a position the game has ended in at level 0 or
+         * counts the moves of any other position, listing it at the level of the fastest win through the
+         * smaller tables, if any, and at the level of its loss if every move leaves the table
+         */
+        void seed(int index, Schedule schedule) {
+            if (!setUp(index)) {
+                values[index] = (byte) Tablebase.ILLEGAL;
+                return;
+            }
+            Colour mover = board.getTurn();
+            Colour last = mover.next().next();
+            for (Colour colour = mover; colour != last; colour = colour.next()) {
+                if (board.isCheck(colour) && !generator.hasLegalMove(colour)) {
+                    values[index] = (byte) Tablebase.value(last, mover, 0);
+                    schedule.list(0, mover).add(index);
+                    return;
+                }
+            }
+            int count = generator.generate(mover, moves);
+            int inside = 0;
+            int win = Integer.MAX_VALUE;
+            boolean draw = count == 0;
+            for (int i = 0; i < count; i++) {
+                int piece = occupant(LegalMoveGenerator.from(moves[i]));
+                int taken = occupant(LegalMoveGenerator.to(moves[i]));
+                if (!leavesTable(piece, taken, LegalMoveGenerator.to(moves[i]))) {
+                    inside++;
+                } else {
+                    makeMove(moves[i]);
+                    int value = child();
+                    Colour winner = Tablebase.winner(value, board.getTurn());
+                    if (winner == null) {
+                        draw = true;
+                    } else if (winner == mover) {
+                        win = Math.min(win, Tablebase.distance(value) + 1);
+                    }
+                    board.unmakeMove(record);
+                }
+            }
+            if (inside >= DONE) {
+                throw new IllegalStateException(inside + " moves in the table, more than can be counted");
+            }
+            remaining[index] = (byte) (draw ? NEVER : inside);
+            if (win != Integer.MAX_VALUE) {
+                schedule.list(win, mover).add(index); // decided when settled, unless a faster win is found first
+            } else if (!draw && inside == 0) {
+                int value = evaluate();
+                values[index] = (byte) value;
+                schedule.list(Tablebase.distance(value), mover).add(index);
+            }
+        }
+
+        /**
+         * Unmoves a position decided at a level into its predecessors: quiet moves of the colour that moved
+         * last, swaps of its jester and its castling
+         */
+        void unmove(int index, int level, Schedule schedule) {
+            setUp(index);
+            Colour last = board.getTurn().next().next();
+            boolean won = Tablebase.winner(values[index] & 0xFF, board.getTurn()) == last;
+            board.makeNullMove(record);
+            board.makeNullMove(record);
+            for (int i = 0; i < pieces; i++) {
+                if (placed[i].getColour() != last) {
+                    continue;
+                }
+                int to = squares[i];
+                long lo = sources[i][to * 2];
+                long hi = sources[i][to * 2 + 1];
+                for (int from = BitBoard.nextSetBit(lo, hi, 0); from >= 0; from = BitBoard.nextSetBit(lo, hi, from + 1)) {
+                    int other = occupant(from);
+                    if (other < 0) {
+                        board.place(POSITIONS[to], null);
+                        board.place(POSITIONS[from], placed[i]);
+                        predecessor(index, from, to, level, won, schedule);
+                        board.place(POSITIONS[from], null);
+                        board.place(POSITIONS[to], placed[i]);
+                    } else if (placed[i].getType() == PieceType.JESTER && placed[other].getColour() != last) {
+                        board.place(POSITIONS[to], placed[other]);
+                        board.place(POSITIONS[from], placed[i]);
+                        predecessor(index, from, to, level, won, schedule);
+                        board.place(POSITIONS[from], placed[other]);
+                        board.place(POSITIONS[to], placed[i]);
+                    }
+                }
+                if (placed[i].getType() == PieceType.KING) {
+                    int home = last.ordinal() * 32;
+                    if (to == home + 4 * 6) {
+                        uncastle(i, home + 4 * 4, home + 4 * 7, home + 4 * 5, index, level, won, schedule);
+                    } else if (to == home + 4 * 2) {
+                        uncastle(i, home + 4 * 4, home, home + 4 * 3, index, level, won, schedule);
+                    }
+                }
+            }
+        }
+
+        private void uncastle(int king, int kingStart, int rookStart, int rookEnd, int index, int level, boolean won,
+                              Schedule schedule) {
+            int rook = occupant(rookEnd);
+            if (rook < 0 || placed[rook].getType() != PieceType.ROOK || placed[rook].getColour() != placed[king].getColour()
+                    || occupant(kingStart) >= 0 || occupant(rookStart) >= 0) {
+                return;
+            }
+            int kingEnd = squares[king];
+            board.place(POSITIONS[kingEnd], null);
+            board.place(POSITIONS[rookEnd], null);
+            board.place(POSITIONS[kingStart], placed[king]);
+            board.place(POSITIONS[rookStart], placed[rook]);
+            predecessor(index, kingStart, kingEnd, level, won, schedule);
+            board.place(POSITIONS[kingStart], null);
+            board.place(POSITIONS[rookStart], null);
+            board.place(POSITIONS[kingEnd], placed[king]);
+            board.place(POSITIONS[rookEnd], placed[rook]);
+        }
+
+        /**
+         * Decides the predecessor set up on the board if its colour to move wins the position, else counts
+         * down its undecided moves and decides it once none is left. Only predecessors the move from start to
+         * end is legal in and leads from to the position count.
+         */
+        private void predecessor(int index, int start, int end, int level, boolean won, Schedule schedule) {
+            int previous = Tablebase.index(board);
+            if (values[previous] != Tablebase.DRAW || !won && (remaining[previous] & 0xFF) == NEVER) {
+                return; // decided, not a position, or never lost
+            }
+            generator.generate(start, targets);
+            if (!BitBoard.contains(targets[0], targets[1], end)) {
+                return;
+            }
+            board.makeMove(POSITIONS[start], POSITIONS[end], record);
+            boolean leads = Tablebase.material(board) == material && Tablebase.index(board) == index;
+            board.unmakeMove(record);
+            if (!leads) {
+                return;
+            }
+            Colour mover = board.getTurn();
+            if (won) {
+                values[previous] = (byte) Tablebase.value(mover, mover, distance(level + 1));
+                schedule.list(level + 1, mover).add(previous);
+            } else if (--remaining[previous] == 0) {
+                int value = evaluate();
+                if (Tablebase.winner(value, mover) != mover) { // else a win through a smaller table, listed already
+                    values[previous] = (byte) value;
+                    schedule.list(Math.max(level + 1, Tablebase.distance(value)), mover).add(previous);
+                }
+            }
+        }
+
+        /**
+         * Value of the position on the board from the values of all its moves, every move reaching a decided
+         * position or leaving the table
+         */
+        private int evaluate() {
+            Colour mover = board.getTurn();
+            int count = generator.generate(mover, moves);
+            int win = Integer.MAX_VALUE;
+            int loss = -1;
+            Colour lossWinner = null;
+            boolean allDecided = count > 0;
+            for (int i = 0; i < count; i++) {
+                makeMove(moves[i]);
+                int value = child();
+                Colour winner = Tablebase.winner(value, board.getTurn());
+                int distance = Tablebase.distance(value);
+                board.unmakeMove(record);
+                if (winner == null) {
+                    allDecided = false;
+                } else if (winner == mover) {
+                    win = Math.min(win, distance + 1);
+                } else if (distance > loss) {
+                    loss = distance;
+                    lossWinner = winner;
+                }
+            }
+            if (win != Integer.MAX_VALUE) {
+                return Tablebase.value(mover, mover, distance(win));
+            }
+            return allDecided ? Tablebase.value(lossWinner, mover, distance(loss + 1)) : Tablebase.DRAW;
+        }
+
+        private void makeMove(int move) {
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)], record);
+        }
+
+        private int child() {
+            long childMaterial = Tablebase.material(board);
+            if (childMaterial == material) {
+                return values[Tablebase.index(board)] & 0xFF;
+            }
+            for (Tablebase table : smaller) {
+                if (table.getMaterial() == childMaterial) {
+                    return table.probe(board);
+                }
+            }
+            return Tablebase.DRAW; // nothing but the mover is left
+        }
+
+        /**
+         * @return whether a move of a piece changes the material: it takes a piece, other than by the swap of
+         * a jester, or promotes a pawn
+         */
+        private boolean leavesTable(int piece, int taken, int to) {
+            if (taken >= 0) {
+                return placed[piece].getType() != PieceType.JESTER;
+            }
+            return placed[piece].getType() == PieceType.PAWN && POSITIONS[to].getRow() == 0
+                    && POSITIONS[to].getColour() != placed[piece].getColour();
+        }
+
+        /**
+         * @return the piece on a polygon, -1 if it is empty
+         */
+        private int occupant(int square) {
+            for (int i = 0; i < pieces; i++) {
+                if (squares[i] == square) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Places the pieces of an index on the board
+         * @return false if the index is not a position
+         */
+        private boolean setUp(int index) {
+            int rest = index;
+            for (int i = pieces - 1; i >= 0; i--) {
+                target[i] = rest % SIZE;
+                rest /= SIZE;
+            }
+            for (int i = 0; i < pieces; i++) {
+                Position square = POSITIONS[target[i]];
+                for (int j = 0; j < i; j++) {
+                    if (target[j] == target[i] || codes[j] == codes[i] && target[j] > target[i]) {
+                        return false; // on the same polygon, or same pieces out of order
+                    }
+                }
+                if (placed[i].getType() == PieceType.PAWN && square.getRow() == 0 && square.getColour() != placed[i].getColour()) {
+                    return false; // a pawn there has been promoted
+                }
+            }
+            for (int i = 0; i < pieces; i++) {
+                if (squares[i] >= 0) {
+                    board.place(POSITIONS[squares[i]], null);
+                }
+            }
+            for (int i = 0; i < pieces; i++) {
+                squares[i] = target[i];
+                board.place(POSITIONS[squares[i]], placed[i]);
+            }
+            Colour turn = COLOURS[rest];
+            while (board.getTurn() != turn) {
+                board.makeNullMove(record);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Tablebase command: directory material [threads]. Generates the table of the material set and
+     * the smaller tables it needs into the directory.
+     * @param args directory, material set like "BK GK RQ", number of threads (default all processors)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TablebaseGenerator directory material [threads]");
+            return;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long material = Tablebase.material(args[1]);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Tablebase table = new TablebaseGenerator(Paths.get(args[0]), pool).generate(material);
+        pool.shutdown();
+        long[] outcomes = new long[4];
+        int longest = 0;
+        for (int index = 0; index < table.size(); index++) {
+            int value = table.get(index);
+            outcomes[value == Tablebase.ILLEGAL ? 3 : value == Tablebase.DRAW ? 0 : value >>> 6 == 1 ? 1 : 2]++;
+            longest = Math.max(longest, Tablebase.distance(value));
+        }
+        System.out.println("Tablebase " + file(Paths.get(args[0]), material) + ": " + table.size() + " indices, "
+                + outcomes[1] + " won and " + outcomes[2] + " lost by the colour to move, " + outcomes[0] + " drawn, "
+                + outcomes[3] + " illegal, longest win " + longest + " plies, " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
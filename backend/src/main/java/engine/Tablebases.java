@@ -0,0 +1,125 @@
+package engine;
+
+import common.Colour;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The tablebases of a search: probes the table of the material set of a board, if there is one,
+ * without allocating, and finds the move a table advises for hints.
+ */
+public final class Tablebases {
+
+    private static final int NONE = -1;
+    private static final Position[] POSITIONS = Position.values();
+
+    private final Tablebase[] tables;
+    private final int maxPieces;
+
+    /**
+     * @param tables the tables, one per material set
+     */
+    public Tablebases(List<Tablebase> tables) {
+        this.tables = tables.toArray(new Tablebase[0]);
+        int max = 0;
+        for (Tablebase table : this.tables) {
+            max = Math.max(max, Tablebase.pieces(table.getMaterial()));
+        }
+        maxPieces = max;
+    }
+
+    /**
+     * Open every tablebase file of a directory
+     * @param directory directory of the files written by TablebaseGenerator
+     * @return the tables
+     * @throws IOException if a file can't be mapped or is not a tablebase
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        List<Tablebase> tables = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Tablebase.SUFFIX)) {
+            for (Path file : files) {
+                tables.add(Tablebase.open(file));
+            }
+        }
+        return new Tablebases(tables);
+    }
+
+    /**
+     * @return number of tables
+     */
+    public int size() {
+        return tables.length;
+    }
+
+    /**
+     * Value of the position of a board
+     * @param board the board
+     * @return the value as read from Tablebase, -1 if no table holds the material set of the board
+     */
+    public int probe(Board board) {
+        if (board.getPieceCount() > maxPieces) {
+            return NONE;
+        }
+        long material = Tablebase.material(board);
+        for (Tablebase table : tables) {
+            if (table.getMaterial() == material) {
+                int value = table.probe(board);
+                return value == Tablebase.ILLEGAL ? NONE : value;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Move the tables advise for the colour to move: the fastest win, else a draw, else the slowest loss.
+     * The board is left unchanged.
+     * @param board the board
+     * @return the packed move, 0 if no table holds the position or the colour can't move
+     */
+    public int bestMove(Board board) {
+        if (probe(board) == NONE) {
+            return 0;
+        }
+        Board copy = new Board(board);
+        LegalMoveGenerator generator = new LegalMoveGenerator(copy);
+        int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        UndoRecord record = new UndoRecord();
+        Colour mover = copy.getTurn();
+        int count = generator.generate(mover, moves);
+        int bestMove = 0;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            copy.makeMove(POSITIONS[LegalMoveGenerator.from(moves[i])], POSITIONS[LegalMoveGenerator.to(moves[i])], record);
+            int rank;
+            if (Tablebase.isWinningMove(copy, record, generator)) {
+                rank = Integer.MAX_VALUE;
+            } else {
+                int value = probe(copy);
+                Colour winner = value == NONE ? null : Tablebase.winner(value, copy.getTurn());
+                // wins rank above draws, draws above losses, nearer wins and further losses higher
+                if (winner == null) {
+                    rank = 0;
+                } else if (winner == mover) {
+                    rank = Integer.MAX_VALUE - 1 - Tablebase.distance(value);
+                } else {
+                    rank = Tablebase.distance(value) - Tablebase.MAX_DISTANCE - 1;
+                }
+            }
+            copy.unmakeMove(record);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+}
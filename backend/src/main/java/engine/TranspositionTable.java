@@ -0,0 +1,171 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table in a long array, shared by searches on any number of threads
+ * without locks. Each entry is two longs: the data word and the position key exclusive or'ed with
+ * the data word. A write racing with another write or a read leaves a pair that no longer
+ * decodes to the key, so torn entries read as misses instead of wrong data.
+ * <p>
+ * The data word packs the best move (bits 0-13, as packed by LegalMoveGenerator), the bound
+ * (bits 14-15), the depth (bits 16-23), the age of the search that stored it (bits 24-31) and
+ * the score (bits 32-63). Entries are grouped in buckets of four; a new position replaces the
+ * entry of its bucket with the least depth, entries of earlier searches counting as shallower
+ * the older they are.
+ */
+public final class TranspositionTable {
+
+    /** The entry only holds a best move **/
+    public static final int NONE = 0;
+    /** The score is at most the stored score **/
+    public static final int UPPER = 1;
+    /** The score is at least the stored score **/
+    public static final int LOWER = 2;
+    /** The stored score is exact **/
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int AGE_WEIGHT = 4; // depth an entry loses per search it is old
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * TranspositionTable constructor
+     * @param megabytes size of the table in MB, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB: " + megabytes);
+        }
+        long buckets = (long) megabytes * 1024 * 1024 / (ENTRY_BYTES * BUCKET_ENTRIES);
+        int bucketCount = Integer.highestOneBit((int) Math.min(buckets, 1 << 26));
+        table = new long[bucketCount * BUCKET_ENTRIES * 2];
+        bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Starts a new search: entries stored from now on are younger than the existing ones
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * @return number of entries the table holds
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * Looks up a position
+     * @param key position key
+     * @return the data word of the entry, 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int i = base; i < base + BUCKET_ENTRIES * 2; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position, replacing the entry of the same position
+     * unless that was searched deeper, or else the least valuable entry of the bucket
+     * @param key position key
+     * @param move best move, packed as in LegalMoveGenerator, 0 to keep the move already stored
+     * @param score score of the position
+     * @param depth depth searched, 0-255
+     * @param bound UPPER, LOWER, EXACT or NONE
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = bucket(key);
+        int replace = base;
+        int lowest = Integer.MAX_VALUE;
+        int currentAge = age;
+        for (int i = base; i < base + BUCKET_ENTRIES * 2; i += 2) {
+            long data = table[i + 1];
+            if (data == 0) {
+                replace = i;
+                break;
+            }
+            if ((table[i] ^ data) == key) {
+                if (depth < depth(data) && bound != EXACT && age(data) == currentAge) {
+                    return; // keep the deeper result of this search
+                }
+                if (move == 0) {
+                    move = move(data);
+                }
+                replace = i;
+                break;
+            }
+            int value = depth(data) - AGE_WEIGHT * ((currentAge - age(data)) & 0xFF);
+            if (value < lowest) {
+                lowest = value;
+                replace = i;
+            }
+        }
+        long data = (move & 0x3FFFL) | ((long) bound << 14) | ((long) (depth & 0xFF) << 16)
+                | ((long) currentAge << 24) | ((long) score << 32);
+        if (data == 0) {
+            return; // nothing worth keeping, and 0 marks an empty entry
+        }
+        table[replace] = key ^ data;
+        table[replace + 1] = data;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_ENTRIES * 2;
+    }
+
+    /**
+     * @param data data word returned by probe
+     * @return best move, packed as in LegalMoveGenerator, 0 if none
+     */
+    public static int move(long data) {
+        return (int) (data & 0x3FFF);
+    }
+
+    /**
+     * @param data data word returned by probe
+     * @return UPPER, LOWER, EXACT or NONE
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 14) & 0x3;
+    }
+
+    /**
+     * @param data data word returned by probe
+     * @return depth searched
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 16) & 0xFF;
+    }
+
+    /**
+     * @param data data word returned by probe
+     * @return score of the position
+     */
+    public static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    static int age(long data) {
+        return (int) (data >>> 24) & 0xFF;
+    }
+}
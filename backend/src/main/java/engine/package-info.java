@@ -0,0 +1,6 @@
+/**
+ * Computer opponent: searches the moves of the Board for the best move of a colour
+ * within a time budget, by alpha-beta search or by Monte Carlo Tree Search, with an opening book
+ * of the moves played most in the first plies and endgame tablebases of positions with few pieces
+ */
+package engine;
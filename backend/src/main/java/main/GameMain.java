@@ -2,6 +2,7 @@ package main;
 
 import abstraction.IGameInterface;
 import com.google.common.collect.ImmutableSet;
+import common.BoardHistory;
 import common.Colour;
 import common.InvalidMoveException;
 import common.InvalidPositionException;
@@ -27,6 +28,7 @@ public class GameMain implements IGameInterface {
     private final Board board;
     private Position moveStartPos, moveEndPos;
     private Set<Position> highlightPolygons;
+    private BoardHistory history;
 
     /**
      * GameMain Constructor. Entry point to the backend logic
@@ -37,6 +39,7 @@ public class GameMain implements IGameInterface {
         moveStartPos = null;
         moveEndPos = null;
         highlightPolygons = ImmutableSet.of();
+        history = new BoardHistory(getBoard(), board.getVersion(), BoardHistory.DEFAULT_CAPACITY);
     }
 
     /**
@@ -56,6 +59,17 @@ public class GameMain implements IGameInterface {
      **/
     @Override
     public GameState onClick(String polygonLabel) {
+        return onClick(polygonLabel, GameState.NO_VERSION);
+    }
+
+    /**
+     * Same as onClick, answering with only the polygons changed since the version the player has
+     * @param  polygonLabel The unique label of the polygon which is clicked by player
+     * @param  knownVersion board version the player has, GameState.NO_VERSION for the full board
+     * @return GameState which contains the changes or the full board and list of polygons to highlight
+     **/
+    @Override
+    public GameState onClick(String polygonLabel, long knownVersion) {
         try {
             // polygonPos must be in range [0, 95]
             Log.d(TAG, ">>> onClick called: polygonLabel: "+polygonLabel);
@@ -73,6 +87,7 @@ public class GameMain implements IGameInterface {
             } else if(moveStartPos != null){
                 moveEndPos = Position.get(polygonPos);
                 board.move(moveStartPos, moveEndPos);
+                history = history.next(getBoard(), board.getVersion());
                 Log.d(TAG, ">>> moveStartPos: " + moveStartPos + ", moveEndPos: " + moveEndPos);
 
                 moveStartPos = moveEndPos = null;
@@ -87,8 +102,45 @@ public class GameMain implements IGameInterface {
             moveStartPos = moveEndPos = null;
             highlightPolygons = null;
         }
+        return gameState(knownVersion);
+    }
+
+    /**
+     * Moves a piece of the current player in one step, without selecting it first, e.g. for a move
+     * sent as a whole over a socket. A selection made by earlier clicks is dropped.
+     * @param  startLabel The label of the polygon the piece stands on
+     * @param  endLabel The label of the polygon the piece moves to
+     * @return GameState which contains current game board layout and no polygons to highlight
+     **/
+    @Override
+    public GameState onMove(String startLabel, String endLabel) {
+        moveStartPos = moveEndPos = null;
+        highlightPolygons = null;
+        try {
+            Log.d(TAG, ">>> onMove called: " + startLabel + "-" + endLabel);
+            Position start = Position.get(calculatePolygonId(startLabel));
+            Position end = Position.get(calculatePolygonId(endLabel));
+            if(!board.isCurrentPlayersPiece(start)) {
+                throw new InvalidMoveException("Not a piece of the current player: " + startLabel);
+            }
+            board.move(start, end);
+            history = history.next(getBoard(), board.getVersion());
+        } catch (InvalidMoveException e) {
+            Log.e(TAG, "InvalidMoveException onMove: "+e.getMessage());
+        } catch (InvalidPositionException e) {
+            Log.e(TAG, "InvalidPositionException onMove: "+e.getMessage());
+        }
+        return gameState(GameState.NO_VERSION);
+    }
+
+    /**
+     * Builds the response to a click or move from the board history and the highlighted polygons
+     * @param knownVersion board version the player has
+     * @return GameState which contains the board changes or layout and list of polygons to highlight
+     **/
+    private GameState gameState(long knownVersion) {
         List<String> highlightPolygonsList = BoardAdapter.convertHighlightPolygonsToViewBoard(highlightPolygons);
-        GameState clickResponse = new GameState(getBoard(), highlightPolygonsList);
+        GameState clickResponse = new GameState(history, knownVersion, highlightPolygonsList);
         if(board.isGameOver()) {
             String winner = board.getWinner();
             Log.d(TAG, "Winner: "+winner);
@@ -98,6 +150,14 @@ public class GameMain implements IGameInterface {
         return clickResponse;
     }
 
+    /**
+     * @return history of the board, immutable, replaced after every move
+     * */
+    @Override
+    public BoardHistory getHistory() {
+        return history;
+    }
+
     /**
      * @return returns which colour turn it is currently
      * */
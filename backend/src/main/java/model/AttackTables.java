@@ -0,0 +1,252 @@
+package model;
+
+import common.Colour;
+import common.Direction;
+import common.PieceType;
+import utility.MovementUtil;
+
+import static utility.MovementUtil.OFF_BOARD;
+
+/**
+ * Precomputed attack patterns of the pieces on the 96 polygon board, stored as 96-bit sets
+ * of two longs per polygon. Every table has a reverse table holding, for a target polygon,
+ * the polygons a piece can attack it from, so attacks can be found working backwards from
+ * the target. Sliding pieces keep the full rays they could reach on an empty board and are
+ * then checked exactly against the occupancy.
+ */
+final class AttackTables {
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final int COLOURS = Colour.values().length;
+
+    static final Direction[][] KNIGHT_STEPS = new Knight(Colour.BLUE).directions;
+    static final Direction[][] KING_STEPS = new King(Colour.BLUE).directions;
+    static final Direction[][] PAWN_STEPS = new Pawn(Colour.BLUE).directions;
+    static final Direction[][] BISHOP_STEPS = new Bishop(Colour.BLUE).directions;
+    static final Direction[][] ROOK_STEPS = new Rook(Colour.BLUE).directions;
+    static final Direction[][] QUEEN_STEPS = new Queen(Colour.BLUE).directions;
+
+    /** First pawn step that takes a piece, the earlier steps only move forward **/
+    static final int FIRST_PAWN_CAPTURE_STEP = 2;
+
+    static final long[] KNIGHT_TARGETS = new long[SIZE * 2];
+    static final long[] KNIGHT_ATTACKERS = new long[SIZE * 2];
+    static final long[] KING_TARGETS = new long[SIZE * 2];
+    static final long[] KING_ATTACKERS = new long[SIZE * 2];
+    static final long[] PAWN_CAPTURES = new long[COLOURS * SIZE * 2];
+    static final long[] PAWN_ATTACKERS = new long[COLOURS * SIZE * 2];
+    static final long[] DIAGONAL_RAYS = new long[SIZE * 2];
+    static final long[] DIAGONAL_SOURCES = new long[SIZE * 2];
+    static final long[] ORTHOGONAL_RAYS = new long[SIZE * 2];
+    static final long[] ORTHOGONAL_SOURCES = new long[SIZE * 2];
+
+    static {
+        for (int from = 0; from < SIZE; from++) {
+            for (Direction[] step : KNIGHT_STEPS) {
+                addTarget(KNIGHT_TARGETS, KNIGHT_ATTACKERS, 0, from, MovementUtil.step(from, step, false, null));
+            }
+            for (Direction[] step : KING_STEPS) {
+                addTarget(KING_TARGETS, KING_ATTACKERS, 0, from, MovementUtil.step(from, step, false, null));
+            }
+            for (Colour colour : Colour.values()) {
+                for (int i = FIRST_PAWN_CAPTURE_STEP; i < PAWN_STEPS.length; i++) {
+                    addTarget(PAWN_CAPTURES, PAWN_ATTACKERS, colour.ordinal() * SIZE, from,
+                            MovementUtil.step(from, PAWN_STEPS[i], false, colour));
+                }
+            }
+            for (Direction[] step : BISHOP_STEPS) {
+                addRay(DIAGONAL_RAYS, DIAGONAL_SOURCES, from, step);
+            }
+            for (Direction[] step : ROOK_STEPS) {
+                addRay(ORTHOGONAL_RAYS, ORTHOGONAL_SOURCES, from, step);
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    private static void addTarget(long[] targets, long[] attackers, int offset, int from, int to) {
+        if (to == OFF_BOARD) {
+            return;
+        }
+        set(targets, offset + from, to);
+        set(attackers, offset + to, from);
+    }
+
+    /**
+     * Adds every polygon the ray could reach on an empty board, which is the most any
+     * occupancy lets it reach.
+     */
+    private static void addRay(long[] rays, long[] sources, int from, Direction[] step) {
+        int tmp = MovementUtil.step(from, step, false, null);
+        for (int length = 0; tmp != OFF_BOARD && length < SIZE; length++) {
+            set(rays, from, tmp);
+            set(sources, tmp, from);
+            tmp = MovementUtil.step(tmp, step, section(tmp) != section(from), null);
+        }
+    }
+
+    private static void set(long[] table, int entry, int index) {
+        table[entry * 2 + (index >>> 6)] |= 1L << index;
+    }
+
+    static boolean contains(long[] table, int entry, int index) {
+        return (table[entry * 2 + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    static int section(int index) {
+        return index >> 5;
+    }
+
+    /**
+     * Steps of the sliding piece types
+     * @param type ROOK, BISHOP or QUEEN
+     * @return steps of the piece in the order its rays are walked
+     */
+    static Direction[][] sliderSteps(PieceType type) {
+        switch (type) {
+            case BISHOP: return BISHOP_STEPS;
+            case ROOK: return ROOK_STEPS;
+            default: return QUEEN_STEPS;
+        }
+    }
+
+    /**
+     * Rays of bishops and queens stop at a polygon an earlier ray of the same piece already
+     * reached, rook rays only stop at pieces.
+     * @param type ROOK, BISHOP or QUEEN
+     * @return boolean
+     */
+    static boolean stopsOnVisited(PieceType type) {
+        return type != PieceType.ROOK;
+    }
+
+    /**
+     * Walks the rays of a sliding piece on the board the same way its getHighlightPolygons does,
+     * passing empty polygons and walls of its own colour, and stops as soon as the target is reached.
+     * The target counts as reached whatever stands on it.
+     * @param board the board
+     * @param from polygon index of the sliding piece
+     * @param type ROOK, BISHOP or QUEEN
+     * @param colour colour of the sliding piece
+     * @param target polygon index to look for, -1 to walk all rays
+     * @param reach array of two words collecting every polygon a ray arrives at, may be null
+     * @return true if the target is reached
+     */
+    static boolean slide(BitBoard board, int from, PieceType type, Colour colour, int target, long[] reach) {
+        Direction[][] steps = sliderSteps(type);
+        boolean stopsOnVisited = stopsOnVisited(type);
+        int section = section(from);
+        // polygons that stop a ray: every piece except the walls of the sliding piece's own colour
+        long blockingLo = board.getOccupiedBits(0) & ~board.getPieceBits(PieceType.WALL, colour, 0);
+        long blockingHi = board.getOccupiedBits(1) & ~board.getPieceBits(PieceType.WALL, colour, 1);
+        long visitedLo = 0;
+        long visitedHi = 0;
+        long blockedLo = 0;
+        long blockedHi = 0;
+        for (Direction[] step : steps) {
+            int tmp = MovementUtil.step(from, step, false, null);
+            while (tmp != OFF_BOARD) {
+                long bit = 1L << tmp;
+                boolean low = tmp < 64;
+                if (stopsOnVisited && ((low ? visitedLo : visitedHi) & bit) != 0) {
+                    break;
+                }
+                if (tmp == target) {
+                    return true;
+                }
+                if (((low ? blockingLo : blockingHi) & bit) != 0) {
+                    if (low) {
+                        blockedLo |= bit;
+                    } else {
+                        blockedHi |= bit;
+                    }
+                    break;
+                }
+                if (low) {
+                    visitedLo |= bit;
+                } else {
+                    visitedHi |= bit;
+                }
+                tmp = MovementUtil.step(tmp, step, section(tmp) != section, null);
+            }
+        }
+        if (reach != null) {
+            reach[0] |= visitedLo | blockedLo;
+            reach[1] |= visitedHi | blockedHi;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a piece of the colour could take a piece of another colour standing on the target.
+     * Works backwards from the target: knights, kings and pawns through the reverse pattern tables,
+     * sliding pieces only if their empty-board rays pass the target. Jesters and walls never attack.
+     * @param board the board
+     * @param target polygon index
+     * @param byColour colour of the attacking pieces
+     * @return boolean
+     */
+    static boolean isAttacked(BitBoard board, int target, Colour byColour) {
+        int entry = target * 2;
+        int pawnEntry = (byColour.ordinal() * SIZE + target) * 2;
+        for (int word = 0; word < 2; word++) {
+            if ((KNIGHT_ATTACKERS[entry + word] & board.getPieceBits(PieceType.KNIGHT, byColour, word)) != 0
+                    || (KING_ATTACKERS[entry + word] & board.getPieceBits(PieceType.KING, byColour, word)) != 0
+                    || (PAWN_ATTACKERS[pawnEntry + word] & board.getPieceBits(PieceType.PAWN, byColour, word)) != 0) {
+                return true;
+            }
+        }
+        long lo = sliderCandidates(board, entry, byColour, 0);
+        long hi = sliderCandidates(board, entry, byColour, 1);
+        for (int from = BitBoard.nextSetBit(lo, hi, 0); from >= 0; from = BitBoard.nextSetBit(lo, hi, from + 1)) {
+            if (slide(board, from, board.getType(from), byColour, target, null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long sliderCandidates(BitBoard board, int entry, Colour byColour, int word) {
+        long queens = board.getPieceBits(PieceType.QUEEN, byColour, word);
+        return (DIAGONAL_SOURCES[entry + word] & (board.getPieceBits(PieceType.BISHOP, byColour, word) | queens))
+                | (ORTHOGONAL_SOURCES[entry + word] & (board.getPieceBits(PieceType.ROOK, byColour, word) | queens));
+    }
+
+    /**
+     * Collects every polygon isAttacked would report for the colour
+     * @param board the board
+     * @param byColour colour of the attacking pieces
+     * @param attacks array of two words to fill
+     */
+    static void collectAttacks(BitBoard board, Colour byColour, long[] attacks) {
+        attacks[0] = 0;
+        attacks[1] = 0;
+        for (int from = board.next(byColour, 0); from >= 0; from = board.next(byColour, from + 1)) {
+            int entry = from * 2;
+            switch (board.getType(from)) {
+                case KNIGHT:
+                    attacks[0] |= KNIGHT_TARGETS[entry];
+                    attacks[1] |= KNIGHT_TARGETS[entry + 1];
+                    break;
+                case KING:
+                    attacks[0] |= KING_TARGETS[entry];
+                    attacks[1] |= KING_TARGETS[entry + 1];
+                    break;
+                case PAWN:
+                    int pawnEntry = (byColour.ordinal() * SIZE + from) * 2;
+                    attacks[0] |= PAWN_CAPTURES[pawnEntry];
+                    attacks[1] |= PAWN_CAPTURES[pawnEntry + 1];
+                    break;
+                case BISHOP:
+                case ROOK:
+                case QUEEN:
+                    slide(board, from, board.getType(from), byColour, -1, attacks);
+                    break;
+                default: // jesters and walls never attack
+                    break;
+            }
+        }
+    }
+}
@@ -2,9 +2,9 @@ package model;
 
 import common.Colour;
 import common.Direction;
+import common.PieceType;
 import common.Position;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -15,6 +15,7 @@ import java.util.Set;
 public abstract class BasePiece {
 
     private static final String TAG = "BasePiece";
+    private static final Position[] POSITIONS = Position.values();
 
     protected Colour colour; // colour of the chess piece [Red, Green, Blue]
     protected Direction[][] directions; // List of possible directions a piece can move. [Left, Right, Forward, Backward]
@@ -34,20 +35,38 @@ public abstract class BasePiece {
     protected abstract void setupDirections();
 
     /**
-     * Fetch all the positions of the wall
+     * Check if a wall stands on the position. A BitBoard answers from its wall bits,
+     * which are kept up to date as pieces move, other maps by a single lookup.
      * @param boardMap: Board Map representing current game board
-     * @return map of piece and positions
+     * @param position: position to check, may be null
+     * @return boolean
      * */
-    protected Map<BasePiece, Position> getWallPieceMapping(Map<Position, BasePiece> boardMap) {
-        Map<BasePiece, Position> res = new HashMap<>();
-        for(Position pos: boardMap.keySet()) {
-            BasePiece piece = boardMap.get(pos);
-            if(piece instanceof Wall) {
-                res.put(piece, pos);
-            }
+    protected static boolean isWall(Map<Position, BasePiece> boardMap, Position position) {
+        if(position == null) {
+            return false;
+        }
+        if(boardMap instanceof BitBoard) {
+            return ((BitBoard) boardMap).isWall(position.ordinal());
         }
+        return boardMap.get(position) instanceof Wall;
+    }
 
-        return res;
+    /**
+     * Remove all the positions of walls from a set of positions
+     * @param boardMap: Board Map representing current game board
+     * @param positionSet: positions to filter
+     * */
+    protected static void removeWallPositions(Map<Position, BasePiece> boardMap, Set<Position> positionSet) {
+        if(boardMap instanceof BitBoard) {
+            BitBoard bitBoard = (BitBoard) boardMap;
+            long lo = bitBoard.getTypeBits(PieceType.WALL, 0);
+            long hi = bitBoard.getTypeBits(PieceType.WALL, 1);
+            for(int index = BitBoard.nextSetBit(lo, hi, 0); index >= 0; index = BitBoard.nextSetBit(lo, hi, index + 1)) {
+                positionSet.remove(POSITIONS[index]);
+            }
+        } else {
+            positionSet.removeIf(position -> boardMap.get(position) instanceof Wall);
+        }
     }
 
     /**
@@ -58,6 +77,11 @@ public abstract class BasePiece {
      * */
     public abstract Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start);
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    public abstract PieceType getType();
+
     /**
      * @return Colour of the chess piece
      * */
@@ -0,0 +1,383 @@
+package model;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bitboard backend for the 96 polygon board. Pieces are stored in an array indexed by
+ * Position.ordinal() and the occupancy of every colour and every piece type is kept as a
+ * 96-bit set made of two longs: bits 0-63 in word 0 and bits 64-95 in word 1.
+ * The class implements Map, so code written against the board map keeps working on it
+ * while rules queries can use the bit sets directly. The Zobrist key of the pieces and the
+ * piece-square score of every colour are updated along with the bit sets.
+ */
+public class BitBoard extends AbstractMap<Position, BasePiece> {
+
+    /** Number of polygons on the board **/
+    public static final int SIZE = 96;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final int COLOURS = Colour.values().length;
+    private static final int TYPES = PieceType.values().length;
+
+    private final BasePiece[] squares; // piece on each polygon, null if empty
+    private final PieceType[] types; // type of the piece on each polygon, read without calling the piece
+    private final long[] colourBits; // two words per colour
+    private final long[] typeBits; // two words per piece type
+    private int size;
+    private long pieceKey; // exclusive or of the Zobrist keys of the pieces
+    private final int[] scores; // sum of the piece-square values per colour
+    private int modCount; // incremented on every change of a polygon
+    private Set<Map.Entry<Position, BasePiece>> entrySet;
+
+    /**
+     * BitBoard constructor. Creates an empty board
+     * */
+    public BitBoard() {
+        squares = new BasePiece[SIZE];
+        types = new PieceType[SIZE];
+        colourBits = new long[COLOURS * 2];
+        typeBits = new long[TYPES * 2];
+        scores = new int[COLOURS];
+    }
+
+    /**
+     * BitBoard copy constructor. The pieces are shared, the bit sets are copied
+     * @param other board to copy
+     * */
+    public BitBoard(BitBoard other) {
+        squares = other.squares.clone();
+        types = other.types.clone();
+        colourBits = other.colourBits.clone();
+        typeBits = other.typeBits.clone();
+        size = other.size;
+        pieceKey = other.pieceKey;
+        scores = other.scores.clone();
+    }
+
+    /**
+     * BitBoard constructor. Copies the pieces of any board map
+     * @param boardMap map of position and piece to copy
+     * */
+    public BitBoard(Map<Position, BasePiece> boardMap) {
+        this();
+        putAll(boardMap);
+    }
+
+    /**
+     * Test a polygon index against a 96-bit set
+     * @param lo word holding indexes 0-63
+     * @param hi word holding indexes 64-95
+     * @param index polygon index
+     * @return boolean
+     * */
+    public static boolean contains(long lo, long hi, int index) {
+        return ((index < 64 ? lo : hi) & (1L << index)) != 0;
+    }
+
+    /**
+     * Find the lowest set bit at or after the given index in a 96-bit set
+     * @param lo word holding indexes 0-63
+     * @param hi word holding indexes 64-95
+     * @param from first index to consider
+     * @return index of the set bit, -1 if there is none
+     * */
+    public static int nextSetBit(long lo, long hi, int from) {
+        if (from < 64) {
+            long word = lo & (-1L << from);
+            if (word != 0) {
+                return Long.numberOfTrailingZeros(word);
+            }
+            from = 64;
+        }
+        if (from < SIZE) {
+            long word = hi & (-1L << from);
+            if (word != 0) {
+                return 64 + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the piece on a polygon
+     * @param index polygon index, Position.ordinal()
+     * @return BasePiece or null if the polygon is empty
+     * */
+    public BasePiece get(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Get the type of the piece on a polygon
+     * @param index polygon index, Position.ordinal()
+     * @return PieceType, null if the polygon is empty
+     * */
+    public PieceType getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Check if a polygon holds a piece
+     * @param index polygon index, Position.ordinal()
+     * @return boolean
+     * */
+    public boolean isOccupied(int index) {
+        return squares[index] != null;
+    }
+
+    /**
+     * Checks if a wall of any colour stands on the polygon, reading the wall bits
+     * @param index polygon index, Position.ordinal()
+     * @return boolean
+     */
+    public boolean isWall(int index) {
+        return (typeBits[PieceType.WALL.ordinal() * 2 + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Occupancy word of all pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the occupied polygons
+     * */
+    public long getOccupiedBits(int word) {
+        long bits = 0;
+        for (int c = 0; c < COLOURS; c++) {
+            bits |= colourBits[c * 2 + word];
+        }
+        return bits;
+    }
+
+    /**
+     * Occupancy word of one colour
+     * @param colour colour of the pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the polygons holding a piece of the colour
+     * */
+    public long getColourBits(Colour colour, int word) {
+        return colourBits[colour.ordinal() * 2 + word];
+    }
+
+    /**
+     * Occupancy word of one piece type, all colours
+     * @param type type of the pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the polygons holding a piece of the type
+     * */
+    public long getTypeBits(PieceType type, int word) {
+        return typeBits[type.ordinal() * 2 + word];
+    }
+
+    /**
+     * Occupancy word of one piece type of one colour
+     * @param type type of the pieces
+     * @param colour colour of the pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the polygons holding a piece of the type and colour
+     * */
+    public long getPieceBits(PieceType type, Colour colour, int word) {
+        return typeBits[type.ordinal() * 2 + word] & colourBits[colour.ordinal() * 2 + word];
+    }
+
+    /**
+     * Find the next occupied polygon
+     * @param from first index to consider
+     * @return polygon index, -1 if there is none
+     * */
+    public int nextOccupied(int from) {
+        return nextSetBit(getOccupiedBits(0), getOccupiedBits(1), from);
+    }
+
+    /**
+     * Find the next polygon holding a piece of the colour
+     * @param colour colour of the pieces
+     * @param from first index to consider
+     * @return polygon index, -1 if there is none
+     * */
+    public int next(Colour colour, int from) {
+        int c = colour.ordinal() * 2;
+        return nextSetBit(colourBits[c], colourBits[c + 1], from);
+    }
+
+    /**
+     * Find the next polygon holding a piece of the type and colour
+     * @param type type of the pieces
+     * @param colour colour of the pieces
+     * @param from first index to consider
+     * @return polygon index, -1 if there is none
+     * */
+    public int next(PieceType type, Colour colour, int from) {
+        return nextSetBit(getPieceBits(type, colour, 0), getPieceBits(type, colour, 1), from);
+    }
+
+    /**
+     * Zobrist key of the pieces on the board, without the colour to move
+     * @return exclusive or of Zobrist.pieceKey of every piece
+     * */
+    public long getPieceKey() {
+        return pieceKey;
+    }
+
+    /**
+     * Piece-square score of a colour
+     * @param colour colour of the pieces
+     * @return sum of PieceSquareTable.value of the pieces of the colour
+     * */
+    public int getScore(Colour colour) {
+        return scores[colour.ordinal()];
+    }
+
+    /**
+     * Counter of changes made to the board, used to detect stale derived data
+     * @return number of polygon changes so far
+     * */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Place a piece on a polygon, replacing the piece already there
+     * @param index polygon index, Position.ordinal()
+     * @param piece piece to place, null empties the polygon
+     * @return the piece previously on the polygon
+     * */
+    public BasePiece put(int index, BasePiece piece) {
+        BasePiece previous = squares[index];
+        if (previous != null) {
+            clearBits(index, previous);
+            size--;
+        }
+        squares[index] = piece;
+        types[index] = null;
+        if (piece != null) {
+            setBits(index, piece);
+            size++;
+        }
+        modCount++;
+        return previous;
+    }
+
+    private void setBits(int index, BasePiece piece) {
+        long bit = 1L << index;
+        int word = index >>> 6;
+        PieceType type = piece.getType();
+        types[index] = type;
+        colourBits[piece.getColour().ordinal() * 2 + word] |= bit;
+        typeBits[type.ordinal() * 2 + word] |= bit;
+        pieceKey ^= Zobrist.pieceKey(index, type, piece.getColour());
+        scores[piece.getColour().ordinal()] += PieceSquareTable.value(index, type, piece.getColour());
+    }
+
+    private void clearBits(int index, BasePiece piece) {
+        long bit = ~(1L << index);
+        int word = index >>> 6;
+        colourBits[piece.getColour().ordinal() * 2 + word] &= bit;
+        typeBits[types[index].ordinal() * 2 + word] &= bit;
+        pieceKey ^= Zobrist.pieceKey(index, types[index], piece.getColour());
+        scores[piece.getColour().ordinal()] -= PieceSquareTable.value(index, types[index], piece.getColour());
+    }
+
+    /**     Map implementation **/
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Position && squares[((Position) key).ordinal()] != null;
+    }
+
+    @Override
+    public BasePiece get(Object key) {
+        return key instanceof Position ? squares[((Position) key).ordinal()] : null;
+    }
+
+    /**
+     * Place a piece on a position. Putting null empties the position, the board never
+     * holds a mapping without a piece.
+     * @param position position on board
+     * @param piece piece to place
+     * @return the piece previously on the position
+     * */
+    @Override
+    public BasePiece put(Position position, BasePiece piece) {
+        return put(position.ordinal(), piece);
+    }
+
+    @Override
+    public BasePiece remove(Object key) {
+        return key instanceof Position ? put(((Position) key).ordinal(), null) : null;
+    }
+
+    @Override
+    public void clear() {
+        for (int index = nextOccupied(0); index >= 0; index = nextOccupied(index + 1)) {
+            put(index, null);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<Position, BasePiece>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Map.Entry<Position, BasePiece>>() {
+                @Override
+                public Iterator<Map.Entry<Position, BasePiece>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterates the occupied polygons in index order
+     * */
+    private class EntryIterator implements Iterator<Map.Entry<Position, BasePiece>> {
+        private int next = nextOccupied(0);
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public Map.Entry<Position, BasePiece> next() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = nextOccupied(next + 1);
+            return new SimpleImmutableEntry<>(POSITIONS[last], squares[last]);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            put(last, null);
+            last = -1;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableSet;
 import common.Colour;
 import common.InvalidMoveException;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
 import utility.BoardAdapter;
 import utility.Log;
@@ -11,8 +12,6 @@ import utility.PieceFactory;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.HashMap;
-import java.util.HashSet;
 
 /**
  * Class containing the Board logic. To initialize the board with the pieces.
@@ -22,19 +21,28 @@ import java.util.HashSet;
 public class Board {
 
     private static final String TAG = "Board";
-    
-    /** A map from board positions to the pieces at that position **/
-    protected Map<Position, BasePiece> boardMap;
+    private static final Position[] POSITIONS = Position.values();
+
+    /** A map from board positions to the pieces at that position, backed by bit sets **/
+    protected BitBoard boardMap;
     private Colour turn;
     private boolean gameOver;
     private String winner;
-    private Set<Position> highlightPolygons = new HashSet<>();
+    private long version;
+    private final LegalMoveGenerator legalMoveGenerator;
+    // legal moves of each colour: for every start polygon the bits of its end polygons
+    private final long[] legalMoves = new long[Colour.values().length * BitBoard.SIZE * 2];
+    private final int[] legalMovesModCount = {-1, -1, -1};
+    private final long[] attackMaps = new long[Colour.values().length * 2];
+    private final int[] attackMapModCount = {-1, -1, -1};
+    private final long[] attackMapBuffer = new long[2];
 
     /**
      * Board constructor. Places pieces on the board and initializes variables
      * */
     public Board(){
-        boardMap = new HashMap<Position,BasePiece>();
+        boardMap = new BitBoard();
+        legalMoveGenerator = new LegalMoveGenerator(this);
         turn = Colour.BLUE;
         gameOver = false;
         winner = null;
@@ -48,6 +56,33 @@ public class Board {
         }
     }
 
+    /**
+     * Board constructor for a given position
+     * @param pieces map of position and piece to place on the board
+     * @param turn colour to move
+     * */
+    public Board(Map<Position, BasePiece> pieces, Colour turn) {
+        boardMap = new BitBoard(pieces);
+        legalMoveGenerator = new LegalMoveGenerator(this);
+        this.turn = turn;
+        gameOver = false;
+        winner = null;
+    }
+
+    /**
+     * Board copy constructor. The copy shares the pieces but moves independently,
+     * so searches can run on copies in parallel
+     * @param other board to copy
+     * */
+    public Board(Board other) {
+        boardMap = new BitBoard(other.boardMap);
+        legalMoveGenerator = new LegalMoveGenerator(this);
+        turn = other.turn;
+        gameOver = other.gameOver;
+        winner = other.winner;
+        version = other.version;
+    }
+
     /**
      * Place all the pieces on the board initially at start positions
      * @param colour for each color place the pieces
@@ -108,6 +143,15 @@ public class Board {
         return winner;
     }
 
+    /**
+     * Version of the board as played, counting the moves made with move. Moves made and taken back
+     * in place, as searches do, leave it alone.
+     * @return the version, 0 for the board as set up
+     * */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Called to move a piece from one position to another
      * @param start The start position
@@ -115,54 +159,148 @@ public class Board {
      * */
     public void move(Position start, Position end) throws InvalidMoveException, InvalidPositionException {
         if(isLegalMove(start, end)) {
-            BasePiece mover = boardMap.get(start);
-            BasePiece taken = boardMap.get(end);
-            boardMap.remove(start);  //empty start polygon
-
-            if(mover instanceof Pawn && end.getRow()==0 && end.getColour()!=mover.getColour()){
-                boardMap.put(end, new Queen(mover.getColour()));  //promote pawn
-            } else {
-                boardMap.put(end,mover);  //move piece
-            }
-
-            if(mover instanceof King && start.getColumn()==4 && start.getRow()==0) {
-                if(end.getColumn()==2) {//castle left, update rook
-                    Position rookPos = Position.get(mover.getColour(),0,0);
-                    boardMap.put(Position.get(mover.getColour(),0,3), boardMap.get(rookPos));
-                    boardMap.remove(rookPos);
-                }else if(end.getColumn()==6){//castle right, update rook
-                    Position rookPos = Position.get(mover.getColour(),0,7);
-                    boardMap.put(Position.get(mover.getColour(),0,5), boardMap.get(rookPos));
-                    boardMap.remove(rookPos);
-                }
-            }
-
-            if(taken !=null){
-                // jester switch position with other piece
-                if (mover instanceof Jester){
-                    // switch places
-                    boardMap.put(end,mover);
-                    boardMap.put(start, taken);
-                }
-            }
+            UndoRecord record = makeMove(start, end);
+            BasePiece mover = record.getMover();
+            version++;
 
             for(Colour c: Colour.values()) {
-                if(c!=turn) {
-                    if(isCheckMate(c, boardMap)) {
+                if(c!=record.getPreviousTurn()) {
+                    if(isCheckMate(c)) {
                         gameOver = true;
                         winner = mover.getColour().toString();
                     }
                 }
             }
-
-            turn = Colour.values()[(turn.ordinal()+1)%3];
         } else {
             throw new InvalidMoveException("Illegal Move: "+start+"-"+end);
         }
     }
 
     /**
-     * Checks if the piece can move from start to end positions
+     * Makes a move in place without checking its legality and passes the turn on.
+     * Captures, jester swaps, castling and pawn promotion are applied as in move.
+     * @param start The start position, must hold a piece
+     * @param end The end position
+     * @return record to take the move back with unmakeMove
+     * */
+    public UndoRecord makeMove(Position start, Position end) {
+        return makeMove(start, end, new UndoRecord());
+    }
+
+    /**
+     * Makes a move in place without checking its legality and passes the turn on.
+     * @param start The start position, must hold a piece
+     * @param end The end position
+     * @param record record to fill, reused to avoid an allocation per move
+     * @return the filled record to take the move back with unmakeMove
+     * */
+    public UndoRecord makeMove(Position start, Position end, UndoRecord record) {
+        BasePiece mover = boardMap.get(start);
+        if(mover == null) {
+            throw new IllegalArgumentException("No piece to move on "+start);
+        }
+        BasePiece taken = boardMap.get(end);
+        boardMap.remove(start);  //empty start polygon
+
+        BasePiece placed = mover;
+        if(mover instanceof Pawn && end.getRow()==0 && end.getColour()!=mover.getColour()){
+            placed = new Queen(mover.getColour());  //promote pawn
+        }
+        boardMap.put(end, placed);  //move piece
+
+        record.start = start;
+        record.end = end;
+        record.mover = mover;
+        record.taken = taken;
+        record.placed = placed;
+        record.rookStart = null;
+        record.rookEnd = null;
+        record.rook = null;
+        record.rookEndPiece = null;
+        record.previousTurn = turn;
+
+        if(mover instanceof King && start.getColumn()==4 && start.getRow()==0) {
+            if(end.getColumn()==2) {//castle left, update rook
+                moveCastlingRook(record, homePosition(mover.getColour(), 0), homePosition(mover.getColour(), 3));
+            }else if(end.getColumn()==6){//castle right, update rook
+                moveCastlingRook(record, homePosition(mover.getColour(), 7), homePosition(mover.getColour(), 5));
+            }
+        }
+
+        if(taken !=null){
+            // jester switch position with other piece
+            if (mover instanceof Jester){
+                // switch places
+                boardMap.put(start, taken);
+            }
+        }
+
+        turn = turn.next();
+        return record;
+    }
+
+    /**
+     * Passes the turn to the next colour without moving a piece, for searches letting a colour skip its turn
+     * @param record record to fill, reused to avoid an allocation per move
+     * @return the filled record to take the pass back with unmakeMove
+     * */
+    public UndoRecord makeNullMove(UndoRecord record) {
+        record.start = null;
+        record.end = null;
+        record.mover = null;
+        record.taken = null;
+        record.placed = null;
+        record.rookStart = null;
+        record.rookEnd = null;
+        record.rook = null;
+        record.rookEndPiece = null;
+        record.previousTurn = turn;
+        turn = turn.next();
+        return record;
+    }
+
+    /**
+     * Places a piece without the rules of a move and without passing the turn on,
+     * e.g. to set up one position after another on the same board
+     * @param position The position
+     * @param piece The piece to place, null empties the position
+     * @return the piece previously on the position
+     * */
+    public BasePiece place(Position position, BasePiece piece) {
+        return boardMap.put(position, piece);
+    }
+
+    private void moveCastlingRook(UndoRecord record, Position rookStart, Position rookEnd) {
+        record.rookStart = rookStart;
+        record.rookEnd = rookEnd;
+        record.rook = boardMap.remove(rookStart);
+        record.rookEndPiece = boardMap.put(rookEnd, record.rook);
+    }
+
+    /**
+     * Takes back a move made with makeMove or makeNullMove, restoring pieces and turn
+     * @param record record returned by makeMove or makeNullMove, must be the last move not yet taken back
+     * */
+    public void unmakeMove(UndoRecord record) {
+        if(record.isNullMove()) {
+            turn = record.previousTurn;
+            return;
+        }
+        if(record.rookStart != null) {
+            boardMap.put(record.rookEnd, record.rookEndPiece);
+            boardMap.put(record.rookStart, record.rook);
+        }
+        boardMap.put(record.start, record.mover);
+        boardMap.put(record.end, record.taken);
+        turn = record.previousTurn;
+    }
+
+    private static Position homePosition(Colour colour, int column) {
+        return POSITIONS[colour.ordinal()*32 + 4*column];
+    }
+
+    /**
+     * Checks if the piece can move from start to end positions, reading the legal moves of its colour
      * @param start The start position
      * @param end The end position
      * @return boolean
@@ -172,23 +310,13 @@ public class Board {
         if(mover == null) {
             return false; // No piece present at start position
         }
-        Colour moverCol = mover.getColour();
-        if(highlightPolygons.isEmpty()) {
-            highlightPolygons = mover.getHighlightPolygons(this.boardMap, start);
-        }
-        if(highlightPolygons.contains(end)) {
-            if(isCheck(turn, boardMap) && isCheckAfterLegalMove(turn, boardMap, start, end)) {
-                Log.d(TAG, "Colour "+moverCol+" is in check, this move doesn't help. Do again!!");
-                return false;
-            } else if(isCheckAfterLegalMove(turn, boardMap, start, end)) {
-                Log.d(TAG, "Colour "+moverCol+" will be in check after this move");
-                return false;
-            } else{
-                return true;
-            }
+        long[] moves = getLegalMoves(mover.getColour());
+        int entry = mover.getColour().ordinal() * BitBoard.SIZE * 2 + start.ordinal() * 2;
+        if(!BitBoard.contains(moves[entry], moves[entry + 1], end.ordinal())) {
+            Log.d(TAG, "Colour "+mover.getColour()+" can't move "+start+"-"+end+(isCheck(mover.getColour()) ? ", in check" : ""));
+            return false;
         }
-
-        return false;
+        return true;
     }
 
     /**
@@ -199,6 +327,33 @@ public class Board {
         return turn;
     }
 
+    /**
+     * Zobrist key of the position: the pieces, kept up to date by every change of the board,
+     * and the colour to move. Equal positions reached by different move orders have equal keys.
+     * @return the 64-bit key
+     * */
+    public long getZobristKey() {
+        return boardMap.getPieceKey() ^ Zobrist.turnKey(turn);
+    }
+
+    /**
+     * Number of pieces on the board, of all colours
+     * @return int
+     * */
+    public int getPieceCount() {
+        return boardMap.size();
+    }
+
+    /**
+     * Piece-square score of a colour: material plus the table entry of every piece,
+     * kept up to date by every change of the board
+     * @param colour colour of the pieces
+     * @return material plus table entry of every piece of the colour
+     * */
+    public int getScore(Colour colour) {
+        return boardMap.getScore(colour);
+    }
+
     /**
      * Get the piece on the selected position
      * @param position The current selected position
@@ -226,17 +381,39 @@ public class Board {
         if(mover == null) {
             return ImmutableSet.of();
         }
-        highlightPolygons = mover.getHighlightPolygons(this.boardMap, position);
+        long[] moves = getLegalMoves(mover.getColour());
+        int entry = mover.getColour().ordinal() * BitBoard.SIZE * 2 + position.ordinal() * 2;
+        long lo = moves[entry];
+        long hi = moves[entry + 1];
+        ImmutableSet.Builder<Position> possibleMoves = ImmutableSet.builder();
+        for(int index = BitBoard.nextSetBit(lo, hi, 0); index >= 0; index = BitBoard.nextSetBit(lo, hi, index + 1)) {
+            possibleMoves.add(POSITIONS[index]);
+        }
+        return possibleMoves.build();
+    }
 
-        Colour moverColour = mover.getColour();
-        Set<Position> nonCheckPositions = new HashSet<>();
-        for(Position endPos: highlightPolygons) {
-            if(!isCheckAfterLegalMove(moverColour, this.boardMap, position, endPos)) {
-                nonCheckPositions.add(endPos);
+    /**
+     * Legal move table shared by the highlights, the move validation and the checkmate detection.
+     * The moves of a colour are generated once and kept until the board changes, so a turn
+     * generates them only once however often it asks.
+     * @param colour colour of the pieces
+     * @return table holding two words per colour and start polygon, bits of the end polygons
+     * */
+    private long[] getLegalMoves(Colour colour) {
+        int c = colour.ordinal();
+        int before = boardMap.getModCount();
+        if(legalMovesModCount[c] != before) {
+            legalMoveGenerator.generate(colour, legalMoves, c * BitBoard.SIZE * 2);
+            // the generator tries moves on the board and takes them back, which counts as changes
+            int after = boardMap.getModCount();
+            for(int i = 0; i < legalMovesModCount.length; i++) {
+                if(legalMovesModCount[i] == before) {
+                    legalMovesModCount[i] = after;
+                }
             }
+            legalMovesModCount[c] = after;
         }
-
-        return nonCheckPositions;
+        return legalMoves;
     }
 
     /**
@@ -251,64 +428,94 @@ public class Board {
 
     /**     Check / Check-mate logic helper functions **/
 
-    private boolean isCheck(Colour colour, Map<Position, BasePiece> boardMap) {
-        Position kingPosition = getKingPosition(colour, boardMap);
-
-        for(Position position: boardMap.keySet()) {
-            BasePiece piece = boardMap.get(position);
-            // wall and jester piece have no power to take out any piece
-            if(piece.getColour() != colour && !(piece instanceof Jester) && !(piece instanceof Wall)) {
-                Set<Position> possibleTargetPositions = piece.getHighlightPolygons(boardMap, position);
-                if(possibleTargetPositions.contains(kingPosition)) {
-                    Log.d(TAG, "Piece "+piece+" is attacking King of colour "+colour);
-                    return true;
-                }
-            }
+    /**
+     * Checks if the king of the colour is attacked by any other colour
+     * @param colour colour of the king
+     * @return boolean, false if the colour has no king on the board
+     * */
+    public boolean isCheck(Colour colour) {
+        Position kingPosition = getKingPosition(colour);
+        if(kingPosition == null) {
+            return false;
         }
-        return false;
+        Colour next = colour.next();
+        return isSquareAttacked(kingPosition, next) || isSquareAttacked(kingPosition, next.next());
     }
 
-    private boolean isCheckMate(Colour colour, Map<Position, BasePiece> boardMap) {
-        if(!isCheck(colour, boardMap)) {
-            return false;
-        }
+    /**
+     * Checks if a piece of the given colour could take a piece of another colour standing on the position.
+     * Works backwards from the position through precomputed knight, king and pawn patterns and
+     * the slider rays passing it, instead of generating the moves of every enemy piece.
+     * Jesters and walls never attack.
+     * @param position the position to test
+     * @param byColour colour of the attacking pieces
+     * @return boolean
+     * */
+    public boolean isSquareAttacked(Position position, Colour byColour) {
+        return AttackTables.isAttacked(boardMap, position.ordinal(), byColour);
+    }
 
-        for(Position position: boardMap.keySet()) {
-            BasePiece piece = boardMap.get(position);
-            if(piece.getColour()==colour) {
-                Set<Position> possibleMoves = piece.getHighlightPolygons(boardMap, position);
-                for(Position endPos: possibleMoves) {
-                    if(!isCheckAfterLegalMove(colour, boardMap, position, endPos)) {
-                        Log.d(TAG, "Piece "+piece+" can help colour "+colour+" to come out of check: st: "+position+", end: "+endPos);
-                        return false;
-                    }
-                }
-            }
+    /**
+     * Attack map of a colour, all positions isSquareAttacked reports for it. The maps are kept
+     * per colour and rebuilt only after the board has changed.
+     * @param byColour colour of the attacking pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the attacked polygons
+     * */
+    public long getAttackBits(Colour byColour, int word) {
+        int c = byColour.ordinal();
+        if(attackMapModCount[c] != boardMap.getModCount()) {
+            AttackTables.collectAttacks(boardMap, byColour, attackMapBuffer);
+            attackMaps[c * 2] = attackMapBuffer[0];
+            attackMaps[c * 2 + 1] = attackMapBuffer[1];
+            attackMapModCount[c] = boardMap.getModCount();
         }
+        return attackMaps[c * 2 + word];
+    }
 
-        return true;
+    /**
+     * Occupancy word of the pieces of one type and colour, read from the bit sets of the board
+     * @param type type of the pieces
+     * @param colour colour of the pieces
+     * @param word 0 for indexes 0-63, 1 for indexes 64-95
+     * @return bits of the polygons holding a piece of the type and colour
+     * */
+    public long getPieceBits(PieceType type, Colour colour, int word) {
+        return boardMap.getPieceBits(type, colour, word);
     }
 
-    private boolean isCheckAfterLegalMove(Colour colour, Map<Position, BasePiece> boardMap, Position start, Position end) {
-        Map<Position, BasePiece> copyBoardMap = new HashMap<>(boardMap);
-        BasePiece piece = copyBoardMap.get(start);
-        copyBoardMap.remove(start);
-        copyBoardMap.put(end, piece);
+    /**
+     * Type of the piece on a position, read from the board without calling the piece
+     * @param position position on board
+     * @return PieceType, null if the position is empty
+     * */
+    public PieceType getPieceType(Position position) {
+        return boardMap.getType(position.ordinal());
+    }
+
+    /**
+     * Position of the king of the colour, read from the king bits kept up to date on every move
+     * @param colour colour of the king
+     * @return Position, null if the colour has no king on the board
+     * */
+    public Position getKingPosition(Colour colour) {
+        int index = boardMap.next(PieceType.KING, colour, 0);
+        return index >= 0 ? POSITIONS[index] : null;
+    }
 
-        if(!isCheck(colour, copyBoardMap)) {
+    private boolean isCheckMate(Colour colour) {
+        if(!isCheck(colour)) {
             return false;
         }
 
-        return true;
-    }
-
-    private Position getKingPosition(Colour colour, Map<Position, BasePiece> boardMap) {
-        for(Position position: boardMap.keySet()) {
-            BasePiece piece = boardMap.get(position);
-            if(piece instanceof King && piece.getColour()==colour) {
-                return position;
+        long[] moves = getLegalMoves(colour);
+        int offset = colour.ordinal() * BitBoard.SIZE * 2;
+        for(int index = offset; index < offset + BitBoard.SIZE * 2; index++) {
+            if(moves[index] != 0) {
+                return false; // a piece can help the colour to come out of check
             }
         }
-        return null;
+
+        return true;
     }
 }
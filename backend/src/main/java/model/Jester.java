@@ -1,6 +1,7 @@
 package model;
 
 import common.Colour;
+import common.PieceType;
 
 /**
  * Moves like a knight. It cannot take a piece, however others can take it out.
@@ -16,6 +17,14 @@ public class Jester extends Knight {
         super(colour);
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.JESTER;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
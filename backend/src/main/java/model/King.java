@@ -3,18 +3,17 @@ package model;
 import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
 import utility.Log;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -66,25 +65,22 @@ public class King extends BasePiece {
      * */
     @Override
     public Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start) {
-        Collection<Position> wallPiecePositions = getWallPieceMapping(boardMap).values();
         Set<Position> positionSet = new HashSet<>();
         BasePiece mover = this;
         Direction[][] steps = this.directions;
 
         for (Direction[] step : steps) {
             Position end = stepOrNull(mover, step, start);
-            if(wallPiecePositions.contains(end) || positionSet.contains(end)) {
+            if(isWall(boardMap, end) || positionSet.contains(end)) {
                 continue;
             }
 
             if (end != null) {
                 if(boardMap.get(end)!=null) {
                     if(boardMap.get(end).getColour()!=mover.getColour()) {
-                        Log.d(TAG, "position enemy: " + end);
                         positionSet.add(end);
                     }
                 } else {
-                    Log.d(TAG, "position: "+end);
                     positionSet.add(end);
                 }
             }
@@ -143,6 +139,14 @@ public class King extends BasePiece {
         return false;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.KING;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
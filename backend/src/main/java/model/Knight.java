@@ -3,15 +3,13 @@ package model;
 import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
-import utility.Log;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -54,7 +52,6 @@ public class Knight extends BasePiece {
      * */
     @Override
     public Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start) {
-        Collection<Position> wallPiecePositions = getWallPieceMapping(boardMap).values();
         Set<Position> positionSet = new HashSet<>();
         BasePiece mover = this;
         Direction[][] steps = this.directions;
@@ -62,7 +59,7 @@ public class Knight extends BasePiece {
         for(Direction[] step: steps) {
             Position end = stepOrNull(mover, step, start);
 
-            if(positionSet.contains(end) || wallPiecePositions.contains(end)) {
+            if(positionSet.contains(end) || isWall(boardMap, end)) {
                 continue;
             }
 
@@ -71,11 +68,9 @@ public class Knight extends BasePiece {
 
                 if(target!=null) {
                     if(target.getColour()!=mover.getColour()) {
-                        Log.d(TAG, "position enemy: "+end);
                         positionSet.add(end);
                     }
                 } else {
-                    Log.d(TAG, "position: "+end);
                     positionSet.add(end);
                 }
             }
@@ -84,6 +79,14 @@ public class Knight extends BasePiece {
         return positionSet;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.KNIGHT;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
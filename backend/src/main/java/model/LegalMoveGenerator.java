@@ -0,0 +1,501 @@
+package model;
+
+import common.Colour;
+import common.Direction;
+import common.PieceType;
+import common.Position;
+import utility.MovementUtil;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static utility.MovementUtil.INDEX_MASK;
+import static utility.MovementUtil.OFF_BOARD;
+
+/**
+ * Generates the fully legal moves of a colour in one pass over the board. The pieces and the
+ * danger zone around the king are worked out once per call, so only the moves that could
+ * expose the king are played and tested on the board. The moves are the same as the ones
+ * Board.getPossibleMoves finds for every piece.
+ * <p>
+ * A move is packed into an int as from * 128 + to, with the polygon indexes of Position.ordinal().
+ */
+public class LegalMoveGenerator {
+
+    /** Enough room for the moves of all the pieces of one colour **/
+    public static final int MAX_MOVES = 16 * BitBoard.SIZE;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final int KING_COLUMN = 4;
+    /** Row 1 of the sections of the other colours per colour, where its pawns promote **/
+    private static final long[] PROMOTION_ROWS = new long[Colour.values().length * 2];
+
+    static {
+        for(Position position: POSITIONS) {
+            if(position.getRow() != 0) {
+                continue;
+            }
+            for(Colour colour: Colour.values()) {
+                if(position.getColour() != colour) {
+                    int index = position.ordinal();
+                    PROMOTION_ROWS[colour.ordinal() * 2 + (index >>> 6)] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    private final Board board;
+    private final BitBoard boardMap;
+    private final UndoRecord record = new UndoRecord();
+    private final long[] targets = new long[2];
+    private final long[] reach = new long[2];
+    private final int[] pieces = new int[BitBoard.SIZE]; // start polygons left to try for a random move
+
+    // worked out once per call for the colour to move
+    private int king;
+    private long leaperCheckersLo; // knights, kings and pawns attacking the king
+    private long leaperCheckersHi;
+    private int sliderCount; // enemy sliding pieces with the king on an empty board ray
+    private final int[] sliders = new int[BitBoard.SIZE];
+    private final long[] sliderReach = new long[BitBoard.SIZE * 2];
+    private final boolean[] sliderChecks = new boolean[BitBoard.SIZE];
+
+    /**
+     * LegalMoveGenerator constructor
+     * @param board the board to generate moves on, moves are tried on it and taken back
+     * */
+    public LegalMoveGenerator(Board board) {
+        this.board = board;
+        this.boardMap = board.boardMap;
+    }
+
+    /**
+     * @param from polygon index of the start position
+     * @param to polygon index of the end position
+     * @return the packed move
+     * */
+    public static int move(int from, int to) {
+        return (from << 7) | to;
+    }
+
+    /**
+     * @param move packed move
+     * @return polygon index of the start position
+     * */
+    public static int from(int move) {
+        return move >>> 7;
+    }
+
+    /**
+     * @param move packed move
+     * @return polygon index of the end position
+     * */
+    public static int to(int move) {
+        return move & INDEX_MASK;
+    }
+
+    /**
+     * Generates the legal moves of all the pieces of a colour, ordered by start and end position
+     * @param colour colour of the pieces
+     * @param moves array of at least MAX_MOVES packed moves to fill
+     * @return number of moves written
+     * */
+    public int generate(Colour colour, int[] moves) {
+        prepare(colour);
+        int count = 0;
+        for(int from = boardMap.next(colour, 0); from >= 0; from = boardMap.next(colour, from + 1)) {
+            legalTargets(from, colour);
+            long lo = targets[0];
+            long hi = targets[1];
+            for(int to = BitBoard.nextSetBit(lo, hi, 0); to >= 0; to = BitBoard.nextSetBit(lo, hi, to + 1)) {
+                moves[count++] = move(from, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if a colour has a legal move, stopping at the first piece that can move
+     * @param colour colour of the pieces
+     * @return boolean
+     * */
+    public boolean hasLegalMove(Colour colour) {
+        prepare(colour);
+        for(int from = boardMap.next(colour, 0); from >= 0; from = boardMap.next(colour, from + 1)) {
+            legalTargets(from, colour);
+            if((targets[0] | targets[1]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates the legal moves of all the pieces of a colour into a table holding,
+     * for every start polygon, the bits of the end polygons
+     * @param colour colour of the pieces
+     * @param table table to fill, two words per polygon
+     * @param offset index of the first word of the colour's table
+     * */
+    public void generate(Colour colour, long[] table, int offset) {
+        Arrays.fill(table, offset, offset + BitBoard.SIZE * 2, 0L);
+        prepare(colour);
+        for(int from = boardMap.next(colour, 0); from >= 0; from = boardMap.next(colour, from + 1)) {
+            legalTargets(from, colour);
+            table[offset + from * 2] = targets[0];
+            table[offset + from * 2 + 1] = targets[1];
+        }
+    }
+
+    /**
+     * Generates the legal end positions of the piece on a polygon
+     * @param from polygon index of the piece
+     * @param result array of two words to fill, bits of the end positions
+     * */
+    public void generate(int from, long[] result) {
+        BasePiece piece = boardMap.get(from);
+        if(piece == null) {
+            result[0] = 0;
+            result[1] = 0;
+            return;
+        }
+        prepare(piece.getColour());
+        legalTargets(from, piece.getColour());
+        result[0] = targets[0];
+        result[1] = targets[1];
+    }
+
+    /**
+     * Generates the legal moves of a colour that change the material: captures and pawn promotions.
+     * A jester only swaps places with the piece it lands on and a wall can neither take nor be
+     * taken, so neither moves here and no wall is a victim.
+     * @param colour colour of the pieces
+     * @param moves array of at least MAX_MOVES packed moves to fill
+     * @return number of moves written
+     * */
+    public int generateCaptures(Colour colour, int[] moves) {
+        prepare(colour);
+        long victimsLo = boardMap.getOccupiedBits(0) & ~boardMap.getColourBits(colour, 0) & ~boardMap.getTypeBits(PieceType.WALL, 0);
+        long victimsHi = boardMap.getOccupiedBits(1) & ~boardMap.getColourBits(colour, 1) & ~boardMap.getTypeBits(PieceType.WALL, 1);
+        int c = colour.ordinal() * 2;
+        int count = 0;
+        for(int from = boardMap.next(colour, 0); from >= 0; from = boardMap.next(colour, from + 1)) {
+            PieceType type = boardMap.getType(from);
+            if(type == PieceType.JESTER || type == PieceType.WALL) {
+                continue;
+            }
+            if(type == PieceType.PAWN) {
+                legalTargets(from, colour, victimsLo | PROMOTION_ROWS[c], victimsHi | PROMOTION_ROWS[c + 1]);
+            } else {
+                legalTargets(from, colour, victimsLo, victimsHi);
+            }
+            long lo = targets[0];
+            long hi = targets[1];
+            for(int to = BitBoard.nextSetBit(lo, hi, 0); to >= 0; to = BitBoard.nextSetBit(lo, hi, to + 1)) {
+                moves[count++] = move(from, to);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Picks a random legal move of a colour without generating all of them: pieces are tried
+     * in random order until one has a legal move, then one of its moves is taken at random.
+     * Every piece that can move is equally likely, not every move.
+     * @param colour colour of the pieces
+     * @param random source of randomness
+     * @return the packed move, 0 if the colour has no legal move
+     * */
+    public int randomMove(Colour colour, Random random) {
+        prepare(colour);
+        int count = 0;
+        for(int from = boardMap.next(colour, 0); from >= 0; from = boardMap.next(colour, from + 1)) {
+            pieces[count++] = from;
+        }
+        while(count > 0) {
+            int pick = random.nextInt(count);
+            int from = pieces[pick];
+            legalTargets(from, colour);
+            int moves = Long.bitCount(targets[0]) + Long.bitCount(targets[1]);
+            if(moves > 0) {
+                int to = BitBoard.nextSetBit(targets[0], targets[1], 0);
+                for(int skip = random.nextInt(moves); skip > 0; skip--) {
+                    to = BitBoard.nextSetBit(targets[0], targets[1], to + 1);
+                }
+                return move(from, to);
+            }
+            pieces[pick] = pieces[--count];
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the king of the colour, the knights, kings and pawns checking it, and the enemy sliding
+     * pieces whose empty board rays pass the king, which could attack it after a move. The walk of a
+     * slider only depends on the polygons it arrives at, so it can only start or stop attacking when
+     * a move changes one of them.
+     * */
+    private void prepare(Colour colour) {
+        king = boardMap.next(PieceType.KING, colour, 0);
+        leaperCheckersLo = 0;
+        leaperCheckersHi = 0;
+        sliderCount = 0;
+        if(king < 0) {
+            return;
+        }
+        int entry = king * 2;
+        for(Colour enemy = colour.next(); enemy != colour; enemy = enemy.next()) {
+            int pawnEntry = (enemy.ordinal() * BitBoard.SIZE + king) * 2;
+            leaperCheckersLo |= (AttackTables.KNIGHT_ATTACKERS[entry] & boardMap.getPieceBits(PieceType.KNIGHT, enemy, 0))
+                    | (AttackTables.KING_ATTACKERS[entry] & boardMap.getPieceBits(PieceType.KING, enemy, 0))
+                    | (AttackTables.PAWN_ATTACKERS[pawnEntry] & boardMap.getPieceBits(PieceType.PAWN, enemy, 0));
+            leaperCheckersHi |= (AttackTables.KNIGHT_ATTACKERS[entry + 1] & boardMap.getPieceBits(PieceType.KNIGHT, enemy, 1))
+                    | (AttackTables.KING_ATTACKERS[entry + 1] & boardMap.getPieceBits(PieceType.KING, enemy, 1))
+                    | (AttackTables.PAWN_ATTACKERS[pawnEntry + 1] & boardMap.getPieceBits(PieceType.PAWN, enemy, 1));
+
+            long queensLo = boardMap.getPieceBits(PieceType.QUEEN, enemy, 0);
+            long queensHi = boardMap.getPieceBits(PieceType.QUEEN, enemy, 1);
+            long diagonalLo = AttackTables.DIAGONAL_SOURCES[entry] & (boardMap.getPieceBits(PieceType.BISHOP, enemy, 0) | queensLo);
+            long diagonalHi = AttackTables.DIAGONAL_SOURCES[entry + 1] & (boardMap.getPieceBits(PieceType.BISHOP, enemy, 1) | queensHi);
+            long orthogonalLo = AttackTables.ORTHOGONAL_SOURCES[entry] & (boardMap.getPieceBits(PieceType.ROOK, enemy, 0) | queensLo);
+            long orthogonalHi = AttackTables.ORTHOGONAL_SOURCES[entry + 1] & (boardMap.getPieceBits(PieceType.ROOK, enemy, 1) | queensHi);
+            long candidatesLo = diagonalLo | orthogonalLo;
+            long candidatesHi = diagonalHi | orthogonalHi;
+            for(int from = BitBoard.nextSetBit(candidatesLo, candidatesHi, 0); from >= 0; from = BitBoard.nextSetBit(candidatesLo, candidatesHi, from + 1)) {
+                reach[0] = 0;
+                reach[1] = 0;
+                AttackTables.slide(boardMap, from, boardMap.getType(from), enemy, -1, reach);
+                sliders[sliderCount] = from;
+                sliderReach[sliderCount * 2] = reach[0];
+                sliderReach[sliderCount * 2 + 1] = reach[1];
+                sliderChecks[sliderCount] = BitBoard.contains(reach[0], reach[1], king);
+                sliderCount++;
+            }
+        }
+    }
+
+    /**
+     * Fills targets with the legal end positions of the piece on the polygon
+     * */
+    private void legalTargets(int from, Colour colour) {
+        legalTargets(from, colour, -1L, -1L);
+    }
+
+    /**
+     * Fills targets with the legal end positions of the piece on the polygon among the masked ones,
+     * only those are checked for the safety of the king
+     * */
+    private void legalTargets(int from, Colour colour, long maskLo, long maskHi) {
+        pseudoTargets(from, colour);
+        targets[0] &= maskLo;
+        targets[1] &= maskHi;
+        if(king < 0) {
+            return; // no king to expose
+        }
+        boolean jester = boardMap.getType(from) == PieceType.JESTER;
+        long lo = targets[0];
+        long hi = targets[1];
+        for(int to = BitBoard.nextSetBit(lo, hi, 0); to >= 0; to = BitBoard.nextSetBit(lo, hi, to + 1)) {
+            boolean legal;
+            if(from == king) {
+                legal = isCastling(from, to) ? !isCheckAfterMove(colour, from, to) : isKingSafeAfterKingMove(colour, from, to);
+            } else if(jester && boardMap.isOccupied(to)) {
+                legal = !isCheckAfterMove(colour, from, to); // the swapped piece lands on from
+            } else {
+                legal = isKingSafeAfterMove(from, to);
+            }
+            if(!legal) {
+                if(to < 64) {
+                    targets[0] &= ~(1L << to);
+                } else {
+                    targets[1] &= ~(1L << to);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks a move of a piece other than the king. The knights, kings and pawns attacking the king
+     * still do unless the move takes them, and only the sliding pieces arriving at the start or end
+     * of the move need to be walked again, with the move applied.
+     * */
+    private boolean isKingSafeAfterMove(int from, int to) {
+        long toBit = 1L << to;
+        if(((to < 64 ? leaperCheckersLo & ~toBit : leaperCheckersLo) | (to < 64 ? leaperCheckersHi : leaperCheckersHi & ~toBit)) != 0) {
+            return false;
+        }
+        boolean walk = false;
+        for(int i = 0; i < sliderCount; i++) {
+            if(sliders[i] == to) {
+                continue; // taken
+            }
+            if(touches(i, from) || touches(i, to)) {
+                walk = true;
+            } else if(sliderChecks[i]) {
+                return false;
+            }
+        }
+        if(!walk) {
+            return true;
+        }
+        BasePiece mover = boardMap.put(from, null);
+        BasePiece taken = boardMap.put(to, mover);
+        boolean safe = true;
+        for(int i = 0; i < sliderCount && safe; i++) {
+            int slider = sliders[i];
+            if(slider != to && (touches(i, from) || touches(i, to))) {
+                safe = !AttackTables.slide(boardMap, slider, boardMap.getType(slider), boardMap.get(slider).getColour(), king, null);
+            }
+        }
+        boardMap.put(to, taken);
+        boardMap.put(from, mover);
+        return safe;
+    }
+
+    private boolean touches(int slider, int index) {
+        return (sliderReach[slider * 2 + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks a king move by lifting the king onto the end position and looking for attacks there
+     * */
+    private boolean isKingSafeAfterKingMove(Colour colour, int from, int to) {
+        BasePiece mover = boardMap.put(from, null);
+        BasePiece taken = boardMap.put(to, mover);
+        Colour next = colour.next();
+        boolean safe = !AttackTables.isAttacked(boardMap, to, next) && !AttackTables.isAttacked(boardMap, to, next.next());
+        boardMap.put(to, taken);
+        boardMap.put(from, mover);
+        return safe;
+    }
+
+    // the same condition makeMove relocates the rook on
+    private static boolean isCastling(int from, int to) {
+        int toColumn = (to >> 2) & 7;
+        return (from & 3) == 0 && ((from >> 2) & 7) == KING_COLUMN && (toColumn == 2 || toColumn == 6);
+    }
+
+    private boolean isCheckAfterMove(Colour colour, int from, int to) {
+        board.makeMove(POSITIONS[from], POSITIONS[to], record);
+        boolean check = board.isCheck(colour);
+        board.unmakeMove(record);
+        return check;
+    }
+
+    /**
+     * Fills targets with the end positions getHighlightPolygons of the piece returns,
+     * walking the step tables instead of the positions
+     * */
+    private void pseudoTargets(int from, Colour colour) {
+        targets[0] = 0;
+        targets[1] = 0;
+        switch(boardMap.getType(from)) {
+            case KNIGHT:
+            case JESTER:
+                leap(from, AttackTables.KNIGHT_STEPS, colour);
+                break;
+            case KING:
+                leap(from, AttackTables.KING_STEPS, colour);
+                castling(from, colour);
+                break;
+            case PAWN:
+                pawn(from, colour);
+                break;
+            case WALL:
+                wall(from);
+                break;
+            default:
+                AttackTables.slide(boardMap, from, boardMap.getType(from), colour, -1, targets);
+                // the slide reaches pieces of its own colour, which cannot be taken, and walls
+                targets[0] &= ~(boardMap.getColourBits(colour, 0) | boardMap.getTypeBits(PieceType.WALL, 0));
+                targets[1] &= ~(boardMap.getColourBits(colour, 1) | boardMap.getTypeBits(PieceType.WALL, 1));
+                break;
+        }
+    }
+
+    private void leap(int from, Direction[][] steps, Colour colour) {
+        for(Direction[] step: steps) {
+            int to = MovementUtil.step(from, step, false, null);
+            if(to != OFF_BOARD && !boardMap.isWall(to) && isEmptyOrEnemy(to, colour)) {
+                add(to);
+            }
+        }
+    }
+
+    private void castling(int from, Colour colour) {
+        int home = colour.ordinal() * 32;
+        if(from != square(home, KING_COLUMN)) {
+            return;
+        }
+        if(isCastlingRook(square(home, 7), colour) && isEmpty(square(home, 5)) && isEmpty(square(home, 6))) {
+            add(square(home, 6));
+        }
+        if(isCastlingRook(square(home, 0), colour) && isEmpty(square(home, 1)) && isEmpty(square(home, 2))
+                && isEmpty(square(home, 3))) {
+            add(square(home, 2));
+        }
+    }
+
+    private static int square(int home, int column) {
+        return home + 4 * column;
+    }
+
+    // a wall moves like a rook, so it can castle like one
+    private boolean isCastlingRook(int index, Colour colour) {
+        BasePiece piece = boardMap.get(index);
+        return piece instanceof Rook && piece.getColour() == colour;
+    }
+
+    private void pawn(int from, Colour colour) {
+        Direction[][] steps = AttackTables.PAWN_STEPS;
+        for(int i = 0; i < steps.length; i++) {
+            int to = MovementUtil.step(from, steps[i], false, colour);
+            if(to == OFF_BOARD || boardMap.isWall(to)) {
+                continue;
+            }
+            boolean empty = isEmpty(to);
+            if(i == 0) {
+                if(empty) {
+                    add(to); // 1 step forward, not taking
+                }
+            } else if(i == 1) {
+                // 2 steps forward from the initial position, can't jump a piece
+                int between = MovementUtil.stepEntry(from, Direction.FORWARD, false);
+                if(empty && AttackTables.section(from) == colour.ordinal() && (from & 3) == 1
+                        && between != OFF_BOARD && isEmpty(between & INDEX_MASK)) {
+                    add(to);
+                }
+            } else if(!empty && boardMap.get(to).getColour() != colour) {
+                add(to); // taking diagonally
+            }
+        }
+    }
+
+    private void wall(int from) {
+        int section = AttackTables.section(from);
+        for(Direction[] step: AttackTables.ROOK_STEPS) {
+            int tmp = MovementUtil.step(from, step, false, null);
+            while(tmp != OFF_BOARD && isEmpty(tmp)) {
+                add(tmp);
+                tmp = MovementUtil.step(tmp, step, AttackTables.section(tmp) != section, null);
+            }
+        }
+    }
+
+    private boolean isEmpty(int index) {
+        return !boardMap.isOccupied(index);
+    }
+
+    private boolean isEmptyOrEnemy(int index, Colour colour) {
+        BasePiece piece = boardMap.get(index);
+        return piece == null || piece.getColour() != colour;
+    }
+
+    private void add(int index) {
+        if(index < 64) {
+            targets[0] |= 1L << index;
+        } else {
+            targets[1] |= 1L << index;
+        }
+    }
+}
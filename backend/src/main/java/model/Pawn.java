@@ -2,17 +2,13 @@ package model;
 
 import common.Colour;
 import common.Direction;
-import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
-import utility.Log;
 
-import java.util.Arrays;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -49,7 +45,6 @@ public class Pawn extends BasePiece {
      * */
     @Override
     public Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start) {
-        Collection<Position> wallPiecePositions = getWallPieceMapping(boardMap).values();
         Set<Position> positionSet = new HashSet<>();
         BasePiece mover = this;
         Colour moverCol = mover.getColour();
@@ -59,33 +54,35 @@ public class Pawn extends BasePiece {
             Direction[] step = steps[i];
             Position end = stepOrNull(mover, step, start);
 
-            if(wallPiecePositions.contains(end)) {
+            if(isWall(boardMap, end)) {
                 continue;
             }
 
             if(end!=null && !positionSet.contains(end)) {
                 BasePiece target = boardMap.get(end);
-                Log.d(TAG, "end: "+end+", step: "+Arrays.toString(step));
-                try {
-                    boolean isOneStepForwardAndNotTakingPieceCase = (target == null && i == 0); // 1 step forward, not taking
-                    boolean isTwoStepForwardAndNotTakingPieceCase = (target == null && i == 1 // 2 steps forward,
-                            && start.getColour() == moverCol && start.getRow() == 1 //must be in initial position
-                            && boardMap.get(Position.get(moverCol, 2, start.getColumn())) == null); //and can't jump a piece;
-                    boolean isDiagonalMoveAndTakingPieceCase = (target != null && target.getColour() != moverCol && i > 1); //or taking diagonally
+                boolean isOneStepForwardAndNotTakingPieceCase = (target == null && i == 0); // 1 step forward, not taking
+                boolean isTwoStepForwardAndNotTakingPieceCase = (target == null && i == 1 // 2 steps forward,
+                        && start.getColour() == moverCol && start.getRow() == 1 //must be in initial position
+                        && boardMap.get(start.neighbourOrNull(Direction.FORWARD)) == null); //and can't jump a piece;
+                boolean isDiagonalMoveAndTakingPieceCase = (target != null && target.getColour() != moverCol && i > 1); //or taking diagonally
 
-                    if (isOneStepForwardAndNotTakingPieceCase || isTwoStepForwardAndNotTakingPieceCase || isDiagonalMoveAndTakingPieceCase) {
-                        Log.d(TAG, "position: " + end);
-                        positionSet.add(end);
-                    }
-                } catch (InvalidPositionException e) {
-                    Log.d(TAG, "InvalidPositionException: "+e.getMessage());
-                }
+                if (isOneStepForwardAndNotTakingPieceCase || isTwoStepForwardAndNotTakingPieceCase || isDiagonalMoveAndTakingPieceCase) {
+                    positionSet.add(end);
                 }
             }
+        }
 
         return positionSet;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.PAWN;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
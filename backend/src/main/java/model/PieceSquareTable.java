@@ -0,0 +1,165 @@
+package model;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import utility.PieceFactory;
+
+/**
+ * Piece-square tables of the three player board. Every table is written from the point of view
+ * of the colour owning the piece: ranks 0-3 are the rows 1-4 of its home section, ranks 4-7 the
+ * rows 4-1 of the section the piece stands in when it has left home, so rank 7 is the back row
+ * of an enemy section. The value of a piece on a polygon is its material value from PieceFactory
+ * plus the table entry, and the board keeps the sum per colour up to date on every move and undo.
+ */
+public final class PieceSquareTable {
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final int TYPES = PieceType.values().length;
+    private static final int COLOURS = Colour.values().length;
+    private static final int RANKS = 8;
+
+    /** Bonus per rank and column from the home back row, in hundredths of a pawn, in PieceType order **/
+    private static final int[][] TABLES = new int[TYPES][];
+
+    static {
+        TABLES[PieceType.PAWN.ordinal()] = new int[] {
+                0,   0,   0,   0,   0,   0,   0,   0,
+                0,   0,   0, -10, -10,   0,   0,   0,
+                5,   5,  10,  15,  15,  10,   5,   5,
+               10,  10,  15,  25,  25,  15,  10,  10,
+               20,  20,  25,  30,  30,  25,  20,  20,
+               30,  30,  35,  40,  40,  35,  30,  30,
+               50,  50,  55,  60,  60,  55,  50,  50,
+                0,   0,   0,   0,   0,   0,   0,   0,
+        };
+        TABLES[PieceType.KNIGHT.ordinal()] = new int[] {
+              -40, -20, -20, -20, -20, -20, -20, -40,
+              -20,   0,   5,   5,   5,   5,   0, -20,
+              -10,   5,  10,  15,  15,  10,   5, -10,
+              -10,   5,  15,  20,  20,  15,   5, -10,
+              -10,   5,  15,  20,  20,  15,   5, -10,
+              -10,   5,  10,  15,  15,  10,   5, -10,
+              -20,   0,   5,   5,   5,   5,   0, -20,
+              -40, -20, -20, -20, -20, -20, -20, -40,
+        };
+        TABLES[PieceType.BISHOP.ordinal()] = new int[] {
+              -20, -10, -10, -10, -10, -10, -10, -20,
+              -10,  10,   0,   5,   5,   0,  10, -10,
+              -10,   5,  10,  10,  10,  10,   5, -10,
+              -10,   0,  10,  15,  15,  10,   0, -10,
+              -10,   0,  10,  15,  15,  10,   0, -10,
+              -10,   5,  10,  10,  10,  10,   5, -10,
+              -10,   0,   0,   0,   0,   0,   0, -10,
+              -20, -10, -10, -10, -10, -10, -10, -20,
+        };
+        TABLES[PieceType.ROOK.ordinal()] = new int[] {
+                0,   0,   5,  10,  10,   5,   0,   0,
+               -5,   0,   0,   0,   0,   0,   0,  -5,
+               -5,   0,   0,   0,   0,   0,   0,  -5,
+                0,   0,   0,   5,   5,   0,   0,   0,
+                5,   5,   5,  10,  10,   5,   5,   5,
+                5,   5,   5,  10,  10,   5,   5,   5,
+               15,  20,  20,  20,  20,  20,  20,  15,
+               10,  10,  10,  10,  10,  10,  10,  10,
+        };
+        TABLES[PieceType.QUEEN.ordinal()] = new int[] {
+              -20, -10, -10,  -5,  -5, -10, -10, -20,
+              -10,   0,   5,   0,   0,   0,   0, -10,
+              -10,   5,   5,   5,   5,   5,   5, -10,
+               -5,   0,   5,  10,  10,   5,   0,  -5,
+               -5,   0,   5,  10,  10,   5,   0,  -5,
+              -10,   0,   5,   5,   5,   5,   0, -10,
+              -10,   0,   0,   0,   0,   0,   0, -10,
+              -20, -10, -10,  -5,  -5, -10, -10, -20,
+        };
+        // the king stays home, two enemies can reach it anywhere else
+        TABLES[PieceType.KING.ordinal()] = new int[] {
+               20,  30,  10,   0,   0,  10,  30,  20,
+                0,   0, -10, -20, -20, -10,   0,   0,
+              -20, -30, -30, -40, -40, -30, -30, -20,
+              -40, -50, -50, -60, -60, -50, -50, -40,
+              -60, -60, -60, -60, -60, -60, -60, -60,
+              -60, -60, -60, -60, -60, -60, -60, -60,
+              -60, -60, -60, -60, -60, -60, -60, -60,
+              -60, -60, -60, -60, -60, -60, -60, -60,
+        };
+        // the jester swaps with enemy pieces, from the centre it reaches the most of them
+        TABLES[PieceType.JESTER.ordinal()] = new int[] {
+              -30, -20, -10, -10, -10, -10, -20, -30,
+              -20,   0,   0,   5,   5,   0,   0, -20,
+              -10,   5,  10,  15,  15,  10,   5, -10,
+              -10,   5,  15,  20,  20,  15,   5, -10,
+              -10,   5,  15,  20,  20,  15,   5, -10,
+              -10,   5,  10,  15,  15,  10,   5, -10,
+              -20,   0,   5,   5,   5,   5,   0, -20,
+              -30, -20, -10, -10, -10, -10, -20, -30,
+        };
+        // the wall can't be taken, in front of the home pawns it shields the king
+        TABLES[PieceType.WALL.ordinal()] = new int[] {
+                0,   0,   0,   0,   0,   0,   0,   0,
+                0,   0,   5,   5,   5,   5,   0,   0,
+                5,  10,  15,  20,  20,  15,  10,   5,
+                5,  10,  15,  20,  20,  15,  10,   5,
+                0,   5,   5,  10,  10,   5,   5,   0,
+                0,   0,   0,   0,   0,   0,   0,   0,
+                0,   0,   0,   0,   0,   0,   0,   0,
+                0,   0,   0,   0,   0,   0,   0,   0,
+        };
+    }
+
+    /** Material plus table entry of every piece on every polygon **/
+    private static final int[] VALUES = new int[COLOURS * TYPES * SIZE];
+
+    static {
+        PieceType[] types = PieceType.values();
+        for (Colour colour : Colour.values()) {
+            for (PieceType type : types) {
+                int material = PieceFactory.getValue(type);
+                for (Position position : Position.values()) {
+                    VALUES[(colour.ordinal() * TYPES + type.ordinal()) * SIZE + position.ordinal()] =
+                            material + TABLES[type.ordinal()][square(position, colour)];
+                }
+            }
+        }
+    }
+
+    private PieceSquareTable() {
+    }
+
+    /**
+     * Index of a polygon in the tables of a colour
+     * @param position the polygon
+     * @param colour colour owning the piece
+     * @return rank times 8 plus column
+     */
+    static int square(Position position, Colour colour) {
+        int rank = position.getColour() == colour ? position.getRow() : RANKS - 1 - position.getRow();
+        return rank * RANKS + position.getColumn();
+    }
+
+    /**
+     * Value of a piece on a polygon
+     * @param index polygon index, Position.ordinal()
+     * @param type type of the piece
+     * @param colour colour of the piece
+     * @return material plus table entry in hundredths of a pawn
+     */
+    public static int value(int index, PieceType type, Colour colour) {
+        return VALUES[(colour.ordinal() * TYPES + type.ordinal()) * SIZE + index];
+    }
+
+    /**
+     * Computes the score of a colour from scratch, the value the board keeps up to date on every move
+     * @param board the pieces
+     * @param colour colour of the pieces
+     * @return sum of the values of the pieces of the colour
+     */
+    public static int compute(BitBoard board, Colour colour) {
+        int score = 0;
+        for (int index = board.next(colour, 0); index >= 0; index = board.next(colour, index + 1)) {
+            score += value(index, board.getType(index), colour);
+        }
+        return score;
+    }
+}
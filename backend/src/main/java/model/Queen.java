@@ -3,15 +3,13 @@ package model;
 import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
-import utility.Log;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -49,7 +47,6 @@ public class Queen extends BasePiece {
      * */
     @Override
     public Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start) {
-        Collection<Position> wallPiecePositions = getWallPieceMapping(boardMap).values();
         Set<Position> positionSet = new HashSet<>();
 
         BasePiece mover = this;
@@ -59,31 +56,30 @@ public class Queen extends BasePiece {
             Position tmp = stepOrNull(mover, step, start);
             while(tmp != null && !positionSet.contains(tmp) &&
                     (boardMap.get(tmp)==null || (boardMap.get(tmp) instanceof Wall && boardMap.get(tmp).getColour() == mover.getColour()))) {
-                Log.d(TAG, "tmp: "+tmp);
                 positionSet.add(tmp); // to prevent same position to add in list again
                 tmp = stepOrNull(mover, step, tmp, tmp.getColour()!=start.getColour());
             }
 
             if(tmp!=null && boardMap.get(tmp)!=null) {
                 if(boardMap.get(tmp).getColour()!=mover.getColour()) {
-                    Log.d(TAG, "Opponent tmp: " + tmp);
                     positionSet.add(tmp);
-                } else {
-                    Log.d(TAG, "Mine tmp: " + tmp);
                 }
             }
         }
 
-        for(Position position: wallPiecePositions) {
-            if(positionSet.contains(position)) {
-                Log.d(TAG, "Removed a wallPiecePos: "+position);
-                positionSet.remove(position);
-            }
-        }
+        removeWallPositions(boardMap, positionSet);
 
         return positionSet;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.QUEEN;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
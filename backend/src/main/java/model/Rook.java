@@ -3,15 +3,13 @@ package model;
 import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
-import utility.Log;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -48,7 +46,6 @@ public class Rook extends BasePiece {
      * */
     @Override
     public Set<Position> getHighlightPolygons(Map<Position, BasePiece> boardMap, Position start) {
-        Collection<Position> wallPiecePositions = getWallPieceMapping(boardMap).values();
         //List<Position> positions = new ArrayList<>();
         Set<Position> positionSet = new HashSet<>();
         BasePiece mover = this;
@@ -58,31 +55,30 @@ public class Rook extends BasePiece {
             Position tmp = stepOrNull(mover, step, start);
             while(tmp != null &&
                     (boardMap.get(tmp)==null || (boardMap.get(tmp) instanceof Wall && boardMap.get(tmp).getColour() == mover.getColour()))) {
-                Log.d(TAG, "tmp: "+tmp);
                 positionSet.add(tmp);
                 tmp = stepOrNull(mover, step, tmp, tmp.getColour()!=start.getColour());
             }
 
             if(tmp!=null) {
                 if(boardMap.get(tmp).getColour()!=mover.getColour()) {
-                    Log.d(TAG, "Opponent tmp: " + tmp);
                     positionSet.add(tmp);
-                } else {
-                    Log.d(TAG, "Mine tmp: " + tmp);
                 }
             }
         }
 
-        for(Position position: wallPiecePositions) {
-            if(positionSet.contains(position)) {
-                Log.d(TAG, "Removed a wallPiecePos: "+position);
-                positionSet.remove(position);
-            }
-        }
+        removeWallPositions(boardMap, positionSet);
 
         return positionSet;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.ROOK;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
@@ -0,0 +1,100 @@
+package model;
+
+import common.Colour;
+import common.Position;
+
+/**
+ * Undo record of a move made in place on the Board. Holds everything needed to take the move
+ * back: the captured or swapped piece, the piece a pawn was promoted to, the castling rook
+ * and the turn before the move. A record can be reused for many moves.
+ */
+public class UndoRecord {
+
+    Position start; // null if the colour passed its turn
+    Position end;
+    BasePiece mover; // piece that moved from start
+    BasePiece taken; // piece previously on end, null if it was empty
+    BasePiece placed; // piece put on end, the mover or its promotion
+    Position rookStart; // null if the move was not a castling
+    Position rookEnd;
+    BasePiece rook;
+    BasePiece rookEndPiece; // piece previously on rookEnd
+    Colour previousTurn;
+
+    /**
+     * @return start position of the move
+     * */
+    public Position getStart() {
+        return start;
+    }
+
+    /**
+     * @return end position of the move
+     * */
+    public Position getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the piece that moved
+     * */
+    public BasePiece getMover() {
+        return mover;
+    }
+
+    /**
+     * @return the piece previously on the end position, null if it was empty
+     * */
+    public BasePiece getTaken() {
+        return taken;
+    }
+
+    /**
+     * @return the piece placed on the end position, differs from the mover after a promotion
+     * */
+    public BasePiece getPlaced() {
+        return placed;
+    }
+
+    /**
+     * @return the turn before the move was made
+     * */
+    public Colour getPreviousTurn() {
+        return previousTurn;
+    }
+
+    /**
+     * @return true if the colour passed its turn without moving
+     * */
+    public boolean isNullMove() {
+        return start == null;
+    }
+
+    /**
+     * @return true if a pawn was promoted
+     * */
+    public boolean isPromotion() {
+        return placed != mover;
+    }
+
+    /**
+     * @return true if the king castled and a rook was relocated
+     * */
+    public boolean isCastling() {
+        return rookStart != null;
+    }
+
+    /**
+     * @return true if a jester switched places with the piece on the end position
+     * */
+    public boolean isJesterSwap() {
+        return taken != null && mover instanceof Jester;
+    }
+
+    /**
+     * @return true if an enemy piece was taken off the board
+     * */
+    public boolean isCapture() {
+        return taken != null && !(mover instanceof Jester);
+    }
+}
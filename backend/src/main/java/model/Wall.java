@@ -3,14 +3,13 @@ package model;
 import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
+import common.PieceType;
 import common.Position;
-import utility.Log;
 
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import static utility.MovementUtil.step;
 import static utility.MovementUtil.stepOrNull;
 
 /**
@@ -48,7 +47,6 @@ public class Wall extends Rook {
         for (Direction[] step : steps) {
             Position tmp = stepOrNull(mover, step, start);
             while(tmp != null && boardMap.get(tmp)==null) {
-                Log.d(TAG, "tmp: "+tmp);
                 positionSet.add(tmp);
                 tmp = stepOrNull(mover, step, tmp, tmp.getColour()!=start.getColour());
             }
@@ -57,6 +55,14 @@ public class Wall extends Rook {
         return positionSet;
     }
 
+    /**
+     * @return PieceType of the chess piece
+     * */
+    @Override
+    public PieceType getType() {
+        return PieceType.WALL;
+    }
+
     /**
      * Returns custom string representation of the class
      * @return String
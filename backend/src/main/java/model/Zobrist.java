@@ -0,0 +1,72 @@
+package model;
+
+import common.Colour;
+import common.PieceType;
+
+import java.util.Random;
+
+/**
+ * Zobrist keys of the three player board. A position is identified by the exclusive or of one
+ * random key per piece on a polygon (polygon, piece type and colour) and one key for the colour to
+ * move. The keys come from a fixed seed, so the same position has the same key in every run and
+ * keys can be stored with saved games.
+ * Castling here depends only on where the king and rooks stand, the pieces carry no moved flags,
+ * so the piece keys already tell the castling availability apart.
+ */
+public final class Zobrist {
+
+    private static final int SIZE = BitBoard.SIZE;
+    private static final int TYPES = PieceType.values().length;
+    private static final int COLOURS = Colour.values().length;
+    private static final long SEED = 0x3C0D1A6E5EEDL;
+
+    private static final long[] PIECE_KEYS = new long[COLOURS * TYPES * SIZE];
+    private static final long[] TURN_KEYS = new long[COLOURS];
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < TURN_KEYS.length; i++) {
+            TURN_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Key of a piece on a polygon
+     * @param index polygon index, Position.ordinal()
+     * @param type type of the piece
+     * @param colour colour of the piece
+     * @return the key
+     */
+    public static long pieceKey(int index, PieceType type, Colour colour) {
+        return PIECE_KEYS[(colour.ordinal() * TYPES + type.ordinal()) * SIZE + index];
+    }
+
+    /**
+     * Key of the colour to move
+     * @param turn colour to move
+     * @return the key
+     */
+    public static long turnKey(Colour turn) {
+        return TURN_KEYS[turn.ordinal()];
+    }
+
+    /**
+     * Computes the key of a position from scratch, the value the board keeps up to date on every move
+     * @param board the pieces
+     * @param turn colour to move
+     * @return the key
+     */
+    public static long compute(BitBoard board, Colour turn) {
+        long key = turnKey(turn);
+        for (int index = board.nextOccupied(0); index >= 0; index = board.nextOccupied(index + 1)) {
+            key ^= pieceKey(index, board.getType(index), board.get(index).getColour());
+        }
+        return key;
+    }
+}
@@ -1,7 +1,10 @@
 package utility;
 
+import common.Colour;
 import common.InvalidPositionException;
+import common.PieceType;
 import model.BasePiece;
+import model.BitBoard;
 import common.Position;
 
 import java.util.ArrayList;
@@ -16,6 +19,8 @@ import java.util.Set;
  **/
 public class BoardAdapter {
 
+    private static final Position[] POSITIONS = Position.values();
+
     /**
      *  Method to convert board data to Map of Strings for webapp
      * @param modelBoard a map of position and piece as input
@@ -34,6 +39,51 @@ public class BoardAdapter {
         return  viewBoard;
     }
 
+    /**
+     *  Method to convert bitboard data to Map of Strings for webapp.
+     *  Walks the occupancy bits instead of hashing every position.
+     * @param modelBoard the bitboard of the current game
+     * @return Map of String and String
+     **/
+    public static Map<String, String> convertModelBoardToViewBoard(BitBoard modelBoard) {
+        Map<String, String> viewBoard = new HashMap<>(2 * BitBoard.SIZE);
+
+        for(int index = modelBoard.nextOccupied(0); index >= 0; index = modelBoard.nextOccupied(index + 1)) {
+            viewBoard.put(POSITIONS[index].toString(), modelBoard.get(index).toString());
+        }
+
+        return viewBoard;
+    }
+
+    /**
+     *  Method to convert a board of Strings, as produced by convertModelBoardToViewBoard, back to pieces
+     * @param viewBoard map of position label and piece label, e.g. Be1 to BK
+     * @return Map of Position and BasePiece
+     **/
+    public static Map<Position, BasePiece> convertViewBoardToModelBoard(Map<String, String> viewBoard) throws InvalidPositionException {
+        Map<Position, BasePiece> modelBoard = new HashMap<>();
+
+        for(Map.Entry<String, String> entry: viewBoard.entrySet()) {
+            Position position = Position.get(calculatePolygonId(entry.getKey()));
+            modelBoard.put(position, convertViewPieceToModelPiece(entry.getValue()));
+        }
+
+        return modelBoard;
+    }
+
+    private static BasePiece convertViewPieceToModelPiece(String piece) {
+        if(piece != null && piece.length() == 2) {
+            for(Colour colour: Colour.values()) {
+                for(PieceType type: PieceType.values()) {
+                    if(piece.equals(colour.toString()+type)) {
+                        return PieceFactory.createPiece(type.name(), colour);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid chess piece: " + piece);
+    }
+
     /**
      *  Method to convert list of positions to highlight to list of strings
      * @param possibleMoves a list of positions to highlight
@@ -0,0 +1,113 @@
+package utility;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import model.BitBoard;
+import model.Board;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *  Class BoardCodec to encode a board in a compact fixed-width form, for the wire and for storage.
+ *  The encoding is one byte per polygon indexed by Position.ordinal(), 96 bytes for every board:
+ *  0 for an empty polygon, else colour * 8 + piece type + 1 by ordinal, e.g. 5 for a blue king.
+ *  Equal boards encode to equal bytes, which makes the encoding a canonical form for caching
+ *  and archiving. Nibbles can't hold the 25 values of a polygon, so a byte it is.
+ **/
+public class BoardCodec {
+
+    /** Media type of an encoded board, requested through the Accept header **/
+    public static final String MEDIA_TYPE = "application/vnd.threeplayerchess.board";
+
+    /** Length of an encoded board in bytes **/
+    public static final int SIZE = BitBoard.SIZE;
+
+    /** Code of an empty polygon **/
+    public static final byte EMPTY = 0;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final Colour[] COLOURS = Colour.values();
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final String[] PIECE_LABELS = new String[COLOURS.length * TYPES.length + 1];
+    private static final Map<String, Byte> PIECE_CODES = new HashMap<>();
+    private static final Map<String, Integer> POLYGON_INDEXES = new HashMap<>();
+
+    static {
+        for(Colour colour: COLOURS) {
+            for(PieceType type: TYPES) {
+                byte code = code(colour, type);
+                PIECE_LABELS[code] = colour.toString() + type;
+                PIECE_CODES.put(PIECE_LABELS[code], code);
+            }
+        }
+        for(Position position: POSITIONS) {
+            POLYGON_INDEXES.put(position.toString(), position.ordinal());
+        }
+    }
+
+    /**
+     *  Method to encode the pieces of a board, read without going through the view board
+     * @param board the board
+     * @return the encoded board of SIZE bytes
+     **/
+    public static byte[] encode(Board board) {
+        byte[] encoded = new byte[SIZE];
+        for(Colour colour: COLOURS) {
+            for(PieceType type: TYPES) {
+                long lo = board.getPieceBits(type, colour, 0);
+                long hi = board.getPieceBits(type, colour, 1);
+                for(int index = BitBoard.nextSetBit(lo, hi, 0); index >= 0; index = BitBoard.nextSetBit(lo, hi, index + 1)) {
+                    encoded[index] = code(colour, type);
+                }
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     *  Method to encode a board of Strings, as produced by BoardAdapter.convertModelBoardToViewBoard
+     * @param viewBoard map of position label and piece label, e.g. Be1 to BK
+     * @return the encoded board of SIZE bytes
+     **/
+    public static byte[] encode(Map<String, String> viewBoard) {
+        byte[] encoded = new byte[SIZE];
+        for(Map.Entry<String, String> entry: viewBoard.entrySet()) {
+            Integer index = POLYGON_INDEXES.get(entry.getKey());
+            Byte code = PIECE_CODES.get(entry.getValue());
+            if(index == null || code == null) {
+                throw new IllegalArgumentException("Invalid polygon or piece: " + entry.getKey() + "=" + entry.getValue());
+            }
+            encoded[index] = code;
+        }
+        return encoded;
+    }
+
+    /**
+     *  Method to decode an encoded board to a board of Strings for webapp
+     * @param encoded the encoded board of SIZE bytes
+     * @return map of position label and piece label, e.g. Be1 to BK
+     **/
+    public static Map<String, String> decode(byte[] encoded) {
+        if(encoded.length != SIZE) {
+            throw new IllegalArgumentException("Encoded board of " + encoded.length + " bytes, not " + SIZE);
+        }
+        Map<String, String> viewBoard = new HashMap<>(2 * SIZE);
+        for(int index = 0; index < SIZE; index++) {
+            int code = encoded[index];
+            if(code == EMPTY) {
+                continue;
+            }
+            if(code < 0 || code >= PIECE_LABELS.length) {
+                throw new IllegalArgumentException("Invalid piece code " + code + " on " + POSITIONS[index]);
+            }
+            viewBoard.put(POSITIONS[index].toString(), PIECE_LABELS[code]);
+        }
+        return viewBoard;
+    }
+
+    private static byte code(Colour colour, PieceType type) {
+        return (byte) (colour.ordinal() * TYPES.length + type.ordinal() + 1);
+    }
+}
@@ -1,5 +1,6 @@
 package utility;
 
+import common.Colour;
 import common.Direction;
 import common.InvalidPositionException;
 import common.Position;
@@ -12,35 +13,104 @@ import model.Pawn;
  **/
 public class MovementUtil {
 
-    private static final String TAG = "MovementUtil";
+    /** Step table entry of a step that leaves the board **/
+    public static final int OFF_BOARD = -1;
+
+    /** Flag of a step table entry whose step crosses into another colour's section **/
+    public static final int SECTION_CHANGE = 0x80;
+
+    /** Mask of the polygon index inside a step table entry **/
+    public static final int INDEX_MASK = 0x7F;
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
 
     /**
-     * step method to get the next position based on the direction input
-     * @param piece piece to be moved
+     * Single step of every position, direction and reversed flag. Each entry holds the index of the
+     * next polygon, flagged with SECTION_CHANGE when the step enters another section (every later step
+     * of the move is then reversed), or OFF_BOARD.
+     **/
+    private static final int[] STEP_TABLE = buildStepTable();
+
+    private static int[] buildStepTable() {
+        int[] table = new int[POSITIONS.length * DIRECTIONS.length * 2];
+        for(Position position: POSITIONS) {
+            for(Direction direction: DIRECTIONS) {
+                for(int reversed = 0; reversed < 2; reversed++) {
+                    Position next = position.neighbourOrNull(reversed == 1 ? reverse(direction) : direction);
+                    int entry = OFF_BOARD;
+                    if(next != null) {
+                        entry = next.ordinal();
+                        if(next.getColour() != position.getColour()) {
+                            entry |= SECTION_CHANGE;
+                        }
+                    }
+                    table[tableIndex(position.ordinal(), direction, reversed == 1)] = entry;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static int tableIndex(int index, Direction direction, boolean reversed) {
+        return ((index * 4 + direction.ordinal()) << 1) | (reversed ? 1 : 0);
+    }
+
+    private static Direction reverse(Direction direction) {
+        switch(direction) {
+            case FORWARD: return Direction.BACKWARD;
+            case BACKWARD: return Direction.FORWARD;
+            case LEFT: return Direction.RIGHT;
+            default: return Direction.LEFT;
+        }
+    }
+
+    /**
+     * Look up a single step in the precomputed step table
+     * @param index polygon index, Position.ordinal()
+     * @param direction direction of the step
+     * @param reversed if the direction is reversed
+     * @return index of the next polygon flagged with SECTION_CHANGE, or OFF_BOARD
+     **/
+    public static int stepEntry(int index, Direction direction, boolean reversed) {
+        return STEP_TABLE[tableIndex(index, direction, reversed)];
+    }
+
+    /**
+     * step method on polygon indexes, reading the step table. Does not allocate or throw.
+     * @param current polygon index of the piece, Position.ordinal()
      * @param step directions to move
-     * @param current current position of the piece
-     * @return Position of the piece after the step
+     * @param reverse if movement is in reverse direction
+     * @param pawnColour colour of a moving pawn, which reverses inside other sections, null for other pieces
+     * @return polygon index after the step, or OFF_BOARD
      **/
-    public static Position step(BasePiece piece, Direction[] step, Position current) throws InvalidPositionException {
-        boolean reverse = false;
+    public static int step(int current, Direction[] step, boolean reverse, Colour pawnColour) {
         for(Direction d: step){
-            if((piece.getColour()!=current.getColour() && piece instanceof Pawn) || reverse){//reverse directions for knights
-                switch(d){
-                    case FORWARD: d = Direction.BACKWARD; break;
-                    case BACKWARD: d = Direction.FORWARD; break;
-                    case LEFT: d = Direction.RIGHT; break;
-                    case RIGHT: d = Direction.LEFT; break;
-                }
+            // pawns reverse inside other sections, each section holds 32 consecutive indexes
+            boolean reversed = reverse || (pawnColour != null && pawnColour.ordinal() != current >> 5);
+            int entry = STEP_TABLE[tableIndex(current, d, reversed)];
+            if(entry == OFF_BOARD) {
+                return OFF_BOARD;
             }
-            Position next = current.neighbour(d);
-            if(next.getColour()!= current.getColour()){//need to reverse directions when switching between sections of the board
-                reverse=true;
+            if((entry & SECTION_CHANGE) != 0){//need to reverse directions when switching between sections of the board
+                reverse = true;
             }
-            current = next;
+            current = entry & INDEX_MASK;
         }
         return current;
     }
 
+    /**
+     * step method to get the next position based on the direction input
+     * @param piece piece to be moved
+     * @param step directions to move
+     * @param current current position of the piece
+     * @return Position of the piece after the step
+     **/
+    public static Position step(BasePiece piece, Direction[] step, Position current) throws InvalidPositionException {
+        return step(piece, step, current, false);
+    }
+
     /**
      * step method to get the next position based on the direction input
      * @param piece piece to be moved
@@ -50,22 +120,11 @@ public class MovementUtil {
      * @return Position of the piece after the step
      **/
     public static Position step(BasePiece piece, Direction[] step, Position current, boolean reverse) throws InvalidPositionException {
-        for(Direction d: step){
-            if((piece.getColour()!=current.getColour() && piece instanceof Pawn) || reverse){//reverse directions for knights
-                switch(d){
-                    case FORWARD: d = Direction.BACKWARD; break;
-                    case BACKWARD: d = Direction.FORWARD; break;
-                    case LEFT: d = Direction.RIGHT; break;
-                    case RIGHT: d = Direction.LEFT; break;
-                }
-            }
-            Position next = current.neighbour(d);
-            if(next.getColour()!= current.getColour()){//need to reverse directions when switching between sections of the board
-                reverse=true;
-            }
-            current = next;
+        Position next = stepOrNull(piece, step, current, reverse);
+        if(next == null) {
+            throw new InvalidPositionException("Moved off board");
         }
-        return current;
+        return next;
     }
 
 
@@ -77,12 +136,7 @@ public class MovementUtil {
      * @return Position of the piece after the step
      **/
     public static Position stepOrNull(BasePiece piece, Direction[] step, Position current) {
-        try {
-            return step(piece, step, current);
-        } catch (InvalidPositionException e) {
-            Log.e(TAG, "Exception: "+e.getMessage());
-            return null;
-        }
+        return stepOrNull(piece, step, current, false);
     }
 
     /**
@@ -94,11 +148,7 @@ public class MovementUtil {
      * @return Position of the piece after the step
      **/
     public static Position stepOrNull(BasePiece piece, Direction[] step, Position current, boolean reverse) {
-        try {
-            return step(piece, step, current, reverse);
-        } catch (InvalidPositionException e) {
-            Log.e(TAG, "Exception: "+e.getMessage());
-            return null;
-        }
+        int next = step(current.ordinal(), step, reverse, piece instanceof Pawn ? piece.getColour() : null);
+        return next == OFF_BOARD ? null : POSITIONS[next];
     }
 }
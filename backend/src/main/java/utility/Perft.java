@@ -0,0 +1,212 @@
+package utility;
+
+import common.Colour;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.UndoRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft - counts the leaf nodes of the legal move tree to a fixed depth.
+ * Turns pass Blue, Green, Red as in the game. A colour without legal moves ends its branch.
+ * Used to check the move rules against known node counts and to measure move generation speed.
+ * The root moves are divided between the threads of a fork-join pool, each on its own board copy.
+ **/
+public class Perft {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    private final int maxDepth;
+    private final int[][] moves; // move buffer per ply
+    private final UndoRecord[] records; // undo record per ply
+
+    /**
+     * Perft constructor
+     * @param maxDepth deepest search the instance is used for
+     **/
+    public Perft(int maxDepth) {
+        this.maxDepth = maxDepth;
+        moves = new int[maxDepth + 1][LegalMoveGenerator.MAX_MOVES];
+        records = new UndoRecord[maxDepth + 1];
+        for(int ply = 0; ply <= maxDepth; ply++) {
+            records[ply] = new UndoRecord();
+        }
+    }
+
+    /**
+     * Count the leaf nodes on a single thread. The board is left as it was.
+     * @param board board to search, moved in place and taken back
+     * @param depth number of plies
+     * @return number of leaf nodes
+     **/
+    public long count(Board board, int depth) {
+        if(depth > maxDepth) {
+            throw new IllegalArgumentException("Depth " + depth + " deeper than " + maxDepth);
+        }
+        return count(board, new LegalMoveGenerator(board), depth);
+    }
+
+    private long count(Board board, LegalMoveGenerator generator, int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        int[] plyMoves = moves[depth];
+        int count = generator.generate(board.getTurn(), plyMoves);
+        if(depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        UndoRecord record = records[depth];
+        for(int i = 0; i < count; i++) {
+            int move = plyMoves[i];
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)], record);
+            nodes += count(board, generator, depth - 1);
+            board.unmakeMove(record);
+        }
+        return nodes;
+    }
+
+    /**
+     * Count the leaf nodes below every root move, spread over a fork-join pool
+     * @param board board to search, left unchanged
+     * @param depth number of plies, at least 1
+     * @param pool pool running one task per root move
+     * @return leaf nodes per root move, in move generation order, keyed as start-end
+     **/
+    public static Map<String, Long> divide(Board board, int depth, ForkJoinPool pool) {
+        if(depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1: " + depth);
+        }
+        int[] rootMoves = new int[LegalMoveGenerator.MAX_MOVES];
+        int count = new LegalMoveGenerator(board).generate(board.getTurn(), rootMoves);
+        List<RootMoveTask> tasks = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            tasks.add(new RootMoveTask(board, rootMoves[i], depth - 1));
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for(RootMoveTask task: tasks) {
+            result.put(task.label(), task.join());
+        }
+        return result;
+    }
+
+    /**
+     * Count the leaf nodes to the depth, spread over a fork-join pool
+     * @param board board to search, left unchanged
+     * @param depth number of plies
+     * @param pool pool running one task per root move
+     * @return number of leaf nodes
+     **/
+    public static long count(Board board, int depth, ForkJoinPool pool) {
+        if(depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(long rootNodes: divide(board, depth, pool).values()) {
+            nodes += rootNodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Task counting the leaf nodes below a single root move, on its own copy of the board
+     **/
+    private static class RootMoveTask extends RecursiveTask<Long> {
+
+        private final Board board;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(Board board, int move, int depth) {
+            this.board = new Board(board);
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+            return new Perft(depth).count(board, depth);
+        }
+
+        String label() {
+            return POSITIONS[LegalMoveGenerator.from(move)] + "-" + POSITIONS[LegalMoveGenerator.to(move)];
+        }
+    }
+
+    /**
+     * Parse a position written as the colour to move followed by position and piece labels,
+     * e.g. "B Be1=BK Re1=RK Ge1=GK Bd4=GQ"
+     * @param position the position text
+     * @return the board
+     **/
+    public static Board parseBoard(String position) throws InvalidPositionException {
+        String[] tokens = position.trim().split("\\s+");
+        Colour turn = null;
+        for(Colour colour: Colour.values()) {
+            if(colour.toString().equals(tokens[0])) {
+                turn = colour;
+            }
+        }
+        if(turn == null) {
+            throw new IllegalArgumentException("Invalid colour to move: " + tokens[0]);
+        }
+        Map<String, String> viewBoard = new HashMap<>();
+        for(int i = 1; i < tokens.length; i++) {
+            String[] pair = tokens[i].split("=");
+            if(pair.length != 2) {
+                throw new IllegalArgumentException("Invalid piece: " + tokens[i]);
+            }
+            viewBoard.put(pair[0], pair[1]);
+        }
+        return new Board(BoardAdapter.convertViewBoardToModelBoard(viewBoard), turn);
+    }
+
+    /**
+     * Perft command: depth [threads] [position]. Prints the divide per root move,
+     * the total and the nodes per second. Without a position the game start is searched.
+     * @param args depth, number of threads (default all processors), position as for parseBoard
+     **/
+    public static void main(String[] args) throws InvalidPositionException {
+        if(args.length < 1) {
+            System.err.println("Usage: Perft depth [threads] [position]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Board board = args.length > 2 ? parseBoard(args[2]) : new Board();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Map<String, Long> divide = depth > 0 ? divide(board, depth, pool) : new LinkedHashMap<>();
+        long nanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        long nodes = depth > 0 ? 0 : 1;
+        for(Map.Entry<String, Long> entry: divide.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Depth " + depth + ", threads " + threads);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + nanos / 1_000_000 + " ms");
+        System.out.println("Nodes/s: " + (nanos > 0 ? nodes * 1_000_000_000L / nanos : nodes));
+    }
+}
@@ -1,5 +1,6 @@
 package utility;
 import common.Colour;
+import common.PieceType;
 import model.BasePiece;
 import model.Bishop;
 import model.Jester;
@@ -43,4 +44,35 @@ public class PieceFactory {
                 throw new IllegalArgumentException("Invalid chess piece type: " + type);
         }
     }
+
+    /**
+     * getValue - material value of a piece type in hundredths of a pawn. Kings can be taken
+     * with three players, so they get a value far above the rest. The jester moves like a knight
+     * but only swaps places instead of taking, the wall moves like a rook but can neither take
+     * nor be taken, so both are worth less than the piece they move like.
+     * @param type - type of the piece
+     * @return int value
+     **/
+    public static int getValue(PieceType type) {
+        switch (type) {
+            case PAWN:
+                return 100;
+            case KNIGHT:
+                return 300;
+            case BISHOP:
+                return 325;
+            case ROOK:
+                return 500;
+            case QUEEN:
+                return 900;
+            case KING:
+                return 2000;
+            case JESTER:
+                return 150;
+            case WALL:
+                return 350;
+            default:
+                throw new IllegalArgumentException("Invalid chess piece type: " + type);
+        }
+    }
 }
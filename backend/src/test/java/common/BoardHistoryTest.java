@@ -0,0 +1,69 @@
+package common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the BoardHistory class.
+ */
+ class BoardHistoryTest {
+
+    private Map<String, String> board;
+    private BoardHistory history;
+
+   /**
+    * Starts a history of capacity 2 at version 0 of a board with two pawns before each test.
+    */
+    @BeforeEach
+    void initBeforeEachBoardHistoryTest() {
+        board = new HashMap<>();
+        board.put("Bd2", "BP");
+        board.put("Gd2", "GP");
+        history = new BoardHistory(board, 0, 2);
+    }
+
+   /**
+    * Tests the changesSince method after a move, expecting the polygon left empty and the polygon
+    * moved to, and no changes for the current version.
+    */
+    @Test
+     void changesSince_oneMove_changedPolygons() {
+        board.remove("Bd2");
+        board.put("Bd4", "BP");
+        BoardHistory next = history.next(board, 1);
+        Map<String, String> changes = next.changesSince(0);
+        assertEquals(2, changes.size());
+        assertEquals(BoardHistory.EMPTY, changes.get("Bd2"));
+        assertEquals("BP", changes.get("Bd4"));
+        assertTrue(next.changesSince(1).isEmpty());
+        assertEquals(board, next.getBoard());
+        assertEquals(0, history.getVersion());
+        assertEquals("BP", history.getBoard().get("Bd2"));
+    }
+
+   /**
+    * Tests the changesSince method for versions older than the capacity, newer than the board
+    * and of an unrelated next version, expecting no changes.
+    */
+    @Test
+     void changesSince_versionNotKept_null() {
+        board.put("Bd4", "BP");
+        BoardHistory next = history.next(board, 1);
+        board.remove("Bd2");
+        next = next.next(board, 2);
+        board.put("Gd4", "GP");
+        next = next.next(board, 3);
+        assertNull(next.changesSince(0));
+        assertEquals(2, next.changesSince(1).size());
+        assertNull(next.changesSince(4));
+        assertNull(next.changesSince(GameState.NO_VERSION));
+        assertNull(next.next(board, 7).changesSince(3));
+    }
+}
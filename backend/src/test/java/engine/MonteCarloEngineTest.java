@@ -0,0 +1,171 @@
+package engine;
+
+import common.Colour;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import utility.Perft;
+
+import java.time.Duration;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * This class contains unit tests for the MonteCarloEngine class.
+ */
+ class MonteCarloEngineTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(10);
+    private static final Position[] POSITIONS = Position.values();
+
+    private MonteCarloEngine engine;
+
+   /**
+    * Initializes a new MonteCarloEngine instance with a fixed seed before each test.
+    */
+    @BeforeEach
+    void initBeforeEachMonteCarloEngineTest() {
+        engine = new MonteCarloEngine();
+        engine.setSeed(1);
+    }
+
+   /**
+    * Parameterized test for the bestMove method on the initial board, expecting a legal move of blue,
+    * the playouts counted and the board left as it was.
+    *
+    * @param threads Number of threads running playouts
+    */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+     void bestMove_initialBoard_legalMoveBoardUnchanged(int threads) {
+        Board board = new Board();
+        long key = board.getZobristKey();
+        engine.setThreads(threads);
+        engine.setMaxPlayouts(500);
+        SearchResult result = engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertTrue(board.isCurrentPlayersPiece(result.getStart()));
+        assertTrue(board.getPossibleMoves(result.getStart()).contains(result.getEnd()), result.toString());
+        assertTrue(result.getNodes() >= 500);
+        assertEquals(key, board.getZobristKey());
+    }
+
+   /**
+    * Parameterized test for the bestMove method with red able to mate the green king on its back row,
+    * expecting the mating move with a winning reward.
+    *
+    * @param threads Number of threads running playouts
+    */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+     void bestMove_mateInOne_playsMate(int threads) throws InvalidPositionException {
+        Board board = Perft.parseBoard("R Be2=BK Re1=RK Ge1=GK Gf1=GB Gd2=GP Ge2=GP Gf2=GP Gh3=GP Ga4=RR");
+        engine.setThreads(threads);
+        engine.setMaxPlayouts(2000);
+        SearchResult result = engine.bestMove(board, Colour.RED, BUDGET);
+        assertEquals(GA4, result.getStart());
+        assertEquals(GA1, result.getEnd());
+        assertTrue(result.getScore() > SearchEngine.SHARE / 2, result.toString());
+    }
+
+   /**
+    * Tests the bestMove method twice with the same seed and one thread, expecting the same move and reward.
+    */
+    @Test
+     void bestMove_sameSeed_sameResult() {
+        engine.setMaxPlayouts(300);
+        SearchResult first = engine.bestMove(new Board(), Colour.BLUE, BUDGET);
+        MonteCarloEngine other = new MonteCarloEngine();
+        other.setSeed(1);
+        other.setMaxPlayouts(300);
+        SearchResult second = other.bestMove(new Board(), Colour.BLUE, BUDGET);
+        assertEquals(first.getStart(), second.getStart());
+        assertEquals(first.getEnd(), second.getEnd());
+        assertEquals(first.getScore(), second.getScore());
+    }
+
+   /**
+    * Tests the bestMove method after the engine move and two replies taken from the tree,
+    * expecting the search to start from the node of the position reached with its playouts kept.
+    */
+    @Test
+     void bestMove_movesInTree_reusesSubtree() {
+        Board board = new Board();
+        engine.setMaxPlayouts(3000);
+        SearchResult result = engine.bestMove(board, Colour.BLUE, BUDGET);
+        board.makeMove(result.getStart(), result.getEnd());
+        MonteCarloNode node = child(engine.getRoot(), LegalMoveGenerator.move(result.getStart().ordinal(), result.getEnd().ordinal()));
+        for (int reply = 0; reply < 2; reply++) {
+            node = mostVisited(node);
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(node.getMove())], POSITIONS[LegalMoveGenerator.to(node.getMove())]);
+        }
+        int visits = node.getVisits();
+        assertTrue(visits > 0);
+
+        engine.setMaxPlayouts(100);
+        engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertSame(node, engine.getRoot());
+        assertEquals(visits + 100, node.getVisits());
+    }
+
+   /**
+    * Tests the bestMove method on a position not reached from the previous root, expecting a new tree.
+    */
+    @Test
+     void bestMove_unrelatedPosition_newTree() throws InvalidPositionException {
+        engine.setMaxPlayouts(100);
+        engine.bestMove(new Board(), Colour.BLUE, BUDGET);
+        MonteCarloNode previous = engine.getRoot();
+        Board board = Perft.parseBoard("R Be2=BK Re1=RK Ge1=GK Gf1=GB Gd2=GP Ge2=GP Gf2=GP Gh3=GP Ga4=RR");
+        engine.bestMove(board, Colour.RED, BUDGET);
+        assertNotNull(engine.getRoot());
+        assertTrue(previous != engine.getRoot());
+        assertEquals(100, engine.getRoot().getVisits());
+    }
+
+   /**
+    * Tests the bestMove method with the colour not to move, expecting an IllegalArgumentException.
+    */
+    @Test
+     void bestMove_notTurnOfColour_throws() {
+        assertThrows(IllegalArgumentException.class, () -> engine.bestMove(new Board(), Colour.GREEN, BUDGET));
+    }
+
+   /**
+    * Tests the setThreads method with no thread, expecting an IllegalArgumentException.
+    */
+    @Test
+     void setThreads_zero_throws() {
+        assertThrows(IllegalArgumentException.class, () -> engine.setThreads(0));
+    }
+
+    private static MonteCarloNode child(MonteCarloNode node, int move) {
+        for (MonteCarloNode child : node.getChildren()) {
+            if (child.getMove() == move) {
+                return child;
+            }
+        }
+        return fail("No child for move " + move);
+    }
+
+    private static MonteCarloNode mostVisited(MonteCarloNode node) {
+        MonteCarloNode best = null;
+        for (MonteCarloNode child : node.getChildren()) {
+            if (best == null || child.getVisits() > best.getVisits()) {
+                best = child;
+            }
+        }
+        assertNotNull(best);
+        return best;
+    }
+}
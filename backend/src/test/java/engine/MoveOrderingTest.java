@@ -0,0 +1,129 @@
+package engine;
+
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.Perft;
+
+import java.util.Arrays;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the MoveOrdering class.
+ */
+ class MoveOrderingTest {
+
+    private static final int ROOK_QUIET = move(BH1, BH2);
+    private static final int PAWN_TAKES_QUEEN = move(BD2, BC3);
+    private static final int PAWN_TAKES_PAWN = move(BG2, BF3);
+    private static final int BISHOP_TAKES_QUEEN = move(BB2, BC3);
+    private static final int JESTER_SWAP = move(BA3, BC4);
+    private static final int KNIGHT_QUIET = move(BG1, BH3);
+
+    private Board board;
+    private MoveOrdering ordering;
+
+   /**
+    * Initializes a board with blue captures of a green queen, pawn and rook and a new MoveOrdering before each test.
+    */
+    @BeforeEach
+    void initBeforeEachMoveOrderingTest() throws InvalidPositionException {
+        board = Perft.parseBoard("B Be1=BK Re1=RK Ge1=GK Bd2=BP Bb2=BB Bg2=BP Bh1=BR Ba3=BJ Bg1=BN"
+                + " Bc3=GQ Bf3=GP Bc4=GR");
+        ordering = new MoveOrdering();
+    }
+
+   /**
+    * Tests the order of captures, expecting the most valuable victim first, the least valuable attacker
+    * first on the same victim, and the jester swap among the quiet moves.
+    */
+    @Test
+     void next_captures_mostValuableVictimLeastValuableAttacker() {
+        int[] moves = {ROOK_QUIET, JESTER_SWAP, PAWN_TAKES_PAWN, BISHOP_TAKES_QUEEN, PAWN_TAKES_QUEEN};
+        int[] ordered = order(moves, 1, 0);
+        assertArrayEquals(new int[] {PAWN_TAKES_QUEEN, BISHOP_TAKES_QUEEN, PAWN_TAKES_PAWN},
+                Arrays.copyOf(ordered, 3));
+        assertEquals(0, MoveOrdering.gain(board, JESTER_SWAP));
+        assertEquals(0, MoveOrdering.gain(board, ROOK_QUIET));
+    }
+
+   /**
+    * Tests the order with a table move, expecting the table move first, even ahead of captures.
+    */
+    @Test
+     void next_hashMove_first() {
+        int[] moves = {PAWN_TAKES_QUEEN, ROOK_QUIET, PAWN_TAKES_PAWN};
+        assertEquals(ROOK_QUIET, order(moves, 1, ROOK_QUIET)[0]);
+    }
+
+   /**
+    * Tests the order after a quiet move cut off, expecting it after the captures of the same ply as a killer
+    * and ahead of the other quiet moves on another ply by its history.
+    */
+    @Test
+     void next_afterQuietCutoff_killerAndHistory() {
+        ordering.cutoff(board, KNIGHT_QUIET, 3, 2);
+        int[] moves = {ROOK_QUIET, JESTER_SWAP, KNIGHT_QUIET, PAWN_TAKES_PAWN};
+        assertArrayEquals(new int[] {PAWN_TAKES_PAWN, KNIGHT_QUIET}, Arrays.copyOf(order(moves.clone(), 2, 0), 2));
+        assertArrayEquals(new int[] {PAWN_TAKES_PAWN, KNIGHT_QUIET}, Arrays.copyOf(order(moves.clone(), 5, 0), 2));
+    }
+
+   /**
+    * Tests the order after quiet moves cut off on the same ply, expecting the latest killer ahead of the earlier
+    * one though the earlier has more history.
+    */
+    @Test
+     void next_twoKillers_latestFirst() {
+        ordering.cutoff(board, ROOK_QUIET, 6, 1);
+        ordering.cutoff(board, KNIGHT_QUIET, 1, 1);
+        int[] moves = {JESTER_SWAP, ROOK_QUIET, KNIGHT_QUIET};
+        assertArrayEquals(new int[] {KNIGHT_QUIET, ROOK_QUIET, JESTER_SWAP}, order(moves.clone(), 1, 0));
+        assertArrayEquals(new int[] {ROOK_QUIET, KNIGHT_QUIET, JESTER_SWAP}, order(moves.clone(), 4, 0));
+    }
+
+   /**
+    * Tests a capture cutting off, expecting it not to become a killer nor to gain history, so the quiet move
+    * with history stays ahead.
+    */
+    @Test
+     void cutoff_capture_noKiller() {
+        ordering.cutoff(board, PAWN_TAKES_PAWN, 3, 1);
+        ordering.cutoff(board, KNIGHT_QUIET, 1, 2);
+        int[] moves = {ROOK_QUIET, KNIGHT_QUIET};
+        assertArrayEquals(new int[] {KNIGHT_QUIET, ROOK_QUIET}, order(moves, 1, 0));
+        assertTrue(MoveOrdering.gain(board, PAWN_TAKES_PAWN) > 0);
+    }
+
+   /**
+    * Tests the staticExchange method, expecting the pawn taking the queen to win material though red guards it,
+    * the bishop taking it to win less, and the rook taking a guarded pawn to lose material.
+    */
+    @Test
+     void staticExchange_guardedVictim_landingPieceLost() throws InvalidPositionException {
+        board = Perft.parseBoard("B Be1=BK Re1=RK Ge1=GK Bd2=BP Bb2=BB Bc1=BR Bc3=GQ Bc4=RR Bc2=GP Bd3=GP");
+        assertEquals(900 - 100, MoveOrdering.staticExchange(board, move(BD2, BC3)));
+        assertEquals(900 - 325, MoveOrdering.staticExchange(board, move(BB2, BC3)));
+        assertEquals(100 - 500, MoveOrdering.staticExchange(board, move(BC1, BC2)));
+        assertEquals(100, MoveOrdering.materialGain(board, move(BC1, BC2)));
+    }
+
+    private int[] order(int[] moves, int ply, int hashMove) {
+        ordering.score(board, moves, moves.length, ply, hashMove);
+        int[] ordered = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            ordered[i] = ordering.next(moves, i, moves.length, ply);
+        }
+        return ordered;
+    }
+
+    private static int move(Position start, Position end) {
+        return LegalMoveGenerator.move(start.ordinal(), end.ordinal());
+    }
+}
@@ -0,0 +1,159 @@
+package engine;
+
+import common.Colour;
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the OpeningBook and OpeningBookBuilder classes.
+ */
+ class OpeningBookTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private OpeningBook book;
+
+   /**
+    * Writes a book of three archived games, two opening with Bd2-Bd4 and one with Be2-Be4,
+    * and opens it before each test.
+    */
+    @BeforeEach
+    void initBeforeEachOpeningBookTest() throws IOException, InvalidMoveException, InvalidPositionException {
+        Path games = directory.resolve("games.txt");
+        Files.write(games, Arrays.asList("# archived games", "Bd2-Bd4 Gd2-Gd4 Rd2-Rd4",
+                "Bd2-Bd4 Ge2-Ge4", "", "Be2-Be4 Gd2-Gd4"), StandardCharsets.UTF_8);
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_PLIES);
+        builder.addGames(games);
+        file = directory.resolve("opening.bin");
+        builder.write(file);
+        book = OpeningBook.open(file);
+    }
+
+   /**
+    * Tests the bestMove method on the initial board, expecting the move played most, and on a
+    * position out of the book, expecting no move.
+    */
+    @Test
+     void bestMove_bookPositions_mostPlayedMove() {
+        Board board = new Board();
+        assertEquals(move(BD2, BD4), book.bestMove(board.getZobristKey()));
+        assertEquals(2, book.countMoves(board.getZobristKey()));
+        board.makeMove(BD2, BD4);
+        assertEquals(2, book.countMoves(board.getZobristKey()));
+        board.makeMove(GD2, GD4);
+        assertEquals(move(RD2, RD4), book.bestMove(board.getZobristKey()));
+        board.makeMove(RD2, RD4);
+        assertEquals(0, book.bestMove(board.getZobristKey()));
+        assertEquals(0, book.countMoves(board.getZobristKey()));
+        assertEquals(6, book.size());
+    }
+
+   /**
+    * Tests the pickMove method on the initial board, expecting only the book moves, each about as
+    * often as its weight.
+    */
+    @Test
+     void pickMove_initialBoard_inProportionToWeight() {
+        long key = new Board().getZobristKey();
+        Random random = new Random(1);
+        int first = 0;
+        for (int i = 0; i < 3000; i++) {
+            int move = book.pickMove(key, random);
+            assertTrue(move == move(BD2, BD4) || move == move(BE2, BE4), Integer.toString(move));
+            if (move == move(BD2, BD4)) {
+                first++;
+            }
+        }
+        assertTrue(first > 1800 && first < 2200, Integer.toString(first));
+        assertEquals(0, book.pickMove(key + 1, random));
+    }
+
+   /**
+    * Tests the open method on the same file twice, expecting the same book shared by both.
+    */
+    @Test
+     void open_sameFile_sharedBook() throws IOException {
+        assertSame(book, OpeningBook.open(directory.resolve("x").resolve("..").resolve("opening.bin")));
+    }
+
+   /**
+    * Tests the open method on a file that is not a book, expecting an IOException.
+    */
+    @Test
+     void open_notBook_throwsException() throws IOException {
+        Path other = directory.resolve("other.bin");
+        Files.write(other, "not a book".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> OpeningBook.open(other));
+    }
+
+   /**
+    * Tests the addGame method with an illegal move, expecting an InvalidMoveException.
+    */
+    @Test
+     void addGame_illegalMove_throwsException() {
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        assertThrows(InvalidMoveException.class, () -> builder.addGame(Arrays.asList("Bd2-Bd4", "Gd2-Gd1")));
+        assertThrows(InvalidPositionException.class, () -> builder.addGame(Arrays.asList("Bd2Bd4")));
+    }
+
+   /**
+    * Tests the selfPlay method, expecting one move of the initial board per game and the first
+    * plies of every game in the book.
+    */
+    @Test
+     void selfPlay_games_firstPliesInBook() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3);
+        builder.selfPlay(4, 50, 1);
+        Path selfPlay = directory.resolve("self-play.bin");
+        builder.write(selfPlay);
+        OpeningBook played = OpeningBook.open(selfPlay);
+        int moves = played.countMoves(new Board().getZobristKey());
+        assertTrue(moves >= 1 && moves <= 4, Integer.toString(moves));
+        assertTrue(played.size() >= 3 && played.size() <= 12, Integer.toString(played.size()));
+    }
+
+   /**
+    * Tests the bestMove method of the SearchEngine with the book, expecting the book move without a search
+    * in the book and a search out of it.
+    */
+    @Test
+     void searchEngine_openingBook_bookMoveWithoutSearch() {
+        SearchEngine engine = new SearchEngine();
+        engine.setOpeningBook(book);
+        engine.setMaxDepth(2);
+        Board board = new Board();
+        SearchResult result = engine.bestMove(board, Colour.BLUE, Duration.ofSeconds(10));
+        assertEquals(BD2, result.getStart());
+        assertEquals(BD4, result.getEnd());
+        assertEquals(0, result.getNodes());
+        board.makeMove(BA2, BA3);
+        result = engine.bestMove(board, Colour.GREEN, Duration.ofSeconds(10));
+        assertTrue(result.getNodes() > 0);
+    }
+
+    private static int move(Position start, Position end) {
+        return LegalMoveGenerator.move(start.ordinal(), end.ordinal());
+    }
+}
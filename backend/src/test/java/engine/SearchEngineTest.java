@@ -0,0 +1,229 @@
+package engine;
+
+import common.Colour;
+import common.InvalidPositionException;
+import model.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import utility.Perft;
+
+import java.time.Duration;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the SearchEngine class.
+ */
+ class SearchEngineTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(10);
+
+    private SearchEngine engine;
+
+   /**
+    * Initializes a new SearchEngine instance before each test.
+    */
+    @BeforeEach
+    void initBeforeEachSearchEngineTest() {
+        engine = new SearchEngine();
+    }
+
+   /**
+    * Parameterized test for the bestMove method on the initial board, expecting a legal move of blue
+    * and the board left as it was in every search mode.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+     void bestMove_initialBoard_legalMoveBoardUnchanged(SearchMode mode) {
+        Board board = new Board();
+        engine.setMode(mode);
+        long key = board.getZobristKey();
+        engine.setMaxDepth(3);
+        SearchResult result = engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertTrue(board.isCurrentPlayersPiece(result.getStart()));
+        assertTrue(board.getPossibleMoves(result.getStart()).contains(result.getEnd()), result.toString());
+        assertEquals(3, result.getDepth());
+        assertEquals(key, board.getZobristKey());
+    }
+
+   /**
+    * Parameterized test for the bestMove method with red able to mate the green king on its back row,
+    * expecting the mating move with a winning score in every search mode.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+     void bestMove_mateInOne_playsMate(SearchMode mode) throws InvalidPositionException {
+        Board board = Perft.parseBoard("R Be2=BK Re1=RK Ge1=GK Gf1=GB Gd2=GP Ge2=GP Gf2=GP Gh3=GP Ga4=RR");
+        engine.setMode(mode);
+        engine.setMaxDepth(3);
+        SearchResult result = engine.bestMove(board, Colour.RED, BUDGET);
+        assertEquals(GA4, result.getStart());
+        assertEquals(GA1, result.getEnd());
+        int winBound = mode == SearchMode.MAX_N ? SearchEngine.SHARE_WIN_BOUND : SearchEngine.MATE_BOUND;
+        assertTrue(result.getScore() >= winBound, result.toString());
+    }
+
+   /**
+    * Parameterized test for the bestMove method with a queen left unprotected in front of a rook,
+    * expecting the rook to take the queen in every search mode.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+     void bestMove_hangingQueen_takesQueen(SearchMode mode) throws InvalidPositionException {
+        Board board = Perft.parseBoard("B Be1=BK Ge1=GK Re1=RK Ba1=BR Ba4=RQ");
+        engine.setMode(mode);
+        engine.setMaxDepth(3);
+        SearchResult result = engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertEquals(BA1, result.getStart());
+        assertEquals(BA4, result.getEnd());
+    }
+
+   /**
+    * Parameterized test for the bestMove method with a short budget and no depth limit,
+    * expecting a move soon after the budget is spent in every search mode.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+     void bestMove_shortBudget_stopsInTime(SearchMode mode) {
+        Board board = new Board();
+        engine.setMode(mode);
+        long start = System.nanoTime();
+        SearchResult result = engine.bestMove(board, Colour.BLUE, Duration.ofMillis(200));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(millis < 1000, "took " + millis + " ms");
+        assertTrue(board.getPossibleMoves(result.getStart()).contains(result.getEnd()));
+        assertTrue(result.getNodes() > 0);
+    }
+
+   /**
+    * Tests the bestMove method on a midgame position with and without a transposition table,
+    * expecting the same depth searched with fewer positions when transpositions are looked up.
+    */
+    @Test
+     void bestMove_transpositionTable_fewerNodes() throws InvalidPositionException {
+        Board board = Perft.parseBoard("B Ba2=BJ Ba3=GR Bb3=BP Bc1=BB Bd1=BQ Bd2=BP Bd3=GB Bd4=GN Be2=BP Bf1=BB Bf2=BK"
+                + " Bf4=BP Bg1=BN Bg3=BP Bg4=BR Bh2=BW Ga1=GR Ga2=GJ Gb1=GN Gb2=GP Gc4=GP Gd2=GB Gd4=GP Ge1=GK Ge2=GQ"
+                + " Ge4=BN Gf2=GP Gg3=GP Gh2=GW Ra1=RR Ra2=RJ Ra4=RW Rb4=RP Rc1=RB Rc2=RP Rc3=RN Rd1=RQ Rd2=RP Re2=RP"
+                + " Rf1=RK Rf2=RP Rf4=RN Rg4=RP Rh2=RR");
+        engine.setMaxDepth(4);
+        engine.setHashSize(0);
+        SearchResult without = engine.bestMove(board, Colour.BLUE, BUDGET);
+        engine.setHashSize(SearchEngine.DEFAULT_HASH_SIZE);
+        SearchResult with = engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertEquals(4, with.getDepth());
+        assertEquals(without.getScore(), with.getScore());
+        assertTrue(with.getNodes() < without.getNodes(), with.getNodes() + " >= " + without.getNodes());
+    }
+
+   /**
+    * Parameterized test for the bestMove method on the initial board with and without move ordering,
+    * expecting the same depth searched with fewer positions when the moves are ordered in the alpha-beta modes.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(value = SearchMode.class, names = {"PARANOID", "BEST_REPLY"})
+     void bestMove_moveOrdering_fewerNodes(SearchMode mode) {
+        engine.setMode(mode);
+        engine.setMaxDepth(4);
+        engine.setMoveOrdering(false);
+        SearchResult without = engine.bestMove(new Board(), Colour.BLUE, BUDGET);
+        engine.setMoveOrdering(true);
+        engine.setHashSize(SearchEngine.DEFAULT_HASH_SIZE);
+        SearchResult with = engine.bestMove(new Board(), Colour.BLUE, BUDGET);
+        assertEquals(4, with.getDepth());
+        assertTrue(with.getNodes() < without.getNodes(), with.getNodes() + " >= " + without.getNodes());
+    }
+
+   /**
+    * Parameterized test for the bestMove method at depth 1 with a pawn guarded by another pawn in front of
+    * the queen, expecting the queen to take it without the quiescence search and to leave it with it.
+    *
+    * @param mode Search mode of the engine
+    */
+    @ParameterizedTest
+    @EnumSource(SearchMode.class)
+     void bestMove_guardedPawn_quiescenceSeesRecapture(SearchMode mode) throws InvalidPositionException {
+        String position = "B Be1=BK Ge1=GK Re1=RK Bd1=BQ Bd3=GP Be4=GP";
+        engine.setMode(mode);
+        engine.setMaxDepth(1);
+        engine.setQuiescence(false);
+        SearchResult without = engine.bestMove(Perft.parseBoard(position), Colour.BLUE, BUDGET);
+        assertEquals(BD3, without.getEnd());
+        engine.setQuiescence(true);
+        engine.setHashSize(SearchEngine.DEFAULT_HASH_SIZE);
+        SearchResult with = engine.bestMove(Perft.parseBoard(position), Colour.BLUE, BUDGET);
+        assertTrue(with.getEnd() != BD3, with.toString());
+    }
+
+   /**
+    * Parameterized test for the bestMove method searching with several threads,
+    * expecting the mating move and, on the initial board, a legal move with the board unchanged.
+    *
+    * @param threads Number of search threads
+    */
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4})
+     void bestMove_severalThreads_mateFoundBoardUnchanged(int threads) throws InvalidPositionException {
+        engine.setThreads(threads);
+        engine.setMaxDepth(3);
+        Board board = Perft.parseBoard("R Be2=BK Re1=RK Ge1=GK Gf1=GB Gd2=GP Ge2=GP Gf2=GP Gh3=GP Ga4=RR");
+        SearchResult result = engine.bestMove(board, Colour.RED, BUDGET);
+        assertEquals(GA4, result.getStart());
+        assertEquals(GA1, result.getEnd());
+
+        board = new Board();
+        long key = board.getZobristKey();
+        result = engine.bestMove(board, Colour.BLUE, BUDGET);
+        assertTrue(board.getPossibleMoves(result.getStart()).contains(result.getEnd()), result.toString());
+        assertEquals(3, result.getDepth());
+        assertEquals(key, board.getZobristKey());
+    }
+
+   /**
+    * Tests the bestMove method with a single thread on two new engines,
+    * expecting the same move, score and number of positions.
+    */
+    @Test
+     void bestMove_singleThread_deterministic() {
+        engine.setMaxDepth(4);
+        SearchResult first = engine.bestMove(new Board(), Colour.BLUE, BUDGET);
+        SearchEngine other = new SearchEngine();
+        other.setMaxDepth(4);
+        SearchResult second = other.bestMove(new Board(), Colour.BLUE, BUDGET);
+        assertEquals(first.getStart(), second.getStart());
+        assertEquals(first.getEnd(), second.getEnd());
+        assertEquals(first.getScore(), second.getScore());
+        assertEquals(first.getNodes(), second.getNodes());
+    }
+
+   /**
+    * Tests the setThreads method with no thread, expecting an IllegalArgumentException.
+    */
+    @Test
+     void setThreads_zero_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> engine.setThreads(0));
+    }
+
+   /**
+    * Tests the bestMove method for a colour whose turn it is not, expecting an IllegalArgumentException.
+    */
+    @Test
+     void bestMove_notColourToMove_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> engine.bestMove(new Board(), Colour.GREEN, BUDGET));
+    }
+}
@@ -0,0 +1,141 @@
+package engine;
+
+import common.Colour;
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import model.LegalMoveGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utility.Perft;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the Tablebase, TablebaseGenerator and Tablebases classes.
+ */
+ class TablebaseTest {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase table;
+    private static Tablebases tablebases;
+
+   /**
+    * Generates the table of a blue king and rook against a red king, and the tables of the captures
+    * it leads to, once for all tests.
+    */
+    @BeforeAll
+    static void initBeforeAllTablebaseTest() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        table = new TablebaseGenerator(directory, pool).generate(Tablebase.material("BK BR RK"));
+        pool.shutdown();
+        tablebases = Tablebases.open(directory);
+    }
+
+   /**
+    * Tests the material method on the same pieces in another order and on invalid pieces,
+    * expecting the same material set and an IllegalArgumentException.
+    */
+    @Test
+     void material_piecesInAnyOrder_sameMaterial() {
+        long material = Tablebase.material("BK RQ");
+        assertEquals(material, Tablebase.material("RQ,BK"));
+        assertEquals("BKRQ", Tablebase.name(material));
+        assertEquals(2, Tablebase.pieces(material));
+        assertThrows(IllegalArgumentException.class, () -> Tablebase.material("BK XQ"));
+        assertThrows(IllegalArgumentException.class, () -> Tablebase.material("BK GK RK BQ GQ"));
+    }
+
+   /**
+    * Tests the generate method, expecting a file per material set, the tables of taking the king
+    * and of taking a piece of the lone pairs too, as the game goes on after a king is taken.
+    */
+    @Test
+     void generate_kingAndRookAgainstKing_tablesWritten() throws IOException {
+        assertTrue(Files.exists(TablebaseGenerator.file(directory, Tablebase.material("BK BR RK"))));
+        assertTrue(Files.exists(TablebaseGenerator.file(directory, Tablebase.material("BK BR"))));
+        assertTrue(Files.exists(TablebaseGenerator.file(directory, Tablebase.material("BR RK"))));
+        assertTrue(Files.exists(TablebaseGenerator.file(directory, Tablebase.material("BK"))));
+        assertEquals(7, tablebases.size());
+        assertEquals(3 * 96 * 96 * 96, table.size());
+        assertSame(table, Tablebase.open(TablebaseGenerator.file(directory, Tablebase.material("BK BR RK"))));
+    }
+
+   /**
+    * Tests the probe method, expecting a win in one ply for the checkmate, a draw when the colour
+    * without pieces is to move and a draw after the red king is taken, as taking a king doesn't
+    * end the game.
+    */
+    @Test
+     void probe_kingAndRookAgainstKing_winnerAndDistance() throws InvalidPositionException {
+        int value = tablebases.probe(Perft.parseBoard("B Ba1=BR Bb2=BK Ba3=RK"));
+        assertEquals(Colour.BLUE, Tablebase.winner(value, Colour.BLUE));
+        assertEquals(1, Tablebase.distance(value));
+        value = tablebases.probe(Perft.parseBoard("G Ba1=BR Bb2=BK Ba3=RK"));
+        assertEquals(Tablebase.DRAW, value);
+        assertNull(Tablebase.winner(value, Colour.GREEN));
+        assertEquals(Tablebase.DRAW, tablebases.probe(Perft.parseBoard("G Ba3=BR Bb2=BK")));
+        assertEquals(-1, tablebases.probe(Perft.parseBoard("B Ba1=BR Bb2=BK Ba3=RK Gd1=GK Gd2=GP")));
+        assertEquals(-1, tablebases.probe(new Board()));
+    }
+
+   /**
+    * Tests the bestMove method on a position where the rook can take the red king, expecting the
+    * checkmate instead, which ends the game as in Board.move, and no move out of the tables.
+    */
+    @Test
+     void bestMove_kingCaptureOrMate_checkmate() throws InvalidPositionException, InvalidMoveException {
+        Board board = Perft.parseBoard("B Ba1=BR Bb2=BK Ba3=RK");
+        assertEquals(move(BB2, BC3), tablebases.bestMove(board));
+        board.move(BB2, BC3);
+        assertTrue(board.isGameOver());
+        assertEquals(0, tablebases.bestMove(new Board()));
+    }
+
+   /**
+    * Tests the open method on a file that is not a tablebase, expecting an IOException.
+    */
+    @Test
+     void open_notTablebase_throwsException() throws IOException {
+        Path other = directory.resolve("other.bin");
+        Files.write(other, "not a tablebase".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> Tablebase.open(other));
+    }
+
+   /**
+    * Tests the bestMove method of the SearchEngine with the tables, expecting the table move without
+    * a search in the tables and a search out of them.
+    */
+    @Test
+     void searchEngine_tablebases_tableMoveWithoutSearch() throws InvalidPositionException {
+        SearchEngine engine = new SearchEngine();
+        engine.setTablebases(tablebases);
+        engine.setMaxDepth(2);
+        SearchResult result = engine.bestMove(Perft.parseBoard("B Ba1=BR Bb2=BK Ba3=RK"), Colour.BLUE, Duration.ofSeconds(10));
+        assertEquals(BB2, result.getStart());
+        assertEquals(BC3, result.getEnd());
+        assertEquals(0, result.getNodes());
+        result = engine.bestMove(new Board(), Colour.BLUE, Duration.ofSeconds(10));
+        assertTrue(result.getNodes() > 0);
+    }
+
+    private static int move(Position start, Position end) {
+        return LegalMoveGenerator.move(start.ordinal(), end.ordinal());
+    }
+}
@@ -0,0 +1,139 @@
+package engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the TranspositionTable class.
+ */
+ class TranspositionTableTest {
+
+    private TranspositionTable table;
+
+   /**
+    * Initializes a new 1 MB TranspositionTable instance before each test.
+    */
+    @BeforeEach
+    void initBeforeEachTranspositionTableTest() {
+        table = new TranspositionTable(1);
+    }
+
+   /**
+    * Tests the probe method after a store, expecting every field of the entry back.
+    */
+    @Test
+     void probe_afterStore_entryFields() {
+        table.store(42L, 1234, -99_950, 7, TranspositionTable.LOWER);
+        long data = table.probe(42L);
+        assertEquals(1234, TranspositionTable.move(data));
+        assertEquals(-99_950, TranspositionTable.score(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+    }
+
+   /**
+    * Tests the probe method for a position never stored, expecting a miss.
+    */
+    @Test
+     void probe_unknownKey_miss() {
+        table.store(42L, 1234, 10, 7, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(43L));
+        assertEquals(65536, table.capacity());
+    }
+
+   /**
+    * Tests the store method with a shallower result of the same search,
+    * expecting the deeper result to be kept along with its move.
+    */
+    @Test
+     void store_shallowerSameSearch_deeperKept() {
+        table.store(42L, 1234, 10, 7, TranspositionTable.LOWER);
+        table.store(42L, 0, 20, 3, TranspositionTable.UPPER);
+        assertEquals(7, TranspositionTable.depth(table.probe(42L)));
+
+        table.newSearch();
+        table.store(42L, 0, 20, 3, TranspositionTable.UPPER);
+        long data = table.probe(42L);
+        assertEquals(3, TranspositionTable.depth(data));
+        assertEquals(1234, TranspositionTable.move(data));
+    }
+
+   /**
+    * Tests the store method on a full bucket, expecting the shallowest entry to be replaced
+    * and entries of earlier searches to be replaced before deeper ones of the current search.
+    */
+    @Test
+     void store_fullBucket_replacesShallowestAndOldest() {
+        long buckets = table.capacity() / 4;
+        long[] keys = new long[6];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = 5 + i * buckets; // all in bucket 5
+        }
+        for (int i = 0; i < 4; i++) {
+            table.store(keys[i], 100 + i, i, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(keys[4], 104, 4, 12, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(keys[0]));
+        assertNotEquals(0, table.probe(keys[1]));
+        assertNotEquals(0, table.probe(keys[4]));
+
+        table.newSearch();
+        table.newSearch();
+        table.store(keys[5], 105, 5, 1, TranspositionTable.EXACT);
+        assertEquals(0, table.probe(keys[1]));
+        assertNotEquals(0, table.probe(keys[5]));
+    }
+
+   /**
+    * Tests the table with several threads writing the same buckets without locks,
+    * expecting every entry read to belong to the key it was found under.
+    */
+    @Test
+     void probe_concurrentWriters_noTornEntries() throws InterruptedException {
+        long buckets = table.capacity() / 4;
+        AtomicInteger mismatches = new AtomicInteger();
+        AtomicInteger hits = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = random.nextInt(64) * buckets + random.nextInt(4);
+                    if (random.nextBoolean()) {
+                        table.store(key, expectedMove(key), (int) key, 1 + random.nextInt(20), TranspositionTable.EXACT);
+                    } else {
+                        long data = table.probe(key);
+                        if (data != 0) {
+                            hits.incrementAndGet();
+                            if (TranspositionTable.move(data) != expectedMove(key) || TranspositionTable.score(data) != (int) key) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(hits.get() > 0);
+        assertEquals(0, mismatches.get());
+    }
+
+    private static int expectedMove(long key) {
+        return (int) (key % 12_000) + 1;
+    }
+}
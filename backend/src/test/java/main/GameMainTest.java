@@ -134,4 +134,52 @@ import static org.junit.jupiter.api.Assertions.*;
         assertEquals(Colour.BLUE, gameMain.getTurn());
     }
 
+   /**
+    * Tests the onMove method with a valid move after a selection, expecting the move made,
+    * no highlight and green turn.
+    */
+    @Test
+     void onMove_validMoveAfterSelection_moveMade() {
+        gameMain.onClick("Ba2");
+        GameState response = gameMain.onMove("Bb2", "Bb4");
+        assertEquals(0, response.getHighlightedPolygons().size());
+        assertEquals("BP", response.getBoard().get("Bb4"));
+        assertNull(response.getBoard().get("Bb2"));
+        assertEquals(Colour.GREEN, gameMain.getTurn());
+    }
+
+   /**
+    * Tests the onMove method with a piece of another colour and with an invalid label,
+    * expecting no board change and blue turn.
+    */
+    @Test
+     void onMove_notCurrentPlayersPiece_noBoardChange() {
+        Map<String, String> oldBoard = gameMain.getBoard();
+        gameMain.onMove("Gb2", "Gb4");
+        gameMain.onMove("Bb2", "Ri33");
+        assertEquals(oldBoard, gameMain.getBoard());
+        assertEquals(Colour.BLUE, gameMain.getTurn());
+    }
+
+   /**
+    * Tests the onClick method with the known version, expecting only the changed polygons of a move
+    * and the full board for an unknown version.
+    */
+    @Test
+     void onClick_knownVersion_onlyChangedPolygons() {
+        GameState response = gameMain.onClick("Bb2", 0);
+        assertEquals(0, response.getVersion());
+        assertTrue(response.getChanges().isEmpty());
+        assertNull(response.getBoard());
+        response = gameMain.onClick("Bb4", 0);
+        assertEquals(1, response.getVersion());
+        assertEquals(0, response.getSince());
+        assertEquals("BP", response.getChanges().get("Bb4"));
+        assertEquals("", response.getChanges().get("Bb2"));
+        assertEquals(2, response.getChanges().size());
+        response = gameMain.onClick("Gb2", GameState.NO_VERSION);
+        assertNull(response.getChanges());
+        assertEquals(gameMain.getBoard(), response.getBoard());
+    }
+
 }
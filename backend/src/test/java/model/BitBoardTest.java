@@ -0,0 +1,184 @@
+package model;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static utility.BoardAdapter.convertModelBoardToViewBoard;
+
+/**
+ * This class contains unit tests for the BitBoard class.
+ */
+ class BitBoardTest {
+
+    private BitBoard bitBoard;
+
+   /**
+    * Initializes the BitBoard of a new Board instance before each test.
+    */
+    @BeforeEach
+    void initBeforeEachBitBoardTest() {
+        bitBoard = new Board().boardMap;
+    }
+
+   /**
+    * Tests the size of the board on game start, expecting 16 pieces per colour.
+    */
+    @Test
+     void size_initialBoard_fortyEightPieces() {
+        assertEquals(48, bitBoard.size());
+        for(Colour colour: Colour.values()) {
+            assertEquals(16, Long.bitCount(bitBoard.getColourBits(colour, 0)) + Long.bitCount(bitBoard.getColourBits(colour, 1)));
+        }
+    }
+
+   /**
+    * Parameterized test for the piece type bits, expecting the bits to match the pieces in the array.
+    *
+    * @param type Type of the pieces
+    */
+    @ParameterizedTest
+    @EnumSource(PieceType.class)
+     void getTypeBits_initialBoard_matchPiecesOnBoard(PieceType type) {
+        for(Position position: Position.values()) {
+            BasePiece piece = bitBoard.get(position);
+            boolean expected = piece != null && piece.getType() == type;
+            assertEquals(expected, BitBoard.contains(bitBoard.getTypeBits(type, 0), bitBoard.getTypeBits(type, 1), position.ordinal()));
+        }
+    }
+
+   /**
+    * Tests the put method replacing a piece of a different colour,
+    * expecting the colour bits of both colours to be updated.
+    */
+    @Test
+     void put_replacePieceOfOtherColour_colourBitsUpdated() {
+        BasePiece queen = new Queen(Colour.RED);
+        BasePiece previous = bitBoard.put(BE2, queen);
+
+        assertEquals(Colour.BLUE, previous.getColour());
+        assertSame(queen, bitBoard.get(BE2));
+        assertEquals(48, bitBoard.size());
+        assertFalse(BitBoard.contains(bitBoard.getColourBits(Colour.BLUE, 0), bitBoard.getColourBits(Colour.BLUE, 1), BE2.ordinal()));
+        assertTrue(BitBoard.contains(bitBoard.getColourBits(Colour.RED, 0), bitBoard.getColourBits(Colour.RED, 1), BE2.ordinal()));
+    }
+
+   /**
+    * Tests the put method with a null piece, expecting the position to be emptied.
+    */
+    @Test
+     void put_nullPiece_positionRemoved() {
+        bitBoard.put(RH2, null);
+        assertNull(bitBoard.get(RH2));
+        assertFalse(bitBoard.containsKey(RH2));
+        assertEquals(47, bitBoard.size());
+    }
+
+   /**
+    * Tests the next method iterating the red pieces, expecting all red positions in index order.
+    */
+    @Test
+     void next_iterateRedPieces_allRedPositionsInOrder() {
+        int previous = -1;
+        int count = 0;
+        for(int index = bitBoard.next(Colour.RED, 0); index >= 0; index = bitBoard.next(Colour.RED, index + 1)) {
+            assertTrue(index > previous);
+            assertEquals(Colour.RED, bitBoard.get(index).getColour());
+            previous = index;
+            count++;
+        }
+        assertEquals(16, count);
+    }
+
+   /**
+    * Tests the copy constructor, expecting changes on the copy to leave the original untouched.
+    */
+    @Test
+     void copyConstructor_moveOnCopy_originalUnchanged() {
+        BitBoard copy = new BitBoard(bitBoard);
+        copy.put(BE4, copy.remove(BE2));
+
+        assertNull(copy.get(BE2));
+        assertTrue(bitBoard.containsKey(BE2));
+        assertFalse(bitBoard.containsKey(BE4));
+    }
+
+   /**
+    * Tests the clear method, expecting an empty board without any occupancy bits.
+    */
+    @Test
+     void clear_initialBoard_noOccupancyBits() {
+        bitBoard.clear();
+        assertTrue(bitBoard.isEmpty());
+        assertEquals(0, bitBoard.getOccupiedBits(0));
+        assertEquals(0, bitBoard.getOccupiedBits(1));
+        assertEquals(-1, bitBoard.nextOccupied(0));
+    }
+
+   /**
+    * Tests the view board conversion, expecting the same result as the conversion of a hash map.
+    */
+    @Test
+     void convertModelBoardToViewBoard_bitBoard_sameAsHashMap() {
+        Map<Position, BasePiece> hashMap = new HashMap<>(bitBoard);
+        assertEquals(hashMap, bitBoard);
+        assertEquals(convertModelBoardToViewBoard(hashMap), convertModelBoardToViewBoard(bitBoard));
+    }
+
+   /**
+    * Tests the getType method, expecting the type of the piece on every polygon and none after it left.
+    */
+    @Test
+     void getType_initialBoardAndPieceRemoved_typeOfPiece() {
+        for(Position position: Position.values()) {
+            BasePiece piece = bitBoard.get(position);
+            assertEquals(piece == null ? null : piece.getType(), bitBoard.getType(position.ordinal()));
+        }
+        bitBoard.remove(GD1);
+        assertNull(bitBoard.getType(GD1.ordinal()));
+    }
+
+   /**
+    * Tests the isWall method, expecting the wall bits to follow a wall as it moves.
+    */
+    @Test
+     void isWall_wallMoved_wallBitsFollow() {
+        for(Position position: Position.values()) {
+            assertEquals(bitBoard.get(position) instanceof Wall, bitBoard.isWall(position.ordinal()));
+        }
+        bitBoard.put(BH3, bitBoard.remove(BH2));
+        assertFalse(bitBoard.isWall(BH2.ordinal()));
+        assertTrue(bitBoard.isWall(BH3.ordinal()));
+    }
+
+   /**
+    * Tests the highlighted polygons of every piece with walls moved into play,
+    * expecting the same polygons on the BitBoard and on a hash map holding the same pieces.
+    */
+    @Test
+     void getHighlightPolygons_wallsInPlay_sameOnHashMap() {
+        bitBoard.put(GC3, bitBoard.remove(GH2));
+        bitBoard.put(BE3, bitBoard.remove(RH2));
+        bitBoard.remove(BE2);
+        Map<Position, BasePiece> hashMap = new HashMap<>(bitBoard);
+        for(Position position: Position.values()) {
+            BasePiece piece = bitBoard.get(position);
+            if(piece != null) {
+                assertEquals(piece.getHighlightPolygons(hashMap, position), piece.getHighlightPolygons(bitBoard, position), position.toString());
+            }
+        }
+    }
+}
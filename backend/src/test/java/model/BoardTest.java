@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -156,4 +157,257 @@ import static org.junit.jupiter.api.Assertions.*;
         Set<Position> possibleMoves = board.getPossibleMoves(BH1);
         assertFalse(possibleMoves.isEmpty());
     }
+
+   /**
+    * Tests the makeMove and unmakeMove methods for a capture,
+    * expecting the captured piece and the turn to be restored.
+    */
+    @Test
+     void unmakeMove_afterCapture_boardAndTurnRestored() {
+        BasePiece blueQueen = new Queen(Colour.BLUE);
+        boardMap.put(BE4, blueQueen);
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+
+        UndoRecord record = board.makeMove(BE4, GD2);
+        assertTrue(record.isCapture());
+        assertEquals(blueQueen, boardMap.get(GD2));
+        assertEquals(Colour.GREEN, board.getTurn());
+
+        board.unmakeMove(record);
+        assertEquals(before, boardMap);
+        assertEquals(Colour.BLUE, board.getTurn());
+    }
+
+   /**
+    * Tests the makeMove and unmakeMove methods for a jester swap,
+    * expecting both pieces to switch places and switch back.
+    */
+    @Test
+     void unmakeMove_afterJesterSwap_piecesSwitchBack() {
+        BasePiece jester = boardMap.get(BA2);
+        BasePiece greenKnight = new Knight(Colour.GREEN);
+        boardMap.put(BB4, greenKnight);
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+
+        UndoRecord record = board.makeMove(BA2, BB4);
+        assertTrue(record.isJesterSwap());
+        assertEquals(jester, boardMap.get(BB4));
+        assertEquals(greenKnight, boardMap.get(BA2));
+
+        board.unmakeMove(record);
+        assertEquals(before, boardMap);
+    }
+
+   /**
+    * Tests the makeMove and unmakeMove methods for castling,
+    * expecting the rook to be relocated and put back.
+    */
+    @Test
+     void unmakeMove_afterCastling_rookPutBack() {
+        boardMap.remove(BF1);
+        boardMap.remove(BG1);
+        BasePiece rightRook = boardMap.get(BH1);
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+
+        UndoRecord record = board.makeMove(BE1, BG1);
+        assertTrue(record.isCastling());
+        assertEquals(rightRook, boardMap.get(BF1));
+        assertNull(boardMap.get(BH1));
+
+        board.unmakeMove(record);
+        assertEquals(before, boardMap);
+    }
+
+   /**
+    * Tests the makeMove and unmakeMove methods for a pawn promotion,
+    * expecting the queen to be replaced by the pawn again.
+    */
+    @Test
+     void unmakeMove_afterPromotion_pawnRestored() {
+        BasePiece bluePawn = new Pawn(Colour.BLUE);
+        boardMap.put(RA2, bluePawn);
+        boardMap.remove(RA1);
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+
+        UndoRecord record = board.makeMove(RA2, RA1);
+        assertTrue(record.isPromotion());
+        assertInstanceOf(Queen.class, boardMap.get(RA1));
+
+        board.unmakeMove(record);
+        assertEquals(before, boardMap);
+        assertEquals(bluePawn, boardMap.get(RA2));
+    }
+
+   /**
+    * Tests the makeNullMove and unmakeMove methods,
+    * expecting the turn to pass without a piece moving and to come back.
+    */
+    @Test
+     void unmakeMove_afterNullMove_turnRestored() {
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+        long key = board.getZobristKey();
+
+        UndoRecord record = board.makeNullMove(new UndoRecord());
+        assertTrue(record.isNullMove());
+        assertFalse(record.isCapture());
+        assertEquals(Colour.GREEN, board.getTurn());
+        assertEquals(before, boardMap);
+        assertNotEquals(key, board.getZobristKey());
+
+        board.unmakeMove(record);
+        assertEquals(Colour.BLUE, board.getTurn());
+        assertEquals(key, board.getZobristKey());
+    }
+
+   /**
+    * Tests the getPossibleMoves method, expecting the board to be unchanged
+    * after all candidate moves have been tried.
+    */
+    @Test
+     void getPossibleMoves_candidateMovesTried_boardUnchanged() {
+        Map<Position, BasePiece> before = new HashMap<>(boardMap);
+        for(Position position: Position.values()) {
+            board.getPossibleMoves(position);
+        }
+        assertEquals(before, boardMap);
+        assertEquals(Colour.BLUE, board.getTurn());
+    }
+
+   /**
+    * Tests the isSquareAttacked method on the initial board with some pieces moved into play,
+    * expecting the same result as the highlighted polygons of the attacking pieces for every
+    * polygon held by a piece of another colour.
+    */
+    @Test
+     void isSquareAttacked_piecesInPlay_matchesHighlightedPolygons() {
+        boardMap.put(BE4, boardMap.remove(BE2));
+        boardMap.put(GD4, boardMap.remove(BD1));
+        boardMap.put(RC4, boardMap.remove(RF1));
+        boardMap.put(BF3, boardMap.remove(GG1));
+        for(Colour byColour: Colour.values()) {
+            Set<Position> expected = new HashSet<>();
+            for(Position position: Position.values()) {
+                BasePiece piece = boardMap.get(position);
+                if(piece != null && piece.getColour() == byColour && !(piece instanceof Jester) && !(piece instanceof Wall)) {
+                    expected.addAll(piece.getHighlightPolygons(boardMap, position));
+                }
+            }
+            for(Position position: Position.values()) {
+                BasePiece piece = boardMap.get(position);
+                if(piece != null && piece.getColour() != byColour && !(piece instanceof Wall)) {
+                    assertEquals(expected.contains(position), board.isSquareAttacked(position, byColour), position + " by " + byColour);
+                }
+            }
+        }
+    }
+
+   /**
+    * Tests the isCheck method with a queen moved in front of the blue king,
+    * expecting only blue to be in check, and no longer after the queen is taken back.
+    */
+    @Test
+     void isCheck_queenNextToKing_onlyKingColourInCheck() {
+        boardMap.remove(BE2);
+        boardMap.put(BE3, new Queen(Colour.RED));
+        assertTrue(board.isCheck(Colour.BLUE));
+        assertFalse(board.isCheck(Colour.GREEN));
+        assertFalse(board.isCheck(Colour.RED));
+
+        boardMap.remove(BE3);
+        assertFalse(board.isCheck(Colour.BLUE));
+    }
+
+   /**
+    * Tests the getAttackBits method, expecting the attack map to match isSquareAttacked
+    * for every polygon, also after the board changed.
+    */
+    @Test
+     void getAttackBits_beforeAndAfterMove_matchesIsSquareAttacked() {
+        Position[][] moves = {{BE2, BE4}, {GD2, GD4}};
+        for(Position[] move: moves) {
+            for(Colour byColour: Colour.values()) {
+                long lo = board.getAttackBits(byColour, 0);
+                long hi = board.getAttackBits(byColour, 1);
+                for(Position position: Position.values()) {
+                    assertEquals(board.isSquareAttacked(position, byColour), BitBoard.contains(lo, hi, position.ordinal()), position + " by " + byColour);
+                }
+            }
+            board.makeMove(move[0], move[1]);
+        }
+    }
+
+   /**
+    * Tests the getKingPosition method, expecting the king position to follow the king.
+    */
+    @Test
+     void getKingPosition_kingMoved_newPosition() {
+        assertEquals(BE1, board.getKingPosition(Colour.BLUE));
+        boardMap.put(BE3, boardMap.remove(BE1));
+        assertEquals(BE3, board.getKingPosition(Colour.BLUE));
+        boardMap.remove(BE3);
+        assertNull(board.getKingPosition(Colour.BLUE));
+    }
+
+   /**
+    * Tests the isLegalMove method after another piece was highlighted,
+    * expecting the moves of the moving piece to be used.
+    */
+    @Test
+     void isLegalMove_otherPieceHighlightedBefore_movesOfMovingPiece() {
+        board.getPossibleMoves(BB1);
+        assertTrue(board.isLegalMove(BE2, BE4));
+        assertFalse(board.isLegalMove(BE2, BA3));
+    }
+
+   /**
+    * Tests the getPossibleMoves method after the board was changed directly,
+    * expecting the legal moves to follow the change.
+    */
+    @Test
+     void getPossibleMoves_boardChangedAfterHighlight_movesFollowBoard() {
+        assertTrue(board.getPossibleMoves(BD2).contains(BD3));
+        boardMap.put(BD3, new Pawn(Colour.RED));
+        assertFalse(board.getPossibleMoves(BD2).contains(BD3));
+    }
+
+   /**
+    * Tests the move method with a rook mating the green king on its back row,
+    * expecting the game to be over with red as the winner.
+    */
+    @Test
+     void move_rookMatesKingOnBackRow_gameOverWithWinner() throws InvalidPositionException, InvalidMoveException {
+        boardMap.clear();
+        boardMap.put(BE1, new King(Colour.BLUE));
+        boardMap.put(RE1, new King(Colour.RED));
+        boardMap.put(GE1, new King(Colour.GREEN));
+        boardMap.put(GF1, new Bishop(Colour.GREEN));
+        boardMap.put(GD2, new Pawn(Colour.GREEN));
+        boardMap.put(GE2, new Pawn(Colour.GREEN));
+        boardMap.put(GF2, new Pawn(Colour.GREEN));
+        boardMap.put(GH2, new Pawn(Colour.GREEN));
+        boardMap.put(GA4, new Rook(Colour.RED));
+        board.move(BE1, BE2);
+        board.move(GH2, GH3);
+        assertFalse(board.isGameOver());
+
+        board.move(GA4, GA1);
+        assertTrue(board.isGameOver());
+        assertEquals("R", board.getWinner());
+    }
+
+   /**
+    * Tests the getVersion method after moves made with move and with makeMove, expecting only
+    * the moves made with move counted and the version kept by a copy.
+    */
+    @Test
+     void getVersion_movesPlayedAndSearched_playedMovesCounted() throws InvalidPositionException, InvalidMoveException {
+        assertEquals(0, board.getVersion());
+        board.move(BD2, BD4);
+        assertEquals(1, board.getVersion());
+        board.unmakeMove(board.makeMove(GD2, GD4));
+        assertEquals(1, board.getVersion());
+        assertThrows(InvalidMoveException.class, () -> board.move(GD1, GD3));
+        assertEquals(1, board.getVersion());
+        assertEquals(1, new Board(board).getVersion());
+    }
 }
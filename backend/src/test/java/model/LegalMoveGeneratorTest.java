@@ -0,0 +1,207 @@
+package model;
+
+import common.Colour;
+import common.PieceType;
+import common.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the LegalMoveGenerator class.
+ */
+ class LegalMoveGeneratorTest {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    private Board board;
+    private LegalMoveGenerator generator;
+
+   /**
+    * Initializes a new Board instance and a generator on it before each test.
+    */
+    @BeforeEach
+    void initBeforeEachLegalMoveGeneratorTest() {
+        board = new Board();
+        generator = new LegalMoveGenerator(board);
+    }
+
+   /**
+    * Tests the generate method on the initial board, expecting the moves of every colour
+    * to be the highlighted polygons that don't leave the king in check.
+    */
+    @Test
+     void generate_initialBoard_matchesHighlightedPolygonsOutOfCheck() {
+        for(Colour colour: Colour.values()) {
+            assertMatchesHighlightedPolygonsOutOfCheck(colour);
+        }
+    }
+
+   /**
+    * Tests the generate method with the blue king in check from a queen,
+    * expecting only the moves that take the queen or get out of its way.
+    */
+    @Test
+     void generate_kingInCheck_onlyEvasions() {
+        board.boardMap.put(BE2, new Queen(Colour.RED));
+        assertTrue(board.isCheck(Colour.BLUE));
+
+        Set<Integer> moves = generate(Colour.BLUE);
+        assertTrue(moves.contains(LegalMoveGenerator.move(BE1.ordinal(), BE2.ordinal())));
+        assertFalse(moves.contains(LegalMoveGenerator.move(BA2.ordinal(), BA3.ordinal())));
+        assertMatchesHighlightedPolygonsOutOfCheck(Colour.BLUE);
+    }
+
+   /**
+    * Parameterized test playing random games from the initial board, expecting the generated moves
+    * of every colour to be the highlighted polygons that don't leave the king in check after each move.
+    *
+    * @param seed Seed of the random moves
+    */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+     void generate_randomGames_matchesHighlightedPolygonsOutOfCheck(long seed) {
+        Random random = new Random(seed);
+        int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        for(int ply = 0; ply < 120; ply++) {
+            for(Colour colour: Colour.values()) {
+                assertMatchesHighlightedPolygonsOutOfCheck(colour);
+            }
+            int count = generator.generate(board.getTurn(), moves);
+            if(count == 0) {
+                break;
+            }
+            int move = moves[random.nextInt(count)];
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+        }
+    }
+
+   /**
+    * Parameterized test for the randomMove method playing random games from the initial board,
+    * expecting every random move to be one of the generated legal moves and no move once none is left.
+    *
+    * @param seed Seed of the random moves
+    */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4})
+     void randomMove_randomGames_legalMove(long seed) {
+        Random random = new Random(seed);
+        for(int ply = 0; ply < 200; ply++) {
+            Set<Integer> moves = generate(board.getTurn());
+            int move = generator.randomMove(board.getTurn(), random);
+            if(moves.isEmpty()) {
+                assertEquals(0, move);
+                break;
+            }
+            assertTrue(moves.contains(move));
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+        }
+    }
+
+   /**
+    * Tests the randomMove method with the blue king in check from a queen, expecting only evasions.
+    */
+    @Test
+     void randomMove_kingInCheck_onlyEvasions() {
+        board.boardMap.put(BE2, new Queen(Colour.RED));
+        Set<Integer> moves = generate(Colour.BLUE);
+        Random random = new Random(1);
+        for(int i = 0; i < 50; i++) {
+            assertTrue(moves.contains(generator.randomMove(Colour.BLUE, random)));
+        }
+    }
+
+   /**
+    * Parameterized test for the generateCaptures method playing random games from the initial board,
+    * expecting the legal moves that take a piece other than a wall, not by a jester or a wall,
+    * and the pawn moves onto the back row of another colour.
+    *
+    * @param seed Seed of the random moves
+    */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4})
+     void generateCaptures_randomGames_capturesAndPromotions(long seed) {
+        Random random = new Random(seed);
+        int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        for(int ply = 0; ply < 200; ply++) {
+            Colour colour = board.getTurn();
+            Set<Integer> expected = new HashSet<>();
+            for(int move: generate(colour)) {
+                Position start = POSITIONS[LegalMoveGenerator.from(move)];
+                Position end = POSITIONS[LegalMoveGenerator.to(move)];
+                PieceType attacker = board.getPieceType(start);
+                PieceType victim = board.getPieceType(end);
+                boolean capture = victim != null && victim != PieceType.WALL && board.boardMap.get(end).getColour() != colour;
+                boolean promotion = attacker == PieceType.PAWN && end.getRow() == 0 && end.getColour() != colour;
+                if(attacker != PieceType.JESTER && attacker != PieceType.WALL && (capture || promotion)) {
+                    expected.add(move);
+                }
+            }
+            int count = generator.generateCaptures(colour, moves);
+            Set<Integer> captures = new HashSet<>();
+            for(int i = 0; i < count; i++) {
+                captures.add(moves[i]);
+            }
+            assertEquals(expected, captures);
+            int move = generator.randomMove(colour, random);
+            if(move == 0) {
+                break;
+            }
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+        }
+    }
+
+    private Set<Integer> generate(Colour colour) {
+        int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        int count = generator.generate(colour, moves);
+        Set<Integer> result = new HashSet<>();
+        for(int i = 0; i < count; i++) {
+            result.add(moves[i]);
+        }
+        return result;
+    }
+
+    private void assertMatchesHighlightedPolygonsOutOfCheck(Colour colour) {
+        Set<Integer> expected = new HashSet<>();
+        long[] targets = new long[2];
+        for(Position position: POSITIONS) {
+            BasePiece piece = board.boardMap.get(position);
+            if(piece == null || piece.getColour() != colour) {
+                continue;
+            }
+            Set<Position> possibleMoves = filterChecks(piece, position);
+            generator.generate(position.ordinal(), targets);
+            for(Position end: POSITIONS) {
+                assertEquals(possibleMoves.contains(end), BitBoard.contains(targets[0], targets[1], end.ordinal()),
+                        piece + " " + position + " " + end);
+            }
+            for(Position end: possibleMoves) {
+                expected.add(LegalMoveGenerator.move(position.ordinal(), end.ordinal()));
+            }
+        }
+        assertEquals(expected, generate(colour));
+    }
+
+    // the highlighted polygons the piece can move to without leaving its king in check
+    private Set<Position> filterChecks(BasePiece piece, Position position) {
+        Set<Position> possibleMoves = new HashSet<>();
+        for(Position end: piece.getHighlightPolygons(board.boardMap, position)) {
+            UndoRecord record = board.makeMove(position, end);
+            if(!board.isCheck(piece.getColour())) {
+                possibleMoves.add(end);
+            }
+            board.unmakeMove(record);
+        }
+        return possibleMoves;
+    }
+}
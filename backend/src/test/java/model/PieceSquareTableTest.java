@@ -0,0 +1,128 @@
+package model;
+
+import common.Colour;
+import common.InvalidPositionException;
+import common.PieceType;
+import common.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import utility.PieceFactory;
+
+import java.util.Random;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the piece-square scores kept by the Board.
+ */
+ class PieceSquareTableTest {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    private Board board;
+
+   /**
+    * Initializes a new Board instance before each test.
+    */
+    @BeforeEach
+    void initBeforeEachPieceSquareTableTest() {
+        board = new Board();
+    }
+
+   /**
+    * Tests the scores of the initial board, expecting the scores computed from scratch
+    * and the same score for every colour as the sections are set up alike.
+    */
+    @Test
+     void getScore_initialBoard_equalComputedScores() {
+        for(Colour colour: Colour.values()) {
+            assertEquals(PieceSquareTable.compute(board.boardMap, colour), board.getScore(colour));
+            assertEquals(board.getScore(Colour.BLUE), board.getScore(colour));
+        }
+    }
+
+   /**
+    * Parameterized test for the value method of a pawn on the same rank and column of the home section
+    * of each colour, expecting the same value; and further on in an enemy section, a higher value.
+    *
+    * @param colour Colour of the pawn
+    */
+    @ParameterizedTest
+    @EnumSource(Colour.class)
+     void value_pawnHomeAndEnemySections_relativeToHome(Colour colour) throws InvalidPositionException {
+        Position home = Position.get(colour, 2, 3);
+        Position enemy = Position.get(colour.next(), 1, 3);
+        int homeValue = PieceSquareTable.value(home.ordinal(), PieceType.PAWN, colour);
+        assertEquals(PieceSquareTable.value(BD3.ordinal(), PieceType.PAWN, Colour.BLUE), homeValue);
+        assertTrue(PieceSquareTable.value(enemy.ordinal(), PieceType.PAWN, colour) > homeValue);
+        assertEquals(PieceFactory.getValue(PieceType.PAWN),
+                PieceSquareTable.value(BA1.ordinal(), PieceType.PAWN, Colour.BLUE));
+    }
+
+   /**
+    * Tests the scores after a jester swap, a promotion, a capture and a castling,
+    * expecting the scores computed from scratch after each move and the old scores after taking it back.
+    */
+    @Test
+     void getScore_specialMoves_matchesComputedScores() {
+        board.boardMap.clear();
+        board.boardMap.put(BE1, new King(Colour.BLUE));
+        board.boardMap.put(BH1, new Rook(Colour.BLUE));
+        board.boardMap.put(BB3, new Jester(Colour.BLUE));
+        board.boardMap.put(BB4, new Rook(Colour.GREEN));
+        board.boardMap.put(GE1, new King(Colour.GREEN));
+        board.boardMap.put(GC2, new Pawn(Colour.BLUE));
+        board.boardMap.put(GD1, new Knight(Colour.GREEN));
+        board.boardMap.put(RE1, new King(Colour.RED));
+        assertMoveScores(BB3, BB4);
+        assertMoveScores(GC2, GC1);
+        assertMoveScores(GC2, GD1);
+        assertMoveScores(BE1, BG1);
+    }
+
+   /**
+    * Parameterized test playing random games, expecting the kept scores to match the scores
+    * computed from scratch after every move and every take back.
+    *
+    * @param seed Seed of the random moves
+    */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4})
+     void getScore_randomGames_matchesComputedScores(long seed) {
+        Random random = new Random(seed);
+        LegalMoveGenerator generator = new LegalMoveGenerator(board);
+        for(int ply = 0; ply < 150; ply++) {
+            int move = generator.randomMove(board.getTurn(), random);
+            if(move == 0) {
+                break;
+            }
+            assertMoveScores(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+        }
+    }
+
+    private void assertMoveScores(Position start, Position end) {
+        int[] before = scores();
+        UndoRecord record = board.makeMove(start, end);
+        for(Colour colour: Colour.values()) {
+            assertEquals(PieceSquareTable.compute(board.boardMap, colour), board.getScore(colour), start + "-" + end);
+        }
+        board.unmakeMove(record);
+        for(Colour colour: Colour.values()) {
+            assertEquals(before[colour.ordinal()], board.getScore(colour), start + "-" + end);
+        }
+    }
+
+    private int[] scores() {
+        int[] scores = new int[Colour.values().length];
+        for(Colour colour: Colour.values()) {
+            scores[colour.ordinal()] = board.getScore(colour);
+        }
+        return scores;
+    }
+}
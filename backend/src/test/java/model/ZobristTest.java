@@ -0,0 +1,119 @@
+package model;
+
+import common.Colour;
+import common.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * This class contains unit tests for the Zobrist keys kept by the Board.
+ */
+ class ZobristTest {
+
+    private static final Position[] POSITIONS = Position.values();
+
+    private Board board;
+
+   /**
+    * Initializes a new Board instance before each test.
+    */
+    @BeforeEach
+    void initBeforeEachZobristTest() {
+        board = new Board();
+    }
+
+   /**
+    * Tests the key of the initial board, expecting the key computed from scratch.
+    */
+    @Test
+     void getZobristKey_initialBoard_matchesComputedKey() {
+        assertEquals(Zobrist.compute(board.boardMap, Colour.BLUE), board.getZobristKey());
+    }
+
+   /**
+    * Tests the key after the same moves played in a different order,
+    * expecting equal keys for the equal positions.
+    */
+    @Test
+     void getZobristKey_transposedMoveOrder_equalKeys() {
+        Board other = new Board();
+        board.makeMove(BB2, BB3);
+        board.makeMove(GB2, GB3);
+        board.makeMove(RB2, RB3);
+        board.makeMove(BC2, BC3);
+        other.makeMove(BC2, BC3);
+        other.makeMove(GB2, GB3);
+        other.makeMove(RB2, RB3);
+        other.makeMove(BB2, BB3);
+        assertEquals(board.getZobristKey(), other.getZobristKey());
+    }
+
+   /**
+    * Tests the key of the same pieces with another colour to move, expecting different keys.
+    */
+    @Test
+     void getZobristKey_otherColourToMove_differentKeys() {
+        Board green = new Board(board.boardMap, Colour.GREEN);
+        assertNotEquals(board.getZobristKey(), green.getZobristKey());
+        assertEquals(board.boardMap.getPieceKey(), green.boardMap.getPieceKey());
+    }
+
+   /**
+    * Tests the key after a jester swap, a promotion and a castling,
+    * expecting the key computed from scratch after each move and the old key after taking it back.
+    */
+    @Test
+     void getZobristKey_specialMoves_matchesComputedKey() {
+        board.boardMap.clear();
+        board.boardMap.put(BE1, new King(Colour.BLUE));
+        board.boardMap.put(BH1, new Rook(Colour.BLUE));
+        board.boardMap.put(BB3, new Jester(Colour.BLUE));
+        board.boardMap.put(BB4, new Rook(Colour.GREEN));
+        board.boardMap.put(GE1, new King(Colour.GREEN));
+        board.boardMap.put(GC2, new Pawn(Colour.BLUE));
+        board.boardMap.put(RE1, new King(Colour.RED));
+        assertMoveKeys(BB3, BB4);
+        assertMoveKeys(GC2, GC1);
+        assertMoveKeys(BE1, BG1);
+    }
+
+   /**
+    * Parameterized test playing random games, expecting the kept key to match the key
+    * computed from scratch after every move and every take back.
+    *
+    * @param seed Seed of the random moves
+    */
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4})
+     void getZobristKey_randomGames_matchesComputedKey(long seed) {
+        Random random = new Random(seed);
+        LegalMoveGenerator generator = new LegalMoveGenerator(board);
+        int[] moves = new int[LegalMoveGenerator.MAX_MOVES];
+        for(int ply = 0; ply < 150; ply++) {
+            int count = generator.generate(board.getTurn(), moves);
+            if(count == 0) {
+                break;
+            }
+            int move = moves[random.nextInt(count)];
+            assertMoveKeys(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(move)], POSITIONS[LegalMoveGenerator.to(move)]);
+        }
+    }
+
+    private void assertMoveKeys(Position start, Position end) {
+        long before = board.getZobristKey();
+        UndoRecord record = board.makeMove(start, end);
+        assertEquals(Zobrist.compute(board.boardMap, board.getTurn()), board.getZobristKey(), start + "-" + end);
+        assertNotEquals(before, board.getZobristKey(), start + "-" + end);
+        board.unmakeMove(record);
+        assertEquals(before, board.getZobristKey(), start + "-" + end);
+    }
+}
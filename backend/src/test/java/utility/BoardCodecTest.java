@@ -0,0 +1,56 @@
+package utility;
+
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static common.Position.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class contains unit tests for the BoardCodec class.
+ */
+ class BoardCodecTest {
+
+   /**
+    * Tests the encode and decode methods on the initial board and after moves, expecting the
+    * same bytes from the board and from its view board and the view board decoded back.
+    */
+    @Test
+     void encode_boardAndViewBoard_sameBytesDecodedBack() throws InvalidPositionException, InvalidMoveException {
+        Board board = new Board();
+        board.move(BD2, BD4);
+        board.move(GE2, GE4);
+        byte[] encoded = BoardCodec.encode(board);
+        assertEquals(BoardCodec.SIZE, encoded.length);
+        assertArrayEquals(encoded, BoardCodec.encode(board.getWebViewBoard()));
+        assertEquals(board.getWebViewBoard(), BoardCodec.decode(encoded));
+        assertEquals(BoardCodec.EMPTY, encoded[BD2.ordinal()]);
+        assertEquals(6, encoded[BD4.ordinal()]); // blue pawn
+        assertEquals(13, encoded[GE1.ordinal()]); // green king
+    }
+
+   /**
+    * Tests the encode and decode methods with invalid polygons, pieces, codes and lengths,
+    * expecting an IllegalArgumentException.
+    */
+    @Test
+     void decode_invalidInput_throwsException() {
+        Map<String, String> viewBoard = new HashMap<>();
+        viewBoard.put("Bz9", "BK");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.encode(viewBoard));
+        viewBoard.clear();
+        viewBoard.put("Be1", "XK");
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.encode(viewBoard));
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(new byte[BoardCodec.SIZE - 1]));
+        byte[] encoded = new byte[BoardCodec.SIZE];
+        encoded[0] = 25;
+        assertThrows(IllegalArgumentException.class, () -> BoardCodec.decode(encoded));
+    }
+}
@@ -0,0 +1,67 @@
+package utility;
+
+import common.InvalidPositionException;
+import model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class contains the golden node count suite for the Perft class.
+ */
+ class PerftTest {
+
+   /**
+    * Parameterized test counting the leaf nodes of known positions, expecting the golden
+    * node counts and the board to be unchanged afterwards.
+    *
+    * @param position Position as parsed by Perft.parseBoard, start for the initial board
+    * @param depth    Number of plies
+    * @param nodes    Expected number of leaf nodes
+    */
+    @ParameterizedTest
+    @CsvFileSource(files = "src/test/resources/perft.csv")
+     void count_goldenPositions_expectedNodes(String position, int depth, long nodes) throws InvalidPositionException {
+        Board board = "start".equals(position) ? new Board() : Perft.parseBoard(position);
+        Map<String, String> before = board.getWebViewBoard();
+
+        assertEquals(nodes, new Perft(depth).count(board, depth));
+        assertEquals(before, board.getWebViewBoard());
+    }
+
+   /**
+    * Tests the divide method on a fork-join pool, expecting one entry per root move
+    * adding up to the single threaded count.
+    */
+    @Test
+     void divide_startPositionOnFourThreads_sumsToSingleThreadCount() {
+        Board board = new Board();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Map<String, Long> divide = Perft.divide(board, 3, pool);
+        pool.shutdown();
+
+        assertEquals(27, divide.size());
+        assertEquals(new Perft(3).count(board, 3), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+   /**
+    * Tests the parseBoard method with the pieces of the initial board,
+    * expecting the same board as the initial one.
+    */
+    @Test
+     void parseBoard_initialPieces_sameAsInitialBoard() throws InvalidPositionException {
+        StringBuilder position = new StringBuilder("B");
+        for(Map.Entry<String, String> entry: new Board().getWebViewBoard().entrySet()) {
+            position.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+        }
+        Board board = Perft.parseBoard(position.toString());
+
+        assertEquals(new Board().getWebViewBoard(), board.getWebViewBoard());
+        assertEquals(19764, Perft.count(board, 3, ForkJoinPool.commonPool()));
+    }
+}
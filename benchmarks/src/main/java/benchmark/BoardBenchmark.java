@@ -0,0 +1,78 @@
+package benchmark;
+
+import common.Position;
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legality checks and possible moves of Board, per game phase.
+ * The legal moves are cached per board state, so possibleMoves works on a fresh copy of the board
+ * to include their generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    private Board board;
+    private final List<Position> ownPieces = new ArrayList<>();
+    private final List<Position[]> legalMoves = new ArrayList<>();
+
+    /**
+     * Collects the pieces of the colour to move and their legal moves
+     */
+    @Setup
+    public void setup() {
+        board = phase.createBoard();
+        for (Position position : Position.values()) {
+            if (board.isCurrentPlayersPiece(position)) {
+                ownPieces.add(position);
+                for (Position end : board.getPossibleMoves(position)) {
+                    legalMoves.add(new Position[] {position, end});
+                }
+            }
+        }
+    }
+
+    /**
+     * isLegalMove of every legal move of the colour to move
+     */
+    @Benchmark
+    public void isLegalMove(Blackhole blackhole) {
+        for (Position[] move : legalMoves) {
+            blackhole.consume(board.isLegalMove(move[0], move[1]));
+        }
+    }
+
+    /**
+     * getPossibleMoves of every piece of the colour to move, generated on a new copy of the board
+     */
+    @Benchmark
+    public void possibleMoves(Blackhole blackhole) {
+        Board copy = new Board(board);
+        for (Position position : ownPieces) {
+            blackhole.consume(copy.getPossibleMoves(position));
+        }
+    }
+}
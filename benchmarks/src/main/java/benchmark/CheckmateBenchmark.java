@@ -0,0 +1,55 @@
+package benchmark;
+
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import common.Position;
+import model.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utility.Perft;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board.move of a mating move, which tests every other colour for checkmate and ends the game
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckmateBenchmark {
+
+    /** Red to move GA4-GA1, mating the green king on its back row **/
+    private static final String MATE_POSITION =
+            "R Be2=BK Re1=RK Ge1=GK Gf1=GB Gd2=GP Ge2=GP Gf2=GP Gh3=GP Ga4=RR";
+
+    private Board board;
+
+    /**
+     * Sets up the mating position again before every move
+     */
+    @Setup(Level.Invocation)
+    public void setup() throws InvalidPositionException {
+        board = Perft.parseBoard(MATE_POSITION);
+    }
+
+    /**
+     * The mating move
+     */
+    @Benchmark
+    public boolean mate() throws InvalidMoveException, InvalidPositionException {
+        board.move(Position.GA4, Position.GA1);
+        return board.isGameOver();
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import common.Colour;
+import common.Position;
+import model.BitBoard;
+import model.Board;
+import model.LegalMoveGenerator;
+import model.PieceSquareTable;
+import model.UndoRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Piece-square evaluation per game phase: the three scores kept up to date by the board against the
+ * same scores computed from scratch, and making and taking back every legal move with the scores
+ * updated on the way.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    private static final Colour[] COLOURS = Colour.values();
+    private static final Position[] POSITIONS = Position.values();
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    private Board board;
+    private BitBoard pieces;
+    private int[] moves;
+    private int count;
+    private final int[] scores = new int[COLOURS.length];
+    private final UndoRecord record = new UndoRecord();
+
+    /**
+     * Creates the board, its pieces and the legal moves of the colour to move
+     */
+    @Setup
+    public void setup() {
+        board = phase.createBoard();
+        pieces = phase.createPieces();
+        moves = new int[LegalMoveGenerator.MAX_MOVES];
+        count = new LegalMoveGenerator(board).generate(board.getTurn(), moves);
+    }
+
+    /**
+     * Score vector read from the board
+     */
+    @Benchmark
+    public int[] incremental() {
+        for (Colour colour : COLOURS) {
+            scores[colour.ordinal()] = board.getScore(colour);
+        }
+        return scores;
+    }
+
+    /**
+     * Score vector computed from scratch, walking the pieces
+     */
+    @Benchmark
+    public int[] fromScratch() {
+        for (Colour colour : COLOURS) {
+            scores[colour.ordinal()] = PieceSquareTable.compute(pieces, colour);
+        }
+        return scores;
+    }
+
+    /**
+     * Every legal move of the colour to move made and taken back, reading the score of the mover in between
+     */
+    @Benchmark
+    public void makeUnmake(Blackhole blackhole) {
+        Colour turn = board.getTurn();
+        for (int i = 0; i < count; i++) {
+            board.makeMove(POSITIONS[LegalMoveGenerator.from(moves[i])], POSITIONS[LegalMoveGenerator.to(moves[i])], record);
+            blackhole.consume(board.getScore(turn));
+            board.unmakeMove(record);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import common.GameState;
+import common.Position;
+import main.GameMain;
+import model.BasePiece;
+import model.BitBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utility.BoardAdapter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The calls the web app makes for a click: selecting a piece through GameMain and converting the board
+ * to the labels sent to the browser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameMainBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    private GameMain game;
+    private BitBoard bitBoard;
+    private Map<Position, BasePiece> hashMap;
+
+    /**
+     * Starts a game and copies the pieces of the phase into both board representations
+     */
+    @Setup
+    public void setup() {
+        game = new GameMain();
+        bitBoard = phase.createPieces();
+        hashMap = new HashMap<>(bitBoard);
+    }
+
+    /**
+     * onClick on a blue pawn, selecting it and highlighting its moves. The game starts from the opening
+     * whatever the phase.
+     */
+    @Benchmark
+    public GameState selectPiece() {
+        return game.onClick("Bb2");
+    }
+
+    /**
+     * convertModelBoardToViewBoard reading the bit board
+     */
+    @Benchmark
+    public Map<String, String> viewBoardFromBitBoard() {
+        return BoardAdapter.convertModelBoardToViewBoard(bitBoard);
+    }
+
+    /**
+     * convertModelBoardToViewBoard iterating a hash map of the pieces
+     */
+    @Benchmark
+    public Map<String, String> viewBoardFromHashMap() {
+        return BoardAdapter.convertModelBoardToViewBoard(hashMap);
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import common.PieceType;
+import common.Position;
+import model.BasePiece;
+import model.BitBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getHighlightPolygons of every piece of one type, per game phase
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HighlightBenchmark {
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING", "JESTER", "WALL"})
+    private PieceType type;
+
+    private BitBoard boardMap;
+    private final List<Position> starts = new ArrayList<>();
+    private final List<BasePiece> pieces = new ArrayList<>();
+
+    /**
+     * Collects the pieces of the type in the position
+     */
+    @Setup
+    public void setup() {
+        boardMap = phase.createPieces();
+        for (Map.Entry<Position, BasePiece> entry : boardMap.entrySet()) {
+            if (entry.getValue().getType() == type) {
+                starts.add(entry.getKey());
+                pieces.add(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Highlight polygons of every piece of the type
+     */
+    @Benchmark
+    public void getHighlightPolygons(Blackhole blackhole) {
+        for (int i = 0; i < pieces.size(); i++) {
+            blackhole.consume(pieces.get(i).getHighlightPolygons(boardMap, starts.get(i)));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import engine.SearchEngine;
+import engine.SearchMode;
+import engine.SearchResult;
+import model.Board;
+
+import java.time.Duration;
+
+/**
+ * Scaling report of the Lazy-SMP search: the time to reach a fixed depth with 1, 2, 4, ...
+ * threads and the speedup over a single thread. Every run starts from an empty transposition table.
+ */
+public final class LazySmpScaling {
+
+    private static final Duration BUDGET = Duration.ofHours(1);
+
+    private LazySmpScaling() {
+    }
+
+    /**
+     * Scaling command: depth [max threads] [mode] [phase]
+     * @param args depth, most threads to try (default all processors), search mode (default PARANOID),
+     *             game phase of Positions (default MIDGAME)
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LazySmpScaling depth [maxThreads] [mode] [phase]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SearchMode mode = args.length > 2 ? SearchMode.valueOf(args[2]) : SearchMode.PARANOID;
+        Positions phase = args.length > 3 ? Positions.valueOf(args[3]) : Positions.MIDGAME;
+
+        search(phase.createBoard(), mode, depth, 1); // warm up the JIT
+        System.out.println("Depth " + depth + ", " + mode + ", " + phase + ", "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+        System.out.println(String.format("%8s %10s %14s %12s %8s  %s", "threads", "ms", "nodes", "nodes/s", "speedup", "move"));
+        long singleThreadNanos = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            SearchResult result = search(phase.createBoard(), mode, depth, threads);
+            if (threads == 1) {
+                singleThreadNanos = result.getNanos();
+            }
+            System.out.println(String.format("%8d %10d %14d %12d %8.2f  %s-%s", threads, result.getNanos() / 1_000_000,
+                    result.getNodes(), result.getNodesPerSecond(), (double) singleThreadNanos / result.getNanos(),
+                    result.getStart(), result.getEnd()));
+        }
+    }
+
+    private static SearchResult search(Board board, SearchMode mode, int depth, int threads) {
+        SearchEngine engine = new SearchEngine();
+        engine.setMode(mode);
+        engine.setMaxDepth(depth);
+        engine.setThreads(threads);
+        engine.setHashSize(64);
+        return engine.bestMove(board, board.getTurn(), BUDGET);
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import engine.MonteCarloEngine;
+import engine.SearchResult;
+import model.Board;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo searches of a fixed number of playouts per game phase and number of threads, on a new tree
+ * each time. Reports searches per second and, as the playouts counter, the playouts per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MonteCarloBenchmark {
+
+    private static final Duration BUDGET = Duration.ofMinutes(1);
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    @Param({"1000"})
+    private int playouts;
+
+    private Board board;
+    private MonteCarloEngine engine;
+
+    /**
+     * Playouts run, reported as a rate next to the searches
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Playouts {
+        public long playouts;
+
+        /**
+         * Starts counting from zero in every iteration
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            playouts = 0;
+        }
+    }
+
+    /**
+     * Creates the board and an engine limited to the playouts
+     */
+    @Setup
+    public void setup() {
+        board = phase.createBoard();
+        engine = new MonteCarloEngine();
+        engine.setThreads(threads);
+        engine.setMaxPlayouts(playouts);
+    }
+
+    /**
+     * Search of the colour to move from an empty tree
+     */
+    @Benchmark
+    public SearchResult search(Playouts counter) {
+        engine.clear();
+        SearchResult result = engine.bestMove(board, board.getTurn(), BUDGET);
+        counter.playouts += result.getNodes();
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import engine.SearchEngine;
+import engine.SearchMode;
+import engine.SearchResult;
+import model.Board;
+
+import java.time.Duration;
+
+/**
+ * Node count report of the move ordering: every game phase of Positions searched to a fixed depth
+ * in every search mode with the ordering by captures, killer moves and history, and with the table
+ * move first only. Prints the nodes of both and the reduction, per position and in total per mode.
+ */
+public final class MoveOrderingReport {
+
+    private static final Duration BUDGET = Duration.ofHours(1);
+
+    private MoveOrderingReport() {
+    }
+
+    /**
+     * Report command: [depth]
+     * @param args depth of the searches (default 4)
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        System.out.println("Depth " + depth);
+        System.out.println(String.format("%-8s %-11s %14s %14s %10s", "phase", "mode", "unordered", "ordered", "reduction"));
+        SearchMode[] modes = SearchMode.values();
+        long[] totalUnordered = new long[modes.length];
+        long[] totalOrdered = new long[modes.length];
+        for (Positions phase : Positions.values()) {
+            for (SearchMode mode : modes) {
+                long unordered = search(phase.createBoard(), mode, depth, false).getNodes();
+                long ordered = search(phase.createBoard(), mode, depth, true).getNodes();
+                totalUnordered[mode.ordinal()] += unordered;
+                totalOrdered[mode.ordinal()] += ordered;
+                System.out.println(String.format("%-8s %-11s %14d %14d %9.1f%%", phase, mode, unordered, ordered,
+                        reduction(unordered, ordered)));
+            }
+        }
+        // max^n only prunes when a colour is sure of almost all of the share, so the order hardly counts there
+        for (SearchMode mode : modes) {
+            System.out.println(String.format("%-8s %-11s %14d %14d %9.1f%%", "total", mode, totalUnordered[mode.ordinal()],
+                    totalOrdered[mode.ordinal()], reduction(totalUnordered[mode.ordinal()], totalOrdered[mode.ordinal()])));
+        }
+    }
+
+    private static double reduction(long unordered, long ordered) {
+        return 100.0 * (unordered - ordered) / unordered;
+    }
+
+    private static SearchResult search(Board board, SearchMode mode, int depth, boolean moveOrdering) {
+        SearchEngine engine = new SearchEngine();
+        engine.setMode(mode);
+        engine.setMaxDepth(depth);
+        engine.setMoveOrdering(moveOrdering);
+        return engine.bestMove(board, board.getTurn(), BUDGET);
+    }
+}
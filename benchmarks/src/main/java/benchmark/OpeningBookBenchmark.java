@@ -0,0 +1,111 @@
+package benchmark;
+
+import common.InvalidMoveException;
+import common.InvalidPositionException;
+import common.Position;
+import engine.OpeningBook;
+import engine.OpeningBookBuilder;
+import model.Board;
+import model.LegalMoveGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening book lookups on a book of random games: the move played most and a weighted pick for
+ * positions in the book, and the lookup of positions out of it. Run with the GC profiler of the
+ * jmh task to see that a lookup allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OpeningBookBenchmark {
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final int GAMES = 4000;
+    private static final int KEYS = 1024; // power of two to cycle through
+
+    private OpeningBook book;
+    private final long[] inBook = new long[KEYS];
+    private final long[] outOfBook = new long[KEYS];
+    private final Random random = new Random(1);
+    private int next;
+
+    /**
+     * Writes and opens a book of the first plies of random games, and collects keys of positions in and out of it
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException, InvalidMoveException, InvalidPositionException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(OpeningBookBuilder.DEFAULT_PLIES);
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new Board();
+            LegalMoveGenerator generator = new LegalMoveGenerator(board);
+            List<String> moves = new ArrayList<>();
+            for (int ply = 0; ply < OpeningBookBuilder.DEFAULT_PLIES; ply++) {
+                int move = generator.randomMove(board.getTurn(), random);
+                if (move == 0) {
+                    break;
+                }
+                if (game < KEYS && ply == game % OpeningBookBuilder.DEFAULT_PLIES) {
+                    inBook[game] = board.getZobristKey();
+                }
+                Position start = POSITIONS[LegalMoveGenerator.from(move)];
+                Position end = POSITIONS[LegalMoveGenerator.to(move)];
+                moves.add(start + "-" + end);
+                board.makeMove(start, end);
+            }
+            if (game < KEYS) {
+                outOfBook[game] = board.getZobristKey(); // a ply past the book
+            }
+            builder.addGame(moves);
+        }
+        Path file = Files.createTempFile("opening", ".bin");
+        file.toFile().deleteOnExit();
+        builder.write(file);
+        book = OpeningBook.open(file);
+        System.out.println("Book of " + book.size() + " moves");
+    }
+
+    /**
+     * Most played move of a position in the book
+     */
+    @Benchmark
+    public int bestMoveInBook() {
+        return book.bestMove(inBook[next++ & (KEYS - 1)]);
+    }
+
+    /**
+     * Weighted pick among the moves of a position in the book
+     */
+    @Benchmark
+    public int pickMoveInBook() {
+        return book.pickMove(inBook[next++ & (KEYS - 1)], random);
+    }
+
+    /**
+     * Lookup of a position out of the book
+     */
+    @Benchmark
+    public int bestMoveOutOfBook() {
+        return book.bestMove(outOfBook[next++ & (KEYS - 1)]);
+    }
+}
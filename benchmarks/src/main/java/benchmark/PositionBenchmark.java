@@ -0,0 +1,109 @@
+package benchmark;
+
+import common.Colour;
+import common.Direction;
+import common.InvalidPositionException;
+import common.Position;
+import model.BasePiece;
+import model.Rook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import utility.MovementUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position lookups and single steps on the board topology, once for every polygon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionBenchmark {
+
+    private static final Position[] POSITIONS = Position.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Direction[] KNIGHT_STEP = {Direction.FORWARD, Direction.FORWARD, Direction.LEFT};
+
+    private final BasePiece rook = new Rook(Colour.BLUE);
+
+    /**
+     * Position.get by polygon index
+     */
+    @Benchmark
+    public void getByIndex(Blackhole blackhole) throws InvalidPositionException {
+        for (int index = 0; index < POSITIONS.length; index++) {
+            blackhole.consume(Position.get(index));
+        }
+    }
+
+    /**
+     * Position.get by colour, row and column
+     */
+    @Benchmark
+    public void getByColourRowColumn(Blackhole blackhole) throws InvalidPositionException {
+        for (Colour colour : Colour.values()) {
+            for (int row = 0; row < 4; row++) {
+                for (int column = 0; column < 8; column++) {
+                    blackhole.consume(Position.get(colour, row, column));
+                }
+            }
+        }
+    }
+
+    /**
+     * Position.neighbour in every direction, including the steps off the board
+     */
+    @Benchmark
+    public void neighbour(Blackhole blackhole) {
+        for (Position position : POSITIONS) {
+            for (Direction direction : DIRECTIONS) {
+                blackhole.consume(position.neighbourOrNull(direction));
+            }
+        }
+    }
+
+    /**
+     * Position.neighbour forward, which throws when stepping off the board
+     */
+    @Benchmark
+    public void neighbourThrowing(Blackhole blackhole) {
+        for (Position position : POSITIONS) {
+            try {
+                blackhole.consume(position.neighbour(Direction.FORWARD));
+            } catch (InvalidPositionException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    /**
+     * MovementUtil.stepOrNull of a knight step on positions
+     */
+    @Benchmark
+    public void stepPosition(Blackhole blackhole) {
+        for (Position position : POSITIONS) {
+            blackhole.consume(MovementUtil.stepOrNull(rook, KNIGHT_STEP, position));
+        }
+    }
+
+    /**
+     * MovementUtil.step of a knight step on polygon indexes
+     */
+    @Benchmark
+    public void stepIndex(Blackhole blackhole) {
+        for (int index = 0; index < POSITIONS.length; index++) {
+            blackhole.consume(MovementUtil.step(index, KNIGHT_STEP, false, null));
+        }
+    }
+}
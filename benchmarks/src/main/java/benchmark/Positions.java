@@ -0,0 +1,58 @@
+package benchmark;
+
+import common.InvalidPositionException;
+import common.Position;
+import model.BasePiece;
+import model.BitBoard;
+import model.Board;
+import utility.BoardAdapter;
+import utility.Perft;
+
+import java.util.Map;
+
+/**
+ * Game phases the benchmarks run on. The midgame and endgame positions are written in the
+ * position format of Perft.parseBoard.
+ */
+public enum Positions {
+
+    OPENING(null),
+    MIDGAME("B Ba2=BJ Ba3=GR Bb3=BP Bc1=BB Bd1=BQ Bd2=BP Bd3=GB Bd4=GN Be2=BP Bf1=BB Bf2=BK Bf4=BP Bg1=BN"
+            + " Bg3=BP Bg4=BR Bh2=BW Ga1=GR Ga2=GJ Gb1=GN Gb2=GP Gc4=GP Gd2=GB Gd4=GP Ge1=GK Ge2=GQ Ge4=BN Gf2=GP"
+            + " Gg3=GP Gh2=GW Ra1=RR Ra2=RJ Ra4=RW Rb4=RP Rc1=RB Rc2=RP Rc3=RN Rd1=RQ Rd2=RP Re2=RP Rf1=RK Rf2=RP"
+            + " Rf4=RN Rg4=RP Rh2=RR"),
+    ENDGAME("B Bf2=BK Bd1=BQ Bg4=BR Bh2=BW Ba2=BJ Bb3=BP Ge1=GK Ga1=GR Gd2=GB Gh2=GW Gc4=GP Rf1=RK Rc3=RN"
+            + " Rc1=RB Ra4=RW Rb4=RP Rg4=RP");
+
+    private final String position;
+
+    Positions(String position) {
+        this.position = position;
+    }
+
+    /**
+     * @return a new board holding the position, blue to move
+     */
+    public Board createBoard() {
+        if (position == null) {
+            return new Board();
+        }
+        try {
+            return Perft.parseBoard(position);
+        } catch (InvalidPositionException e) {
+            throw new IllegalStateException("Invalid benchmark position " + name(), e);
+        }
+    }
+
+    /**
+     * @return the pieces of the position on a new bit board
+     */
+    public BitBoard createPieces() {
+        try {
+            Map<Position, BasePiece> pieces = BoardAdapter.convertViewBoardToModelBoard(createBoard().getWebViewBoard());
+            return new BitBoard(pieces);
+        } catch (InvalidPositionException e) {
+            throw new IllegalStateException("Invalid benchmark position " + name(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import engine.SearchEngine;
+import engine.SearchMode;
+import engine.SearchResult;
+import model.Board;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed depth searches of the engine per game phase and search mode. Reports searches per second and,
+ * as the nodes counter, the search speed in nodes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    private static final Duration BUDGET = Duration.ofMinutes(1);
+
+    @Param({"OPENING", "MIDGAME", "ENDGAME"})
+    private Positions phase;
+
+    @Param({"PARANOID", "MAX_N", "BEST_REPLY"})
+    private SearchMode mode;
+
+    @Param({"3"})
+    private int depth;
+
+    private Board board;
+    private SearchEngine engine;
+
+    /**
+     * Positions searched, reported as a rate next to the searches
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        /**
+         * Starts counting from zero in every iteration
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    /**
+     * Creates the board and an engine in the mode limited to the depth
+     */
+    @Setup
+    public void setup() {
+        board = phase.createBoard();
+        engine = new SearchEngine();
+        engine.setMode(mode);
+        engine.setMaxDepth(depth);
+    }
+
+    /**
+     * Search of the colour to move to the fixed depth
+     */
+    @Benchmark
+    public SearchResult search(Nodes counter) {
+        SearchResult result = engine.bestMove(board, board.getTurn(), BUDGET);
+        counter.nodes += result.getNodes();
+        return result;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * JMH benchmarks of the hot paths of the rules engine and of the adapter to the web app.
+ * Run them with the GC profiler through the jmh task of the benchmarks module.
+ */
+package benchmark;
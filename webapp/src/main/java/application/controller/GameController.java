@@ -1,58 +1,127 @@
 package application.controller;
 
-import abstraction.IGameInterface;
-import common.InvalidPositionException;
+import application.game.GameRegistry;
+import application.game.GameSession;
+import application.game.GameSnapshot;
+import application.stream.SpectatorStream;
 import common.GameState;
-import main.GameMain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import utility.BoardCodec;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
 
 /**
  * GameController class - interacts with the backend logic.
- * New game instances are created here.
+ * New game instances are created here and every other request is routed to its game by game ID.
  **/
 @RestController
 public class GameController {
-    private IGameInterface game;
+    /** Response header with the version of the board sent **/
+    public static final String BOARD_VERSION = "X-Board-Version";
+
+    private final GameRegistry games;
+    private final SpectatorStream spectators;
+
+    /**
+     * GameController constructor
+     * @param games registry of the hosted games
+     * @param spectators Server-Sent Events stream of the games
+     **/
+    public GameController(GameRegistry games, SpectatorStream spectators) {
+        this.games = games;
+        this.spectators = spectators;
+    }
 
     /**
      * Method to create new game instance
+     * @return ID of the new game
      **/
     @GetMapping("/newGame")
-    public void handleNewGame(){
-        System.out.println("New Game");
-        this.game = new GameMain();
+    public String handleNewGame(){
+        return games.create().getId();
     }
 
     /**
      * Method to notify click events to the backend
+     * @param since board version the player has, the response then holds only the changes since
      **/
-    @PostMapping("/onClick")
-    public GameState handleMove(@RequestBody String polygonText) throws InvalidPositionException {
-        System.out.println("Polygon: " + polygonText);
-        return game.onClick(polygonText);
+    @PostMapping("/games/{gameId}/onClick")
+    public GameState handleMove(@PathVariable String gameId, @RequestBody String polygonText,
+                                @RequestParam(defaultValue = "-1") long since) {
+        return session(gameId).onClick(polygonText, since);
+    }
+
+    /**
+     * Method to fetch the board changes since a version, or the full board, without highlights
+     * @param since board version the player has, -1 for the full board
+     **/
+    @GetMapping("/games/{gameId}/state")
+    public GameState handleStateRequest(@PathVariable String gameId, @RequestParam(defaultValue = "-1") long since){
+        return session(gameId).getSnapshot().toState(since);
     }
 
     /**
      * Method to fetch the current player information from backend
      **/
-    @GetMapping("/currentPlayer")
-    public String handlePlayerTurn(){
-        System.out.println("Requesting current player");
-        return game.getTurn().toString();
+    @GetMapping("/games/{gameId}/currentPlayer")
+    public String handlePlayerTurn(@PathVariable String gameId){
+        return session(gameId).getSnapshot().getTurn();
     }
 
     /**
-     * Method to fetch the current board information from backend
+     * Method to fetch the current board information from backend as JSON
      **/
-    @GetMapping("/board")
-    public Map<String, String> handleBoardRequest(){
-        return game.getBoard();
+    @GetMapping(value = "/games/{gameId}/board", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, String>> handleBoardRequest(@PathVariable String gameId){
+        GameSnapshot snapshot = session(gameId).getSnapshot();
+        return board(snapshot).body(snapshot.getBoard());
     }
 
+    /**
+     * Method to fetch the current board information from backend as the 96 bytes of BoardCodec,
+     * chosen over JSON when the Accept header asks for BoardCodec.MEDIA_TYPE
+     **/
+    @GetMapping(value = "/games/{gameId}/board", produces = BoardCodec.MEDIA_TYPE)
+    public ResponseEntity<byte[]> handleEncodedBoardRequest(@PathVariable String gameId){
+        GameSnapshot snapshot = session(gameId).getSnapshot();
+        return board(snapshot).body(snapshot.getEncodedBoard());
+    }
 
+    /**
+     * Method to watch a game as a stream of Server-Sent Events, the full board first and then the
+     * changes of every move, each event a state frame as pushed over the socket.
+     * The response is written asynchronously by the stream after the method returns.
+     **/
+    @GetMapping(value = "/games/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void handleEventsRequest(@PathVariable String gameId, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        spectators.subscribe(session(gameId), request, response);
+    }
+
+    private static ResponseEntity.BodyBuilder board(GameSnapshot snapshot) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .header(BOARD_VERSION, Long.toString(snapshot.getVersion()));
+    }
+
+    private GameSession session(String gameId) {
+        GameSession session = games.get(gameId);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No game " + gameId);
+        }
+        return session;
+    }
 }
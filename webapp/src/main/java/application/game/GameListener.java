@@ -0,0 +1,20 @@
+package application.game;
+
+/**
+ * Listener notified of every change of a game, e.g. to push the new state to the players
+ **/
+public interface GameListener {
+
+    /**
+     * Called under the lock of the game after a change, in the order of the changes.
+     * Must not block, as the next click of the game waits for it.
+     * @param snapshot state of the game after the change
+     **/
+    void onChange(GameSnapshot snapshot);
+
+    /**
+     * Called under the lock of the game once it is removed, after its last change; the listener is
+     * detached and should end what it serves the game to. Must not block either.
+     **/
+    void onClose();
+}
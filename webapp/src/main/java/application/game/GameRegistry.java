@@ -0,0 +1,78 @@
+package application.game;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Games hosted by the web application, keyed by game ID. Games are created and looked up
+ * concurrently without a global lock, each game serialises only its own clicks.
+ * Games nobody has clicked or read for the idle timeout are removed when new games are created,
+ * and closed so their sockets and streams end.
+ **/
+@Component
+public class GameRegistry {
+    private static final long SWEEP_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<String, GameSession> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+    private final long idleTimeout;
+
+    /**
+     * GameRegistry constructor
+     * @param idleTimeoutMinutes minutes after which a game nobody uses is removed
+     **/
+    public GameRegistry(@Value("${games.idle-timeout-minutes:120}") long idleTimeoutMinutes) {
+        this.idleTimeout = TimeUnit.MINUTES.toMillis(idleTimeoutMinutes);
+    }
+
+    /**
+     * Starts a new game under a new game ID
+     * @return the session of the game
+     **/
+    public GameSession create() {
+        long now = System.currentTimeMillis();
+        long next = nextSweep.get();
+        if (now >= next && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL)) {
+            sweep(now);
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString());
+        games.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * @param id game ID
+     * @return the session of the game, null if there is no game with the ID
+     **/
+    public GameSession get(String id) {
+        return games.get(id);
+    }
+
+    /**
+     * @return number of games hosted
+     **/
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Removes and closes the games idle at a time, called at most once per sweep interval by create
+     * @param now System.currentTimeMillis() of the sweep
+     **/
+    void sweep(long now) {
+        for (Iterator<GameSession> sessions = games.values().iterator(); sessions.hasNext();) {
+            GameSession session = sessions.next();
+            if (now - session.getLastAccess() > idleTimeout) {
+                sessions.remove();
+                session.close();
+            }
+        }
+    }
+}
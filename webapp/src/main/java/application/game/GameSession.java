@@ -0,0 +1,139 @@
+package application.game;
+
+import abstraction.IGameInterface;
+import common.GameState;
+import main.GameMain;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One game of the registry. Clicks change the game one at a time under the lock of the session,
+ * reads return the snapshot published by the last change and never wait for a click.
+ * Listeners are notified of every move, each one a new version of the board, and once the game is closed.
+ **/
+public class GameSession {
+    private final String id;
+    private final IGameInterface game;
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile GameSnapshot snapshot;
+    private volatile long lastAccess;
+    private volatile boolean closed;
+
+    /**
+     * GameSession constructor, starts a new game
+     * @param id game ID
+     **/
+    GameSession(String id) {
+        this.id = id;
+        this.game = new GameMain();
+        this.snapshot = new GameSnapshot(game.getHistory(), game.getTurn().toString(), false, null);
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * @return game ID
+     **/
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Applies a click of a player to the game and publishes the new snapshot
+     * @param polygonLabel The unique label of the polygon which is clicked by player
+     * @param knownVersion board version the player has, GameState.NO_VERSION for the full board
+     * @return GameState which contains the board changes or layout and list of polygons to highlight
+     **/
+    public GameState onClick(String polygonLabel, long knownVersion) {
+        synchronized (this) {
+            return publish(game.onClick(polygonLabel, knownVersion));
+        }
+    }
+
+    /**
+     * Applies a move of a player to the game in one step and publishes the new snapshot
+     * @param startLabel The label of the polygon the piece stands on
+     * @param endLabel The label of the polygon the piece moves to
+     * @return GameState which contains current game board layout and no polygons to highlight
+     **/
+    public GameState onMove(String startLabel, String endLabel) {
+        synchronized (this) {
+            return publish(game.onMove(startLabel, endLabel));
+        }
+    }
+
+    /**
+     * Publishes the snapshot of a click response, notifying the listeners if the game changed
+     **/
+    private GameState publish(GameState state) {
+        GameSnapshot previous = snapshot;
+        GameSnapshot next = new GameSnapshot(game.getHistory(), game.getTurn().toString(), state.isGameOver(),
+                state.getWinner());
+        lastAccess = System.currentTimeMillis();
+        if (next.getVersion() == previous.getVersion()) {
+            return state; // a selection, or a click that was not a move
+        }
+        snapshot = next;
+        for (GameListener listener : listeners) {
+            listener.onChange(next);
+        }
+        return state;
+    }
+
+    /**
+     * @param listener listener to notify of the changes of the game from now on, ignored once the
+     *                 game is closed, so check isClosed() after adding it
+     **/
+    public void addListener(GameListener listener) {
+        synchronized (this) {
+            if (!closed) {
+                listeners.add(listener);
+            }
+        }
+    }
+
+    /**
+     * @param listener listener to notify no more
+     **/
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return state published by the last change of the game
+     **/
+    public GameSnapshot getSnapshot() {
+        lastAccess = System.currentTimeMillis();
+        return snapshot;
+    }
+
+    /**
+     * Closes the game once it is removed from the registry, notifying and detaching every listener
+     **/
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (GameListener listener : listeners) {
+                listener.onClose();
+            }
+            listeners.clear();
+        }
+    }
+
+    /**
+     * @return true once the game is removed from the registry
+     **/
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return System.currentTimeMillis() of the last click or read
+     **/
+    long getLastAccess() {
+        return lastAccess;
+    }
+}
@@ -0,0 +1,95 @@
+package application.game;
+
+import common.BoardHistory;
+import common.GameState;
+import utility.BoardCodec;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable state of a game as its players see it, published after every change
+ * so the game can be read without taking its lock. The board history it holds answers
+ * players knowing an earlier version with only the changed polygons.
+ **/
+public final class GameSnapshot {
+    private final BoardHistory history;
+    private final String turn;
+    private final boolean gameOver;
+    private final String winner;
+    private volatile byte[] encodedBoard; // encoded on the first request
+
+    /**
+     * GameSnapshot constructor
+     * @param history board history of the game, immutable
+     * @param turn colour to move
+     * @param gameOver whether the game has ended
+     * @param winner winning colour, null while the game goes on
+     **/
+    GameSnapshot(BoardHistory history, String turn, boolean gameOver, String winner) {
+        this.history = history;
+        this.turn = turn;
+        this.gameOver = gameOver;
+        this.winner = winner;
+    }
+
+    /**
+     * @return unmodifiable board map
+     **/
+    public Map<String, String> getBoard() {
+        return history.getBoard();
+    }
+
+    /**
+     * @return the board encoded by BoardCodec, shared by every request of the version, not to be changed
+     **/
+    public byte[] getEncodedBoard() {
+        byte[] encoded = encodedBoard;
+        if (encoded == null) {
+            encoded = BoardCodec.encode(history.getBoard());
+            encodedBoard = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * @return version of the board
+     **/
+    public long getVersion() {
+        return history.getVersion();
+    }
+
+    /**
+     * State of the game for a player knowing a version of the board, without highlights
+     * @param knownVersion board version the player has, GameState.NO_VERSION for the full board
+     * @return the changes since the version if they are still kept, else the full board
+     **/
+    public GameState toState(long knownVersion) {
+        GameState state = new GameState(history, knownVersion, Collections.emptyList());
+        if (gameOver) {
+            state.setGameOver(winner);
+        }
+        return state;
+    }
+
+    /**
+     * @return colour to move
+     **/
+    public String getTurn() {
+        return turn;
+    }
+
+    /**
+     * @return boolean
+     **/
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return winning colour, null while the game goes on
+     **/
+    public String getWinner() {
+        return winner;
+    }
+}
@@ -0,0 +1,86 @@
+package application.game;
+
+import utility.Log;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * GameListener handing the changes of a game to an executor, so the game's lock is only held to
+ * queue them. The changes are published one at a time and in the order of the game, and the
+ * listener is closed after the last of them once the game is closed.
+ **/
+public abstract class QueuedGameListener implements GameListener {
+    private static final String TAG = QueuedGameListener.class.getSimpleName();
+
+    private final Executor executor;
+    private final Queue<GameSnapshot> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean closing;
+
+    /**
+     * QueuedGameListener constructor
+     * @param executor executor publishing the changes
+     **/
+    protected QueuedGameListener(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public final void onChange(GameSnapshot snapshot) {
+        pending.add(snapshot);
+        schedule();
+    }
+
+    @Override
+    public final void onClose() {
+        closing = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (publishing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "Executor shut down, changes dropped");
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            GameSnapshot snapshot;
+            while ((snapshot = pending.poll()) != null) {
+                try {
+                    publish(snapshot);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, e.getMessage());
+                }
+            }
+            if (closing && closed.compareAndSet(false, true)) {
+                try {
+                    close();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, e.getMessage());
+                }
+            }
+            publishing.set(false);
+        } while ((!pending.isEmpty() || closing && !closed.get()) && publishing.compareAndSet(false, true));
+    }
+
+    /**
+     * Called on the executor for every change of the game, one at a time and in order
+     * @param snapshot state of the game after the change
+     **/
+    protected abstract void publish(GameSnapshot snapshot);
+
+    /**
+     * Called on the executor once the game is closed, after the last change is published
+     **/
+    protected abstract void close();
+}
@@ -0,0 +1,47 @@
+package application.game;
+
+import common.GameState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Frame of a game state pushed to the players and spectators: the fields of GameState and the turn
+ **/
+public final class StateFrame {
+
+    private StateFrame() {
+    }
+
+    /**
+     * @param state the state to send
+     * @param turn colour to move
+     * @return the frame, {"type":"state",...}, to serialise as JSON
+     **/
+    public static Map<String, Object> of(GameState state, String turn) {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "state");
+        frame.put("board", state.getBoard());
+        frame.put("changes", state.getChanges());
+        frame.put("since", state.getSince());
+        frame.put("version", state.getVersion());
+        frame.put("highlightedPolygons", state.getHighlightedPolygons());
+        frame.put("turn", turn);
+        frame.put("gameOver", state.isGameOver());
+        frame.put("winner", state.getWinner());
+        return frame;
+    }
+
+    /**
+     * @param state the state to send without its board, which the player gets pushed anyway
+     * @param turn colour to move
+     * @return the frame, {"type":"state",...} with neither board nor changes, to serialise as JSON
+     **/
+    public static Map<String, Object> withoutBoard(GameState state, String turn) {
+        Map<String, Object> frame = of(state, turn);
+        frame.put("board", null);
+        frame.put("changes", null);
+        frame.put("since", state.getVersion());
+        return frame;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Registry of the games hosted by the web application, one session per game ID
+ */
+package application.game;
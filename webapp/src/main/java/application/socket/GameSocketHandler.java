@@ -0,0 +1,328 @@
+package application.socket;
+
+import application.game.GameRegistry;
+import application.game.GameSession;
+import application.game.GameSnapshot;
+import application.game.QueuedGameListener;
+import application.game.StateFrame;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.GameState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import utility.Log;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket endpoint of a game. A socket joins the game of its path and gets the full board of the game
+ * on connecting; afterwards every move is pushed to all the sockets of the game, the three seats and the
+ * spectators, as the changes from the previous version, serialised once per move off the lock of the game.
+ * Every frame is sent without blocking, one at a time per socket; a socket more than the queue limit of
+ * frames or the send timeout behind is closed and gets the full board when it connects again.
+ * Frames sent to the server:
+ * <ul>
+ * <li>{"type":"click","polygon":"Bd2","since":3} - a click as on the board, answered with the highlights
+ * and the version after the click but without the board, a move is pushed to the socket like to all others</li>
+ * <li>{"type":"move","from":"Bd2","to":"Bd4"} - a move in one step, answered the same way</li>
+ * <li>{"type":"sync","since":3} - asks for the changes since the version, or the full board with -1,
+ * e.g. after missing a version</li>
+ * </ul>
+ * Frames sent to the sockets are StateFrame, {"type":"state",...} with the fields of GameState and the turn,
+ * or {"type":"error","message":...}. Sockets opened with ?spectator=true only watch and sync.
+ **/
+@Component
+public class GameSocketHandler extends TextWebSocketHandler implements DisposableBean {
+    private static final String TAG = GameSocketHandler.class.getSimpleName();
+    private static final String GAME = "game";
+    private static final String SPECTATOR = "spectator";
+
+    private final GameRegistry games;
+    private final ObjectMapper mapper;
+    private final int queueLimit;
+    private final long sendTimeout;
+    private final ExecutorService executor;
+    private final Map<String, Audience> audiences = new ConcurrentHashMap<>();
+
+    /**
+     * GameSocketHandler constructor
+     * @param games registry of the hosted games
+     * @param mapper JSON mapper of the web application
+     * @param threads threads serialising the moves of all games and closing sockets
+     * @param queueLimit frames queued for a slow socket before it is closed
+     * @param sendTimeoutSeconds seconds a frame may take to send before the socket is closed
+     **/
+    public GameSocketHandler(GameRegistry games, ObjectMapper mapper,
+                             @Value("${sockets.threads:2}") int threads,
+                             @Value("${sockets.queue-limit:64}") int queueLimit,
+                             @Value("${sockets.send-timeout-seconds:10}") long sendTimeoutSeconds) {
+        this.games = games;
+        this.mapper = mapper;
+        this.queueLimit = queueLimit;
+        this.sendTimeout = TimeUnit.SECONDS.toMillis(sendTimeoutSeconds);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, TAG + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String gameId = gameId(session);
+        GameSession game = gameId != null ? games.get(gameId) : null;
+        if (game == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("No game " + gameId));
+            return;
+        }
+        Outbox socket = new Outbox(session);
+        session.getAttributes().put(GAME, socket);
+        session.getAttributes().put(SPECTATOR, Boolean.parseBoolean(UriComponentsBuilder.fromUri(session.getUri())
+                .build().getQueryParams().getFirst(SPECTATOR)));
+        audiences.compute(gameId, (id, audience) -> {
+            Audience joined = audience != null ? audience : new Audience(game);
+            joined.sockets.add(socket);
+            return joined;
+        });
+        if (game.isClosed()) {
+            socket.close(CloseStatus.GOING_AWAY); // removed while connecting, its audience was never notified
+            return;
+        }
+        GameSnapshot snapshot = game.getSnapshot();
+        socket.send(frame(snapshot.toState(GameState.NO_VERSION), snapshot.getTurn()));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Outbox socket = (Outbox) session.getAttributes().get(GAME);
+        GameSession game = games.get(gameId(session));
+        if (socket == null || game == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("No game"));
+            return;
+        }
+        JsonNode frame;
+        try {
+            frame = mapper.readTree(message.getPayload());
+        } catch (IOException e) {
+            socket.send(error("Invalid frame: " + e.getMessage()));
+            return;
+        }
+        String type = frame.path("type").asText();
+        long since = frame.path("since").asLong(GameState.NO_VERSION);
+        if ("sync".equals(type)) {
+            GameSnapshot snapshot = game.getSnapshot();
+            socket.send(frame(snapshot.toState(since), snapshot.getTurn()));
+            return;
+        }
+        if (Boolean.TRUE.equals(session.getAttributes().get(SPECTATOR))) {
+            socket.send(error("Spectators can't play"));
+            return;
+        }
+        GameState state;
+        if ("click".equals(type)) {
+            state = game.onClick(frame.path("polygon").asText(), since);
+        } else if ("move".equals(type)) {
+            state = game.onMove(frame.path("from").asText(), frame.path("to").asText());
+        } else {
+            socket.send(error("Unknown frame type " + type));
+            return;
+        }
+        // the highlights are for the clicking socket only, a move reaches every socket through the audience,
+        // this one included, so the reply leaves the board out rather than repeat it against an older version
+        socket.send(mapper.writeValueAsString(StateFrame.withoutBoard(state, game.getSnapshot().getTurn())));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Outbox socket = (Outbox) session.getAttributes().get(GAME);
+        String gameId = gameId(session);
+        if (socket == null || gameId == null) {
+            return;
+        }
+        audiences.computeIfPresent(gameId, (id, audience) -> {
+            audience.sockets.remove(socket);
+            if (audience.sockets.isEmpty()) {
+                audience.game.removeListener(audience);
+                return null;
+            }
+            return audience;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private String frame(GameState state, String turn) throws IOException {
+        return mapper.writeValueAsString(StateFrame.of(state, turn));
+    }
+
+    private String error(String message) throws IOException {
+        Map<String, Object> frame = new LinkedHashMap<>();
+        frame.put("type", "error");
+        frame.put("message", message);
+        return mapper.writeValueAsString(frame);
+    }
+
+    /**
+     * @return the game ID of the path /games/{gameId}/socket, null if there is none
+     **/
+    private static String gameId(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        List<String> segments = UriComponentsBuilder.fromUri(session.getUri()).build().getPathSegments();
+        return segments.size() >= 2 ? segments.get(segments.size() - 2) : null;
+    }
+
+    /**
+     * The sockets of one game, listening to the game while there is at least one
+     **/
+    private final class Audience extends QueuedGameListener {
+        private final GameSession game;
+        private final Set<Outbox> sockets = new CopyOnWriteArraySet<>();
+
+        Audience(GameSession game) {
+            super(executor);
+            this.game = game;
+            game.addListener(this);
+        }
+
+        @Override
+        protected void publish(GameSnapshot snapshot) {
+            String frame;
+            try {
+                frame = frame(snapshot.toState(snapshot.getVersion() - 1), snapshot.getTurn());
+            } catch (IOException e) {
+                Log.e(TAG, e.getMessage());
+                return;
+            }
+            for (Outbox socket : sockets) {
+                socket.send(frame);
+            }
+        }
+
+        @Override
+        protected void close() {
+            audiences.remove(game.getId(), this);
+            for (Outbox socket : sockets) {
+                socket.close(CloseStatus.GOING_AWAY);
+            }
+        }
+    }
+
+    /**
+     * Frames of one socket, sent one at a time through the asynchronous endpoint of the socket, so
+     * neither the game nor the thread of a click waits for a slow socket
+     **/
+    private final class Outbox implements SendHandler {
+        private final WebSocketSession session;
+        private final RemoteEndpoint.Async remote;
+        private final Queue<String> queue = new ArrayDeque<>(); // guarded by this
+        private boolean sending; // guarded by this
+        private boolean closed; // guarded by this
+
+        Outbox(WebSocketSession session) {
+            this.session = session;
+            this.remote = ((NativeWebSocketSession) session).getNativeSession(Session.class).getAsyncRemote();
+            remote.setSendTimeout(sendTimeout);
+        }
+
+        /**
+         * Sends a frame after the frames queued before it, closing the socket if too many are queued
+         **/
+        void send(String frame) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (sending) {
+                    if (queue.size() < queueLimit) {
+                        queue.add(frame);
+                        return;
+                    }
+                    closed = true;
+                    queue.clear();
+                    disconnect(CloseStatus.SESSION_NOT_RELIABLE);
+                    return;
+                }
+                sending = true;
+            }
+            remote.sendText(frame, this);
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            String next;
+            synchronized (this) {
+                if (!result.isOK()) {
+                    closed = true;
+                    queue.clear();
+                }
+                next = closed ? null : queue.poll();
+                if (next == null) {
+                    sending = false;
+                }
+            }
+            if (next != null) {
+                remote.sendText(next, this);
+            } else if (!result.isOK()) {
+                disconnect(CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+
+        /**
+         * Drops the queued frames and closes the socket
+         **/
+        void close(CloseStatus status) {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            disconnect(status);
+        }
+
+        /**
+         * Closes the socket on the executor, the close frame may wait for the socket too
+         **/
+        private void disconnect(CloseStatus status) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        session.close(status);
+                    } catch (IOException e) {
+                        Log.e(TAG, e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                Log.e(TAG, "Executor shut down, socket left open");
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package application.socket;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the WebSocket endpoint of every game at /games/{gameId}/socket
+ **/
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final GameSocketHandler handler;
+
+    /**
+     * WebSocketConfig constructor
+     * @param handler handler of the game sockets
+     **/
+    public WebSocketConfig(GameSocketHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, "/games/*/socket");
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * WebSocket channel of the games: takes clicks and moves and pushes every change to the players and spectators
+ */
+package application.socket;
@@ -0,0 +1,366 @@
+package application.stream;
+
+import application.game.GameSession;
+import application.game.GameSnapshot;
+import application.game.QueuedGameListener;
+import application.game.StateFrame;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.GameState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import utility.Log;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events stream of the games for spectators, any number of them per game.
+ * Every move of a game is serialised once, as a StateFrame of the changes from the previous version,
+ * and the same bytes are written to every subscriber of the game. The game only hands its snapshot
+ * to the stream when it changes; serialising runs on the threads of the stream.
+ * Frames are written with the non-blocking output of the servlet container, so no thread ever waits
+ * for a spectator. Each subscriber has a bounded queue of frames; a subscriber too slow to keep up has
+ * its queue dropped and gets the full board of the latest version next, serialised once per version too.
+ * Only a subscriber whose socket takes no bytes for the write timeout is disconnected; the browser then
+ * subscribes again.
+ **/
+@Component
+public class SpectatorStream implements DisposableBean {
+    private static final String TAG = SpectatorStream.class.getSimpleName();
+    private static final byte[] DATA = "data: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper;
+    private final int queueCapacity;
+    private final long timeout;
+    private final long writeTimeout;
+    private final ScheduledExecutorService executor;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * SpectatorStream constructor
+     * @param mapper JSON mapper of the web application
+     * @param queueCapacity frames queued for a subscriber before it is dropped to the full board
+     * @param threads threads serialising the frames of all games
+     * @param timeoutMinutes minutes after which a subscription ends, the browser then subscribes again
+     * @param writeTimeoutSeconds seconds a subscriber may take no bytes before it is disconnected
+     **/
+    public SpectatorStream(ObjectMapper mapper,
+                           @Value("${spectators.queue-capacity:16}") int queueCapacity,
+                           @Value("${spectators.threads:4}") int threads,
+                           @Value("${spectators.timeout-minutes:30}") long timeoutMinutes,
+                           @Value("${spectators.write-timeout-seconds:10}") long writeTimeoutSeconds) {
+        this.mapper = mapper;
+        this.queueCapacity = queueCapacity;
+        this.timeout = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.writeTimeout = TimeUnit.SECONDS.toNanos(writeTimeoutSeconds);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, TAG + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Subscribes a spectator to a game; the full board is sent first, then every move.
+     * The response stays open after the request returns, until the spectator leaves.
+     * @param game the game to watch
+     * @param request request of the subscription
+     * @param response response the events are written to
+     **/
+    public void subscribe(GameSession game, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext context = request.startAsync();
+        context.setTimeout(timeout);
+        Subscriber subscriber = new Subscriber(context, response.getOutputStream());
+        context.addListener(subscriber);
+        subscriber.channel = channels.compute(game.getId(), (id, existing) -> {
+            Channel joined = existing != null ? existing : new Channel(game);
+            joined.subscribers.add(subscriber);
+            return joined;
+        });
+        if (game.isClosed()) {
+            subscriber.close(); // removed while subscribing, its channel was never notified
+            return;
+        }
+        // the container calls onWritePossible once the output is ready, which writes the full board
+        subscriber.out.setWriteListener(subscriber);
+    }
+
+    /**
+     * @param gameId game ID
+     * @return number of spectators of the game
+     **/
+    public int size(String gameId) {
+        Channel channel = channels.get(gameId);
+        return channel != null ? channel.subscribers.size() : 0;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A frame serialised once, as a whole event, and written as is to every subscriber
+     **/
+    private static final class Frame {
+        private final long version;
+        private final byte[] data;
+
+        Frame(long version, byte[] data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+
+    /**
+     * The subscribers of one game, listening to the game while there is at least one
+     **/
+    private final class Channel extends QueuedGameListener {
+        private final GameSession game;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private Frame full; // full board of the latest version, guarded by this
+
+        Channel(GameSession game) {
+            super(executor);
+            this.game = game;
+            game.addListener(this);
+        }
+
+        @Override
+        protected void publish(GameSnapshot snapshot) {
+            Frame frame = frame(snapshot.toState(snapshot.getVersion() - 1), snapshot);
+            if (frame == null) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(frame);
+            }
+        }
+
+        @Override
+        protected void close() {
+            channels.remove(game.getId(), this);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.close();
+            }
+        }
+
+        /**
+         * @return frame of the full board of the latest version of the game, serialised on the first request
+         **/
+        private synchronized Frame fullFrame() {
+            GameSnapshot snapshot = game.getSnapshot();
+            if (full == null || full.version != snapshot.getVersion()) {
+                full = frame(snapshot.toState(GameState.NO_VERSION), snapshot);
+            }
+            return full;
+        }
+
+        private Frame frame(GameState state, GameSnapshot snapshot) {
+            byte[] json;
+            try {
+                json = mapper.writeValueAsBytes(StateFrame.of(state, snapshot.getTurn()));
+            } catch (JsonProcessingException e) {
+                Log.e(TAG, e.getMessage());
+                return null;
+            }
+            byte[] data = new byte[DATA.length + json.length + END.length];
+            System.arraycopy(DATA, 0, data, 0, DATA.length);
+            System.arraycopy(json, 0, data, DATA.length, json.length);
+            System.arraycopy(END, 0, data, DATA.length + json.length, END.length);
+            return new Frame(snapshot.getVersion(), data);
+        }
+    }
+
+    /**
+     * One spectator. Its frames are written only while the output is ready, which never blocks;
+     * once it is not, the container calls onWritePossible when the socket takes bytes again.
+     **/
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext context;
+        private final ServletOutputStream out;
+        private final Queue<Frame> queue = new ArrayDeque<>(); // guarded by this
+        private boolean behind = true; // guarded by this, the full board is sent next
+        private boolean writable; // guarded by this, set once the container called onWritePossible
+        private boolean flushed = true; // guarded by this
+        private long stalledSince; // guarded by this, System.nanoTime() the output stopped being ready, 0 if ready
+        private long sentVersion = GameState.NO_VERSION; // guarded by this
+        private volatile Channel channel;
+        private volatile boolean closed;
+
+        Subscriber(AsyncContext context, ServletOutputStream out) {
+            this.context = context;
+            this.out = out;
+        }
+
+        /**
+         * Queues a frame and writes what the output takes, or drops the queue to the full board if it is full
+         **/
+        void offer(Frame frame) {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                if (queue.size() >= queueCapacity) {
+                    queue.clear(); // the full board of the latest version holds these and the frame
+                    behind = true;
+                } else {
+                    queue.add(frame);
+                }
+                write();
+            }
+        }
+
+        @Override
+        public synchronized void onWritePossible() {
+            writable = true;
+            stalledSince = 0;
+            write();
+        }
+
+        /**
+         * Writes the queued frames while the output is ready, flushing once the queue is empty
+         **/
+        private void write() {
+            if (closed || !writable) {
+                return;
+            }
+            try {
+                while (out.isReady()) {
+                    Frame frame = behind ? channel.fullFrame() : queue.poll();
+                    behind = false;
+                    if (frame == null) {
+                        if (flushed) {
+                            return;
+                        }
+                        flushed = true;
+                        out.flush();
+                    } else if (frame.version > sentVersion) { // older frames are in the full board sent
+                        out.write(frame.data);
+                        sentVersion = frame.version;
+                        flushed = false;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(); // the spectator is gone
+                return;
+            }
+            if (stalledSince == 0) {
+                stalledSince = System.nanoTime();
+                watch(writeTimeout);
+            }
+        }
+
+        /**
+         * Checks after a delay that the output took bytes since it stalled, disconnects the subscriber if not
+         **/
+        private void watch(long delay) {
+            try {
+                executor.schedule(() -> {
+                    synchronized (this) {
+                        if (closed || stalledSince == 0) {
+                            return;
+                        }
+                        long stalled = System.nanoTime() - stalledSince;
+                        if (stalled >= writeTimeout) {
+                            Log.e(TAG, "Spectator write timed out, disconnected");
+                            close();
+                        } else {
+                            watch(writeTimeout - stalled);
+                        }
+                    }
+                }, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        /**
+         * Ends the response of the subscriber and leaves the channel
+         **/
+        void close() {
+            if (closed) {
+                return;
+            }
+            leave();
+            synchronized (this) {
+                queue.clear();
+            }
+            try {
+                context.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            leave();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // not restarted
+        }
+
+        void leave() {
+            closed = true;
+            Channel joined = channel;
+            if (joined == null) {
+                return;
+            }
+            channels.computeIfPresent(joined.game.getId(), (id, existing) -> {
+                if (existing != joined) {
+                    return existing;
+                }
+                existing.subscribers.remove(this);
+                if (existing.subscribers.isEmpty()) {
+                    existing.game.removeListener(existing);
+                    return null;
+                }
+                return existing;
+            });
+        }
+    }
+}
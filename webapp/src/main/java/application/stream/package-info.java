@@ -0,0 +1,4 @@
+/**
+ * Server-Sent Events stream of the games: pushes every change of a game to its spectators
+ */
+package application.stream;
@@ -25,6 +25,111 @@ const colorMap = {'R':'Red', 'G':'Green', 'B': 'Blue'};
  */
 let theme = 'arialTheme'
 
+/**
+ * ID of the game shown, from the game parameter of the page URL
+ * @type {string}
+ */
+const gameId = new URLSearchParams(window.location.search).get('game');
+
+/**
+ * path of an endpoint of the game shown
+ * @param endpoint name of the endpoint, e.g. board
+ * @returns {string}
+ */
+function gamePath(endpoint) {
+    return '/games/' + encodeURIComponent(gameId) + '/' + endpoint;
+}
+
+/**
+ * media type of the board encoded in 96 bytes, one per polygon in the order of the positions:
+ * 0 for an empty polygon, else colour * 8 + piece type + 1
+ * @type {string}
+ */
+const BOARD_MEDIA_TYPE = 'application/vnd.threeplayerchess.board';
+const BOARD_COLOURS = 'BGR';
+const BOARD_PIECES = 'RNBQKPJW';
+
+/**
+ * label of the polygon of a position index, e.g. 0 to Ba1, 95 to Rh4
+ * @param index position index, colour * 32 + column * 4 + row
+ * @returns {string}
+ */
+function polygonLabel(index) {
+    return BOARD_COLOURS[index >> 5] + 'abcdefgh'[(index >> 2) & 7] + ((index & 3) + 1);
+}
+
+/**
+ * decodes a board encoded in 96 bytes
+ * @param bytes the encoded board
+ * @returns {Object} board, e.g. {Ba1: "BR", Ba2: "BP", ...}
+ */
+function decodeBoard(bytes) {
+    const board = {};
+    for (let index = 0; index < bytes.length; index++) {
+        const code = bytes[index];
+        if (code !== 0) {
+            board[polygonLabel(index)] = BOARD_COLOURS[(code - 1) >> 3] + BOARD_PIECES[(code - 1) & 7];
+        }
+    }
+    return board;
+}
+
+/**
+ * board shown, e.g. {Ba1: "BR", Ba2: "BP", ...}, and its version; the server sends only the
+ * polygons changed since the version
+ */
+let boardState = {};
+let boardVersion = -1;
+
+/**
+ * socket of the game, pushing every change of the game; the clicks go through it once it is open
+ * @type {WebSocket}
+ */
+let socket = null;
+
+/**
+ * opens the socket of the game and displays every state it pushes, reopening it when it closes
+ */
+function connectSocket() {
+    const protocol = window.location.protocol === 'https:' ? 'wss://' : 'ws://';
+    socket = new WebSocket(protocol + window.location.host + gamePath('socket'));
+    socket.onmessage = function (event) {
+        const frame = JSON.parse(event.data);
+        if (frame['type'] === 'state') {
+            updateBoard(frame);
+            updateCurrenPlayer(frame['turn']);
+        } else {
+            console.log('Socket error: ' + frame['message']);
+        }
+    };
+    socket.onclose = function (event) {
+        console.log('Socket closed: ' + event.code);
+        if (event.code !== 1008) { // no such game
+            setTimeout(connectSocket, 1000);
+        }
+    };
+}
+
+/**
+ * whether the page only watches the game, from the watch parameter of the page URL;
+ * a watching page follows the event stream of the game and ignores clicks
+ * @type {boolean}
+ */
+const watching = new URLSearchParams(window.location.search).get('watch') === 'true';
+
+/**
+ * subscribes to the Server-Sent Events of the game and displays every state pushed,
+ * the browser subscribing again when the stream ends
+ */
+function connectEvents() {
+    const events = new EventSource(gamePath('events'));
+    events.onmessage = function (event) {
+        const frame = JSON.parse(event.data);
+        updateBoard(frame);
+        updateCurrenPlayer(frame['turn']);
+    };
+}
+
 /**
  * displays the current player inside p element with the id "playerdisplay"
  * @param color color of the current player as single character (R, G, B)
@@ -78,23 +183,62 @@ function removeHighlighting(){
 }
 
 /**
- * updates the chessboard with the new state
- * @param data new board state with the updated piece positions, e.g. {Ba1: "BR", Ba2: "BP", ...}
+ * updates the chessboard with the new state, either the full board or the polygons changed since
+ * the version shown; changes to another version are dropped and the full board is requested.
+ * The board of a state not newer than the version shown, or a state without board, is skipped,
+ * its highlights and game over are still shown
+ * @param response new state, e.g. {board: {Ba1: "BR", ...}} or {changes: {Bd2: "", Bd4: "BP"}, since: 0, version: 1}
  */
 function updateBoard(response) {
-    clearBoard();
     console.log('New Board Configuration:', response);
-    let board = response['board'];
+    if (response['version'] <= boardVersion) {
+        // the board is displayed already, e.g. a click reply after the push of its move
+    } else if (response['board'] != null) {
+        boardState = response['board'];
+        boardVersion = response['version'];
+    } else if (response['changes'] == null) {
+        // a click reply over the socket, its move is pushed separately
+    } else if (response['since'] === boardVersion) {
+        const changes = response['changes'];
+        for (const polygonId in changes) {
+            if (changes[polygonId] === '') {
+                delete boardState[polygonId];
+            } else {
+                boardState[polygonId] = changes[polygonId];
+            }
+        }
+        boardVersion = response['version'];
+    } else {
+        requestFullBoard();
+        return;
+    }
+    clearBoard();
     let highlightedPolygons = response['highlightedPolygons'];
-    let winner = response['winner'];
     if(response['gameOver']){
         showGameOverPopup(response['winner']);
     }
 
-    updatePieces(board);
+    updatePieces(boardState);
     displayPossibleMoves(highlightedPolygons);
 }
 
+/**
+ * requests the full board, over the socket if it is open, otherwise in its 96 byte encoding
+ */
+function requestFullBoard() {
+    if (socket != null && socket.readyState === WebSocket.OPEN) {
+        socket.send(JSON.stringify({type: 'sync', since: -1}));
+        return;
+    }
+    fetch(gamePath('board'), {headers: {'Accept': BOARD_MEDIA_TYPE}})
+        .then(response => response.arrayBuffer().then(buffer => ({
+            board: decodeBoard(new Uint8Array(buffer)),
+            version: parseInt(response.headers.get('X-Board-Version')),
+            highlightedPolygons: []
+        })))
+        .then(updateBoard);
+}
+
 function updatePieces(board) {
     for (const polygonId in board) {
         const value = board[polygonId];
@@ -193,33 +337,44 @@ function clearBoard() {
  */
 function bodyLoaded(){
     console.log("Body loaded");
-    requestUpdatedBoard();
-    requestCurrentPlayer()
+    if (watching) {
+        connectEvents(); // spectators of featured games, as many as they come
+    } else {
+        connectSocket(); // pushes the board and the current player on connecting
+    }
 
     const polygons = document.querySelectorAll('polygon');
 
     polygons.forEach(function (polygon) {
         insertLabels(polygon.id)
         polygon.addEventListener('click', function () {
+            if (watching) {
+                return;
+            }
             const polygonId = polygon.id;
             sendPolygonClicked(polygonId);
-            requestCurrentPlayer();
         });
     });
 }
 
 /**
- * post the id of the clicked Polygon to the server on /onClick endpoint
+ * sends the id of the clicked Polygon to the server, over the socket if it is open,
+ * otherwise posted on the onClick endpoint of the game
  * @param polygonId id of the clicked polygon, e.g. Ra1, Gb3, ...
  */
 function sendPolygonClicked(polygonId){
+    if (socket != null && socket.readyState === WebSocket.OPEN) {
+        socket.send(JSON.stringify({type: 'click', polygon: polygonId, since: boardVersion}));
+        return;
+    }
     const request = new XMLHttpRequest();
-    request.open("POST", "/onClick", false);
+    request.open("POST", gamePath("onClick") + '?since=' + boardVersion, false);
     request.send(polygonId);
 
     if (request.status === 200) {
         const data = JSON.parse(request.response);
         updateBoard(data);
+        requestCurrentPlayer();
     }
 }
 
@@ -238,27 +393,12 @@ function requestHighlightedPolygons(polygonId){
     }
 }
 
-/**
- * requests the new board state and displays it
- */
-function requestUpdatedBoard(){
-    console.log("Request Current Board");
-    const request = new XMLHttpRequest();
-    request.open("GET", "/board", false);
-    request.send(null);
-
-    if (request.status === 200) {
-        const data = JSON.parse(request.response);
-        updatePieces(data);
-    }
-}
-
 /**
  * requests the current player and displays it
  */
 function requestCurrentPlayer(){
     const request = new XMLHttpRequest();
-    request.open("GET", "/currentPlayer", false);
+    request.open("GET", gamePath("currentPlayer"), false);
     request.send(null);
 
     if (request.status === 200) {
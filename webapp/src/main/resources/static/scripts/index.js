@@ -26,6 +26,6 @@ function newGame(){
     request.send(null);
 
     if (request.status === 200) {
-        window.location.href = '/game.html';
+        window.location.href = '/game.html?game=' + encodeURIComponent(request.responseText);
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package application.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the GameRegistry class.
+ */
+ class GameRegistryTest {
+
+   /**
+    * Tests the create method, expecting every game found by its own ID.
+    */
+    @Test
+     void create_twoGames_eachFoundById() {
+        GameRegistry registry = new GameRegistry(120);
+        GameSession first = registry.create();
+        GameSession second = registry.create();
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, registry.get(first.getId()));
+        assertSame(second, registry.get(second.getId()));
+        assertEquals(2, registry.size());
+    }
+
+   /**
+    * Tests the get method with an ID no game has, expecting null.
+    */
+    @Test
+     void get_unknownId_null() {
+        GameRegistry registry = new GameRegistry(120);
+        registry.create();
+        assertNull(registry.get("unknown"));
+    }
+
+   /**
+    * Tests the sweep method with an idle timeout of 0 minutes, expecting the idle game removed and closed.
+    */
+    @Test
+     void sweep_idleTimeoutZero_gameRemovedAndClosed() {
+        GameRegistry registry = new GameRegistry(0);
+        GameSession session = registry.create();
+        registry.sweep(session.getLastAccess() + 1);
+        assertNull(registry.get(session.getId()));
+        assertEquals(0, registry.size());
+        assertTrue(session.isClosed());
+    }
+
+   /**
+    * Tests the sweep method on a game used within the idle timeout, expecting the game kept open.
+    */
+    @Test
+     void sweep_gameWithinTimeout_gameKept() {
+        GameRegistry registry = new GameRegistry(120);
+        GameSession session = registry.create();
+        registry.sweep(session.getLastAccess() + 1);
+        assertSame(session, registry.get(session.getId()));
+        assertFalse(session.isClosed());
+    }
+
+   /**
+    * Tests the sweep method with an idle timeout of 0 minutes on a game read at the time of the sweep,
+    * expecting the game kept, as a read counts as use.
+    */
+    @Test
+     void sweep_gameReadAtSweep_gameKept() {
+        GameRegistry registry = new GameRegistry(0);
+        GameSession session = registry.create();
+        session.getSnapshot();
+        registry.sweep(session.getLastAccess());
+        assertSame(session, registry.get(session.getId()));
+    }
+}
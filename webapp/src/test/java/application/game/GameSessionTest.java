@@ -0,0 +1,114 @@
+package application.game;
+
+import common.GameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the GameSession class.
+ */
+ class GameSessionTest {
+
+    private GameSession session;
+    private RecordingListener listener;
+
+   /**
+    * Starts a new game with a recording listener before each test.
+    */
+    @BeforeEach
+    void initBeforeEachGameSessionTest() {
+        session = new GameSession("game");
+        listener = new RecordingListener();
+        session.addListener(listener);
+    }
+
+   /**
+    * Tests the onClick method when selecting a blue pawn, expecting the version unchanged
+    * and the listener not notified.
+    */
+    @Test
+     void onClick_selectPawn_listenerNotNotified() {
+        long version = session.getSnapshot().getVersion();
+        GameState state = session.onClick("Bb2", version);
+        assertFalse(state.getHighlightedPolygons().isEmpty());
+        assertEquals(version, session.getSnapshot().getVersion());
+        assertTrue(listener.changes.isEmpty());
+    }
+
+   /**
+    * Tests the onClick method when moving a blue pawn, expecting the listener notified once
+    * of the snapshot of the next version.
+    */
+    @Test
+     void onClick_movePawn_listenerNotifiedOfNextVersion() {
+        long version = session.getSnapshot().getVersion();
+        session.onClick("Bb2", version);
+        session.onClick("Bb4", version);
+        assertEquals(1, listener.changes.size());
+        GameSnapshot snapshot = listener.changes.get(0);
+        assertSame(session.getSnapshot(), snapshot);
+        assertEquals(version + 1, snapshot.getVersion());
+        assertEquals("BP", snapshot.getBoard().get("Bb4"));
+    }
+
+   /**
+    * Tests the onMove method with an invalid move, expecting the listener not notified.
+    */
+    @Test
+     void onMove_invalidMove_listenerNotNotified() {
+        session.onMove("Ba2", "Ba5");
+        assertTrue(listener.changes.isEmpty());
+    }
+
+   /**
+    * Tests the removeListener method, expecting the listener not notified of the next move.
+    */
+    @Test
+     void removeListener_thenMove_listenerNotNotified() {
+        session.removeListener(listener);
+        session.onMove("Bb2", "Bb4");
+        assertTrue(listener.changes.isEmpty());
+    }
+
+   /**
+    * Tests the close method called twice, expecting the game closed and onClose delivered once.
+    */
+    @Test
+     void close_twice_onCloseOnce() {
+        assertFalse(session.isClosed());
+        session.close();
+        session.close();
+        assertTrue(session.isClosed());
+        assertEquals(1, listener.closes.get());
+    }
+
+   /**
+    * Tests the close method, expecting the listener detached and not notified of a later move.
+    */
+    @Test
+     void close_thenMove_listenerNotNotified() {
+        session.close();
+        session.onMove("Bb2", "Bb4");
+        assertTrue(listener.changes.isEmpty());
+    }
+
+   /**
+    * Tests the addListener method on a closed game, as when a socket joins a game being evicted,
+    * expecting the listener neither added nor notified.
+    */
+    @Test
+     void addListener_afterClose_listenerIgnored() {
+        session.close();
+        RecordingListener late = new RecordingListener();
+        session.addListener(late);
+        session.onMove("Bb2", "Bb4");
+        session.close();
+        assertTrue(late.changes.isEmpty());
+        assertEquals(0, late.closes.get());
+    }
+}
@@ -0,0 +1,210 @@
+package application.game;
+
+import common.BoardHistory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class contains unit tests for the QueuedGameListener class.
+ */
+ class QueuedGameListenerTest {
+
+    /**
+     * QueuedGameListener recording the versions it publishes, -1 for the close
+     */
+    private static class VersionListener extends QueuedGameListener {
+        final List<Long> published = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger closes = new AtomicInteger();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        VersionListener(Executor executor) {
+            super(executor);
+        }
+
+        @Override
+        protected void publish(GameSnapshot snapshot) {
+            published.add(snapshot.getVersion());
+        }
+
+        @Override
+        protected void close() {
+            published.add(-1L);
+            closes.incrementAndGet();
+            closed.countDown();
+        }
+    }
+
+    private static GameSnapshot snapshot(long version) {
+        return new GameSnapshot(new BoardHistory(Collections.emptyMap(), version, 1), "B", false, null);
+    }
+
+   /**
+    * Tests the onChange and onClose methods with an executor running each task at once,
+    * expecting the changes published in order and then one close.
+    */
+    @Test
+     void onChange_directExecutor_publishedInOrderThenClosedOnce() {
+        VersionListener listener = new VersionListener(Runnable::run);
+        listener.onChange(snapshot(1));
+        listener.onChange(snapshot(2));
+        listener.onClose();
+        listener.onClose();
+        assertEquals(Arrays.asList(1L, 2L, -1L), listener.published);
+        assertEquals(1, listener.closes.get());
+    }
+
+   /**
+    * Tests the onChange and onClose methods with an executor holding its tasks until run,
+    * expecting one task for all the changes queued meanwhile, publishing them in order before the close.
+    */
+    @Test
+     void onChange_queuedWhilePending_oneTaskPublishesAllThenCloses() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        VersionListener listener = new VersionListener(tasks::add);
+        listener.onChange(snapshot(1));
+        listener.onChange(snapshot(2));
+        listener.onChange(snapshot(3));
+        listener.onClose();
+        assertEquals(1, tasks.size());
+        assertTrue(listener.published.isEmpty());
+        tasks.poll().run();
+        assertEquals(Arrays.asList(1L, 2L, 3L, -1L), listener.published);
+        assertTrue(tasks.isEmpty());
+    }
+
+   /**
+    * Tests the onChange method after a drain has finished, expecting a new task to publish the change.
+    */
+    @Test
+     void onChange_afterDrain_newTaskScheduled() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        VersionListener listener = new VersionListener(tasks::add);
+        listener.onChange(snapshot(1));
+        tasks.poll().run();
+        listener.onChange(snapshot(2));
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertEquals(Arrays.asList(1L, 2L), listener.published);
+    }
+
+   /**
+    * Tests the onChange method from within a publish, as a change arriving while the listener drains,
+    * expecting it published by the same task.
+    */
+    @Test
+     void onChange_duringPublish_publishedBySameTask() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        List<Long> published = new ArrayList<>();
+        QueuedGameListener listener = new QueuedGameListener(tasks::add) {
+            @Override
+            protected void publish(GameSnapshot snapshot) {
+                published.add(snapshot.getVersion());
+                if (snapshot.getVersion() == 1) {
+                    onChange(snapshot(2));
+                }
+            }
+
+            @Override
+            protected void close() {
+            }
+        };
+        listener.onChange(snapshot(1));
+        tasks.poll().run();
+        assertEquals(Arrays.asList(1L, 2L), published);
+        assertTrue(tasks.isEmpty());
+    }
+
+   /**
+    * Tests the publish method throwing, expecting the later changes published all the same.
+    */
+    @Test
+     void publish_throws_laterChangesPublished() {
+        List<Long> published = new ArrayList<>();
+        QueuedGameListener listener = new QueuedGameListener(Runnable::run) {
+            @Override
+            protected void publish(GameSnapshot snapshot) {
+                if (snapshot.getVersion() == 1) {
+                    throw new IllegalStateException("publish failed");
+                }
+                published.add(snapshot.getVersion());
+            }
+
+            @Override
+            protected void close() {
+            }
+        };
+        listener.onChange(snapshot(1));
+        listener.onChange(snapshot(2));
+        assertEquals(Collections.singletonList(2L), published);
+    }
+
+   /**
+    * Tests the onChange and onClose methods on a single thread executor with the changes of two threads
+    * racing the draining thread, expecting every change published in the order of each thread and
+    * exactly one close after the last change.
+    */
+    @Test
+     void onChange_singleThreadExecutor_allPublishedThenClosedOnce() throws Exception {
+        int changes = 10_000;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            VersionListener listener = new VersionListener(executor);
+            CyclicBarrier start = new CyclicBarrier(2);
+            Thread odd = new Thread(() -> offer(listener, start, 1, changes));
+            Thread even = new Thread(() -> offer(listener, start, 2, changes));
+            odd.start();
+            even.start();
+            odd.join();
+            even.join();
+            listener.onClose();
+            assertTrue(listener.closed.await(10, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            List<Long> published = new ArrayList<>(listener.published);
+            assertEquals(changes + 1, published.size());
+            assertEquals(-1L, (long) published.get(changes));
+            assertEquals(1, listener.closes.get());
+            long lastOdd = -1;
+            long lastEven = 0;
+            for (long version : published.subList(0, changes)) {
+                if (version % 2 == 1) {
+                    assertTrue(version > lastOdd);
+                    lastOdd = version;
+                } else {
+                    assertTrue(version > lastEven);
+                    lastEven = version;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void offer(QueuedGameListener listener, CyclicBarrier start, long first, int changes) {
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        for (long version = first; version <= changes; version += 2) {
+            listener.onChange(snapshot(version));
+        }
+    }
+}
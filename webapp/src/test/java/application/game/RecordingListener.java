@@ -0,0 +1,23 @@
+package application.game;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GameListener recording the snapshots and closes it is notified of, for the tests of the game package.
+ */
+class RecordingListener implements GameListener {
+    final List<GameSnapshot> changes = new CopyOnWriteArrayList<>();
+    final AtomicInteger closes = new AtomicInteger();
+
+    @Override
+    public void onChange(GameSnapshot snapshot) {
+        changes.add(snapshot);
+    }
+
+    @Override
+    public void onClose() {
+        closes.incrementAndGet();
+    }
+}